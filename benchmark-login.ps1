@@ -0,0 +1,60 @@
+# Login throughput benchmark.
+# Start the application against a local database first, with an active account to log in as, then run:
+#   pwsh ./benchmark-login.ps1 -UsernameOrEmail admin -Password secret -Requests 2000 -Concurrency 16
+# Requires PowerShell 7 (ForEach-Object -Parallel).
+
+param(
+    [string]$BaseUrl = "http://localhost:9091",
+    [Parameter(Mandatory = $true)][string]$UsernameOrEmail,
+    [Parameter(Mandatory = $true)][string]$Password,
+    [int]$Requests = 1000,
+    [int]$Concurrency = 8,
+    [int]$Warmup = 50
+)
+
+$uri = "$BaseUrl/api/auth/login"
+$body = @{
+    usernameOrEmail = $UsernameOrEmail
+    password = $Password
+} | ConvertTo-Json
+
+Write-Host "Warming up with $Warmup logins..."
+for ($i = 0; $i -lt $Warmup; $i++) {
+    try {
+        Invoke-RestMethod -Uri $uri -Method Post -ContentType "application/json" -Body $body | Out-Null
+    } catch {
+        Write-Host "Warm-up login failed: $($_.Exception.Message)"
+        exit 1
+    }
+}
+
+Write-Host "Running $Requests logins with $Concurrency concurrent clients against $uri"
+$stopwatch = [System.Diagnostics.Stopwatch]::StartNew()
+$results = 1..$Requests | ForEach-Object -ThrottleLimit $Concurrency -Parallel {
+    $started = [System.Diagnostics.Stopwatch]::StartNew()
+    try {
+        Invoke-RestMethod -Uri $using:uri -Method Post -ContentType "application/json" -Body $using:body | Out-Null
+        $ok = $true
+    } catch {
+        $ok = $false
+    }
+    [pscustomobject]@{ Ok = $ok; Millis = $started.Elapsed.TotalMilliseconds }
+}
+$stopwatch.Stop()
+
+$succeeded = @($results | Where-Object { $_.Ok })
+$latencies = @($succeeded | ForEach-Object { $_.Millis } | Sort-Object)
+$seconds = $stopwatch.Elapsed.TotalSeconds
+
+function Get-Percentile([double[]]$sorted, [double]$p) {
+    if ($sorted.Count -eq 0) { return 0 }
+    $index = [Math]::Min($sorted.Count - 1, [Math]::Ceiling($p * $sorted.Count) - 1)
+    return [Math]::Round($sorted[$index], 1)
+}
+
+Write-Host ""
+Write-Host ("Logins/second : {0:N1}" -f ($succeeded.Count / $seconds))
+Write-Host ("Succeeded     : {0} of {1} in {2:N2}s" -f $succeeded.Count, $Requests, $seconds)
+Write-Host ("Latency p50   : {0} ms" -f (Get-Percentile $latencies 0.50))
+Write-Host ("Latency p95   : {0} ms" -f (Get-Percentile $latencies 0.95))
+Write-Host ("Latency p99   : {0} ms" -f (Get-Percentile $latencies 0.99))
@@ -0,0 +1,86 @@
+package com.vijay.User_Master.config.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying one access token per request, before and after JwtTokenVerifier.
+ * <p>
+ * {@code perRequestParser} is the old filter path: validateToken and getUsername each decoded the
+ * secret, built a key and a parser, and checked the signature. {@code prebuiltParser} is one parse
+ * with the startup parser (the verifier with caching off, as for a token seen for the first time), and
+ * {@code cachedVerifier} is a client sending the same token again. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+
+    private String secret;
+    private String token;
+    private JwtTokenVerifier uncachedVerifier;
+    private JwtTokenVerifier cachedVerifier;
+
+    @Setup
+    public void setUp() {
+        byte[] bytes = new byte[64];
+        new SecureRandom().nextBytes(bytes);
+        secret = Encoders.BASE64.encode(bytes);
+        uncachedVerifier = new JwtTokenVerifier(secret, 0);
+        cachedVerifier = new JwtTokenVerifier(secret, 10000);
+
+        Date now = new Date();
+        token = Jwts.builder()
+                .setSubject("benchmark-user")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + TimeUnit.HOURS.toMillis(1)))
+                .setId("benchmark-token")
+                .claim(JwtTokenProvider.CLAIM_ISSUED_MILLIS, now.getTime())
+                .claim(JwtTokenProvider.CLAIM_USER_ID, 1L)
+                .claim(JwtTokenProvider.CLAIM_USER_TYPE, "USER")
+                .claim(JwtTokenProvider.CLAIM_ROLES, List.of("ROLE_ADMIN", "ROLE_NORMAL"))
+                .signWith(cachedVerifier.key())
+                .compact();
+    }
+
+    @Benchmark
+    public String perRequestParser() {
+        parseWithNewParser(token);
+        return parseWithNewParser(token).getSubject();
+    }
+
+    @Benchmark
+    public String prebuiltParser() {
+        return uncachedVerifier.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerifier() {
+        return cachedVerifier.verify(token).getSubject();
+    }
+
+    private Claims parseWithNewParser(String jwt) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+}
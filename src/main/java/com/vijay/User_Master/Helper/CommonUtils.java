@@ -4,6 +4,8 @@ import com.vijay.User_Master.config.security.CustomUserDetails;
 import com.vijay.User_Master.entity.User;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public class CommonUtils {
@@ -18,6 +20,18 @@ public class CommonUtils {
         }
     }
 
+    /**
+     * Username of the authenticated caller, or null for anonymous requests.
+     */
+    public static String getLoggedInUsernameOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
     public static String getUrl(HttpServletRequest request) {
         String apiUrl = request.getRequestURL().toString(); // http:localhost:8080/api/v1/auth
         apiUrl = apiUrl.replace(request.getServletPath(), ""); // http:localhost:8080
@@ -0,0 +1,35 @@
+package com.vijay.User_Master.Helper;
+
+import com.vijay.User_Master.dto.ResourceVersion;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class ConditionalRequests {
+
+    /**
+     * Strong ETag built from the resource type, identity and version parts, e.g. "tutorial-12-18c9a3f0b2".
+     */
+    public static String etag(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    public static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Evaluates If-None-Match / If-Modified-Since against the version. When this returns true the
+     * response is already marked 304; otherwise ETag and Last-Modified headers have been set
+     * for the full response.
+     */
+    public static boolean notModified(WebRequest request, ResourceVersion version) {
+        if (version.getLastModified() == null) {
+            return request.checkNotModified(version.getEtag());
+        }
+        return request.checkNotModified(version.getEtag(), epochMillis(version.getLastModified()));
+    }
+}
@@ -1,27 +1,25 @@
 package com.vijay.User_Master.Helper;
 
-import jakarta.mail.internet.MimeMessage;
+import com.vijay.User_Master.dto.form.EmailForm;
+import com.vijay.User_Master.service.impl.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 
 @Configuration
 public class EmailUtils {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailService emailService;
 
+    // Queued in the outbox; true once queued, the send itself happens after commit
     public boolean sendEmail(String to, String subject, String body){
        boolean isSent = false;
         try{
-            MimeMessage mimeMessage=mailSender.createMimeMessage();
-            MimeMessageHelper helper=new MimeMessageHelper(mimeMessage);
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, true);
-            mailSender.send(mimeMessage);
+            emailService.sendEmail(EmailForm.builder()
+                    .to(to)
+                    .subject(subject)
+                    .message(body)
+                    .build());
             isSent=true;
         }catch (Exception e){
             e.printStackTrace();
@@ -0,0 +1,195 @@
+package com.vijay.User_Master.Helper;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable compressed set of non-negative ids, laid out like a Roaring bitmap: ids are grouped by
+ * their high bits into chunks of 65536, and each chunk is either a sorted char[] (up to 4096 ids)
+ * or a 1024-word bitmap. A handful of bookmarks costs a few bytes, a dense range costs 8KB per chunk.
+ * <p>
+ * {@link #with} and {@link #without} return a new bitmap that shares every untouched chunk, so
+ * readers never need a lock.
+ */
+public final class IdBitmap {
+
+    public static final IdBitmap EMPTY = new IdBitmap(new long[0], new Object[0]);
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    // Sorted chunk keys (id >>> 16); containers[i] is a char[] or a long[BITMAP_WORDS]
+    private final long[] keys;
+    private final Object[] containers;
+
+    private IdBitmap(long[] keys, Object[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    public static IdBitmap of(Collection<Long> ids) {
+        long[] sorted = ids.stream()
+                .filter(id -> id != null && id >= 0)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+        long[] keys = new long[sorted.length];
+        Object[] containers = new Object[sorted.length];
+        int chunks = 0;
+        int start = 0;
+        while (start < sorted.length) {
+            long key = sorted[start] >>> 16;
+            int end = start;
+            while (end < sorted.length && sorted[end] >>> 16 == key) {
+                end++;
+            }
+            char[] low = new char[end - start];
+            for (int i = start; i < end; i++) {
+                low[i - start] = (char) sorted[i];
+            }
+            keys[chunks] = key;
+            containers[chunks] = low.length > ARRAY_MAX ? toBitmap(low) : low;
+            chunks++;
+            start = end;
+        }
+        return new IdBitmap(Arrays.copyOf(keys, chunks), Arrays.copyOf(containers, chunks));
+    }
+
+    public boolean contains(Long id) {
+        if (id == null || id < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) id.longValue();
+        Object container = containers[index];
+        if (container instanceof char[] array) {
+            return Arrays.binarySearch(array, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public IdBitmap with(Long id) {
+        if (id == null || id < 0 || contains(id)) {
+            return this;
+        }
+        long key = id >>> 16;
+        char low = (char) id.longValue();
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            int insert = -index - 1;
+            long[] newKeys = new long[keys.length + 1];
+            Object[] newContainers = new Object[containers.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(containers, 0, newContainers, 0, insert);
+            newKeys[insert] = key;
+            newContainers[insert] = new char[]{low};
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(containers, insert, newContainers, insert + 1, containers.length - insert);
+            return new IdBitmap(newKeys, newContainers);
+        }
+        Object container = containers[index];
+        Object updated;
+        if (container instanceof char[] array) {
+            int insert = -Arrays.binarySearch(array, low) - 1;
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, insert);
+            grown[insert] = low;
+            System.arraycopy(array, insert, grown, insert + 1, array.length - insert);
+            updated = grown.length > ARRAY_MAX ? toBitmap(grown) : grown;
+        } else {
+            long[] words = ((long[]) container).clone();
+            words[low >>> 6] |= 1L << low;
+            updated = words;
+        }
+        return replace(index, updated);
+    }
+
+    public IdBitmap without(Long id) {
+        if (id == null || !contains(id)) {
+            return this;
+        }
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        char low = (char) id.longValue();
+        Object container = containers[index];
+        Object updated;
+        if (container instanceof char[] array) {
+            if (array.length == 1) {
+                return removeChunk(index);
+            }
+            int at = Arrays.binarySearch(array, low);
+            char[] shrunk = new char[array.length - 1];
+            System.arraycopy(array, 0, shrunk, 0, at);
+            System.arraycopy(array, at + 1, shrunk, at, array.length - at - 1);
+            updated = shrunk;
+        } else {
+            long[] words = ((long[]) container).clone();
+            words[low >>> 6] &= ~(1L << low);
+            updated = cardinality(words) <= ARRAY_MAX ? toArray(words) : words;
+        }
+        return replace(index, updated);
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (Object container : containers) {
+            total += container instanceof char[] array ? array.length : cardinality((long[]) container);
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    private IdBitmap replace(int index, Object container) {
+        Object[] newContainers = containers.clone();
+        newContainers[index] = container;
+        return new IdBitmap(keys, newContainers);
+    }
+
+    private IdBitmap removeChunk(int index) {
+        long[] newKeys = new long[keys.length - 1];
+        Object[] newContainers = new Object[containers.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+        return new IdBitmap(newKeys, newContainers);
+    }
+
+    private static long[] toBitmap(char[] array) {
+        long[] words = new long[BITMAP_WORDS];
+        for (char low : array) {
+            words[low >>> 6] |= 1L << low;
+        }
+        return words;
+    }
+
+    private static char[] toArray(long[] words) {
+        char[] array = new char[cardinality(words)];
+        int n = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                array[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return array;
+    }
+
+    private static int cardinality(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,125 @@
+package com.vijay.User_Master.Helper;
+
+import java.util.Set;
+
+/**
+ * Minimal single-pass Java highlighter producing escaped HTML with
+ * {@code <span class="tok-*">} wrappers (keywords, strings, comments, numbers, annotations).
+ */
+public class JavaSyntaxHighlighter {
+
+    private static final Set<String> KEYWORDS = Set.of(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+            "continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float",
+            "for", "goto", "if", "implements", "import", "instanceof", "int", "interface", "long", "native",
+            "new", "package", "private", "protected", "public", "return", "short", "static", "strictfp",
+            "super", "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void",
+            "volatile", "while", "var", "record", "sealed", "permits", "yield", "true", "false", "null");
+
+    public static String highlight(String code) {
+        if (code == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(code.length() + code.length() / 2);
+        int length = code.length();
+        int i = 0;
+        while (i < length) {
+            char c = code.charAt(i);
+            int end;
+            if (c == '/' && i + 1 < length && code.charAt(i + 1) == '/') {
+                end = code.indexOf('\n', i);
+                end = end < 0 ? length : end;
+                span(out, "tok-comment", code, i, end);
+            } else if (c == '/' && i + 1 < length && code.charAt(i + 1) == '*') {
+                end = code.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                span(out, "tok-comment", code, i, end);
+            } else if (code.startsWith("\"\"\"", i)) {
+                end = code.indexOf("\"\"\"", i + 3);
+                end = end < 0 ? length : end + 3;
+                span(out, "tok-string", code, i, end);
+            } else if (c == '"' || c == '\'') {
+                end = quotedEnd(code, i, c);
+                span(out, "tok-string", code, i, end);
+            } else if (c == '@' && i + 1 < length && Character.isJavaIdentifierStart(code.charAt(i + 1))) {
+                end = identifierEnd(code, i + 1);
+                span(out, "tok-annotation", code, i, end);
+            } else if (Character.isDigit(c)) {
+                end = i + 1;
+                while (end < length && (Character.isLetterOrDigit(code.charAt(end)) || code.charAt(end) == '.'
+                        || code.charAt(end) == '_')) {
+                    end++;
+                }
+                span(out, "tok-number", code, i, end);
+            } else if (Character.isJavaIdentifierStart(c)) {
+                end = identifierEnd(code, i);
+                String word = code.substring(i, end);
+                if (KEYWORDS.contains(word)) {
+                    span(out, "tok-keyword", code, i, end);
+                } else if (Character.isUpperCase(c)) {
+                    span(out, "tok-type", code, i, end);
+                } else {
+                    escape(out, code, i, end);
+                }
+            } else {
+                end = i + 1;
+                escape(out, code, i, end);
+            }
+            i = end;
+        }
+        return out.toString();
+    }
+
+    public static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        escape(out, text, 0, text.length());
+        return out.toString();
+    }
+
+    private static int quotedEnd(String code, int start, char quote) {
+        int i = start + 1;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote || c == '\n') {
+                return i + 1;
+            }
+            i++;
+        }
+        return code.length();
+    }
+
+    private static int identifierEnd(String code, int start) {
+        int i = start + 1;
+        while (i < code.length() && Character.isJavaIdentifierPart(code.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void span(StringBuilder out, String cssClass, String code, int start, int end) {
+        out.append("<span class=\"").append(cssClass).append("\">");
+        escape(out, code, start, Math.min(end, code.length()));
+        out.append("</span>");
+    }
+
+    private static void escape(StringBuilder out, String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
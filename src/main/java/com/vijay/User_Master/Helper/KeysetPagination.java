@@ -0,0 +1,164 @@
+package com.vijay.User_Master.Helper;
+
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset ("seek") pagination helpers. Instead of OFFSET, each page continues
+ * after the last row of the previous one using (sortKey, id), so deep pages
+ * cost the same as the first page.
+ * <p>
+ * The cursor is an opaque Base64 string of "id:=value" (or "id:~" when the
+ * sort value was null). Null sort values are assumed to sort lowest, as MySQL does.
+ */
+public class KeysetPagination {
+
+    private static final String ID = "id";
+    private static final String NULL_MARKER = "~";
+    private static final String VALUE_MARKER = "=";
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final Long id;
+        // null when the sort key of the last row was null
+        private final String value;
+    }
+
+    /**
+     * Requested page size clamped to 1..MAX_PAGE_SIZE, since it sizes the fetch.
+     */
+    public static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * The requested sort field when it is one of {@code allowed}. It reaches the query and the cursor
+     * as a property name, so anything else is rejected.
+     */
+    public static String sortField(String sortBy, Set<String> allowed) {
+        if (sortBy == null || !allowed.contains(sortBy)) {
+            throw new BadApiRequestException("Unsupported sort field: " + sortBy);
+        }
+        return sortBy;
+    }
+
+    public static Sort.Direction direction(String sortDir) {
+        return "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+
+    /**
+     * Sort key followed by id in the same direction, so the order is total and stable.
+     */
+    public static Sort keysetSort(String sortBy, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, sortBy);
+        return ID.equals(sortBy) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    public static String encodeCursor(Object row, String sortBy) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        Long id = ((Number) wrapper.getPropertyValue(ID)).longValue();
+        Object value = ID.equals(sortBy) ? id : wrapper.getPropertyValue(sortBy);
+        String raw = id + ":" + (value == null ? NULL_MARKER : VALUE_MARKER + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            Long id = Long.valueOf(raw.substring(0, separator));
+            String rest = raw.substring(separator + 1);
+            return new Cursor(id, rest.startsWith(VALUE_MARKER) ? rest.substring(1) : null);
+        } catch (RuntimeException e) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Predicate selecting the rows strictly after the cursor for the given sort.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Predicate seekPredicate(CriteriaBuilder cb, Path<?> root, String sortBy,
+                                          Sort.Direction direction, Cursor cursor) {
+        boolean asc = direction.isAscending();
+        Path<Long> id = root.get(ID);
+        Predicate idAfter = asc ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+        if (ID.equals(sortBy)) {
+            return idAfter;
+        }
+
+        Path<Comparable> key = root.get(sortBy);
+        if (cursor.getValue() == null) {
+            // Ascending: remaining nulls, then every non-null key. Descending: only remaining nulls.
+            Predicate remainingNulls = cb.and(cb.isNull(key), idAfter);
+            return asc ? cb.or(remainingNulls, cb.isNotNull(key)) : remainingNulls;
+        }
+
+        Comparable value = convert(cursor.getValue(), key.getJavaType());
+        Predicate keyAfter = asc ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        Predicate tie = cb.and(cb.equal(key, value), idAfter);
+        return asc ? cb.or(keyAfter, tie) : cb.or(keyAfter, tie, cb.isNull(key));
+    }
+
+    public static <T> Specification<T> seek(String sortBy, Sort.Direction direction, Cursor cursor) {
+        return (root, query, cb) -> cursor == null ? null : seekPredicate(cb, root, sortBy, direction, cursor);
+    }
+
+    /**
+     * Builds the response from a result fetched with limit size + 1; the extra row only signals hasNext.
+     */
+    public static <T, R> CursorPageResponse<R> toCursorPage(List<T> rows, int size, String sortBy,
+                                                           Function<T, R> mapper, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<T> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1), sortBy) : null;
+
+        return CursorPageResponse.<R>builder()
+                .content(page.stream().map(mapper).collect(Collectors.toList()))
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    private static Comparable<?> convert(String raw, Class<?> type) {
+        try {
+            if (type == String.class) return raw;
+            if (type == Long.class || type == long.class) return Long.valueOf(raw);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(raw);
+            if (type == Double.class || type == double.class) return Double.valueOf(raw);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(raw);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(raw);
+            if (type == Instant.class) return Instant.parse(raw);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+        throw new BadApiRequestException("Cursor pagination is not supported for this sort field");
+    }
+}
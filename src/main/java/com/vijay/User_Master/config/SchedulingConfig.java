@@ -0,0 +1,38 @@
+package com.vijay.User_Master.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+@Slf4j
+public class SchedulingConfig {
+    // Enables @Scheduled jobs (trending snapshots and other periodic refreshes)
+
+    public static final String LONG_JOB_SCHEDULER = "longJobScheduler";
+
+    // Short periodic jobs (sweeps, polls, pending queues); a pool so one slow job does not delay the rest
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:4}") int poolSize) {
+        return scheduler("scheduling-", poolSize);
+    }
+
+    // Full rebuilds and the static export, which can run for seconds to minutes;
+    // select with @Scheduled(scheduler = SchedulingConfig.LONG_JOB_SCHEDULER)
+    @Bean(name = LONG_JOB_SCHEDULER)
+    public ThreadPoolTaskScheduler longJobScheduler(@Value("${app.scheduling.long-job-pool-size:2}") int poolSize) {
+        return scheduler("long-job-", poolSize);
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String prefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(prefix);
+        scheduler.setErrorHandler(t -> log.error("Scheduled job failed: {}", t.getMessage(), t));
+        return scheduler;
+    }
+}
@@ -2,8 +2,12 @@ package com.vijay.User_Master.config;
 
 import com.vijay.User_Master.config.security.JwtAuthenticationEntryPoint;
 import com.vijay.User_Master.config.security.JwtAuthenticationFilter;
+import com.vijay.User_Master.config.security.BoundedPasswordEncoder;
+import com.vijay.User_Master.config.security.LoginThrottle;
+import com.vijay.User_Master.config.security.ThrottledAuthenticationProvider;
 import lombok.AllArgsConstructor;
 import org.apache.catalina.filters.CorsFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -11,6 +15,7 @@ import org.springframework.context.annotation.Configuration;
 
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -18,6 +23,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -58,6 +64,7 @@ public class WebSecurityConfig {
                                 "/assets/**", "/static/**",
                                 "/favicon.ico", "/vite.svg",
                                 "/manifest.*", "/robots.txt",
+                                "/sitemap.xml", "/sitemap-*.xml", "/rss.xml", "/atom.xml",
                                 "/error"
                         ).permitAll()
 
@@ -81,7 +88,9 @@ public class WebSecurityConfig {
                                 "/api/v1/quizzes/tutorial/*",
                                 "/api/v1/quizzes/seed",
                                 "/api/v1/badges/seed",
-                                "/api/v1/comments/tutorial/*"
+                                "/api/v1/comments/tutorial/*",
+                                "/api/v1/comments/tutorial/*/threads",
+                                "/api/v1/comments/tutorial/*/stream"
                         ).permitAll()
 
                         // 4) Admin routes - require ROLE_ADMIN
@@ -109,9 +118,19 @@ public class WebSecurityConfig {
 
         return http.build();
     }
+    // BCrypt runs on a pool of one thread per core; a full queue refuses new hashing instead of stalling
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.password-hash.queue-per-core:8}") int queuePerCore) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), cores, cores * queuePerCore);
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                            PasswordEncoder passwordEncoder,
+                                                            LoginThrottle loginThrottle) {
+        return new ThrottledAuthenticationProvider(userDetailsService, passwordEncoder, loginThrottle);
     }
 
     @Bean
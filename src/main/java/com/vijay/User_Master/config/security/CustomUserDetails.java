@@ -1,6 +1,7 @@
 package com.vijay.User_Master.config.security;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.vijay.User_Master.dto.AccountIdentity;
 import com.vijay.User_Master.entity.AccountStatus;
 import com.vijay.User_Master.entity.Role;
 import com.vijay.User_Master.entity.User;
@@ -39,6 +40,8 @@ public class CustomUserDetails implements UserDetails {
     @JsonIgnore
     private List<Worker> workers;
     private AccountStatus accountStatus;
+    // true when the principal is a Worker rather than a User (ids come from different tables)
+    private boolean worker;
 
 
     public static CustomUserDetails build(User user) {
@@ -54,7 +57,8 @@ public class CustomUserDetails implements UserDetails {
                 user.getDeletedOn(),
                 user.getImageName(),
                 user.getWorkers(),
-                user.getAccountStatus()
+                user.getAccountStatus(),
+                false
         );
     }
 
@@ -71,10 +75,48 @@ public class CustomUserDetails implements UserDetails {
                 worker.getDeletedOn(),
                 worker.getImageName(),
                 null, // Workers don't have associated workers, so set it to null
-                worker.getAccountStatus()
+                worker.getAccountStatus(),
+                true
         );
     }
 
+    /**
+     * Principal from the narrow identity query; the owned workers are not loaded.
+     */
+    public static CustomUserDetails build(AccountIdentity identity) {
+        return new CustomUserDetails(
+                identity.getId(),
+                identity.getName(),
+                identity.getUsername(),
+                identity.getEmail(),
+                identity.getPasswordHash(),
+                identity.getRoles(),
+                identity.getPhoNo(),
+                identity.isDeleted(),
+                identity.getDeletedOn(),
+                identity.getImageName(),
+                null,
+                identity.getAccountStatus(),
+                identity.isWorker()
+        );
+    }
+
+    /**
+     * Principal rebuilt from verified access-token claims, without touching the database.
+     * Only id, username, type and the active role names are known; roles carry just their name.
+     */
+    public static CustomUserDetails fromClaims(Long id, String username, boolean worker, Collection<String> roleNames) {
+        Set<Role> roles = roleNames.stream()
+                .map(name -> {
+                    Role role = new Role();
+                    role.setName(name);
+                    role.setActive(true);
+                    return role;
+                })
+                .collect(Collectors.toSet());
+        return new CustomUserDetails(id, null, username, null, null, roles, null, false, null, null, null, null, worker);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return roles.stream()
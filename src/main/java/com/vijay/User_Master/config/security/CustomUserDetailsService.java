@@ -1,5 +1,6 @@
 package com.vijay.User_Master.config.security;
 
+import com.vijay.User_Master.dto.AccountIdentity;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.entity.Worker;
 import com.vijay.User_Master.repository.UserRepository;
@@ -18,17 +19,19 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private WorkerRepository workerRepository;
+    private final UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        Optional<User> userOptional = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            return CustomUserDetails.build(user);
-        } else {
-            Optional<Worker> workerOptional = workerRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
-            Worker worker = workerOptional.orElseThrow(() -> new UsernameNotFoundException("Worker not found with username: " + usernameOrEmail));
-            return CustomUserDetails.build(worker);
-        }
+        return userDetailsCache.get(usernameOrEmail, this::loadFromDatabase);
+    }
+
+    // One query for the account, its status and role names; workers only when no user matches
+    private CustomUserDetails loadFromDatabase(String usernameOrEmail) {
+        AccountIdentity identity = AccountIdentity.fromRows(userRepository.findIdentityRows(usernameOrEmail), false)
+                .or(() -> AccountIdentity.fromRows(workerRepository.findIdentityRows(usernameOrEmail), true))
+                .orElseThrow(() -> new UsernameNotFoundException("Worker not found with username: " + usernameOrEmail));
+        return CustomUserDetails.build(identity);
     }
     public UserDetails loadUserByUsernameOrEmail(String username, String email) {
         Optional<User> userOptional = userRepository.findByUsernameOrEmail(username, email);
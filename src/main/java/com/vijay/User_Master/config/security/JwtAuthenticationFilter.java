@@ -1,10 +1,13 @@
 package com.vijay.User_Master.config.security;
 
+import com.vijay.User_Master.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,12 +20,18 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private JwtTokenProvider jwtTokenProvider;
+    private final JwtTokenProvider jwtTokenProvider;
 
-    private UserDetailsService userDetailsService;
+    private final UserDetailsService userDetailsService;
+
+    private final TokenRevocationService revocationService;
+
+    // When on, tokens carrying id/type/role claims authenticate without any SQL
+    @Value("${app.jwt-claims-principal:true}")
+    private boolean claimsPrincipal;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
@@ -46,12 +55,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = getTokenFromRequest(request);
 
-            if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
+            if (StringUtils.hasText(token)) {
 
-                String username = jwtTokenProvider.getUsername(token);
+                Claims claims = jwtTokenProvider.parseClaims(token);
+                CustomUserDetails principal = claimsPrincipal ? jwtTokenProvider.toPrincipal(claims) : null;
+                if (principal == null) {
+                    // Claims principal off, or an older token without the claims: load the account
+                    principal = (CustomUserDetails) userDetailsService.loadUserByUsername(claims.getSubject());
+                }
 
-                if (username != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Checked for loaded principals too; a revoked token leaves the request unauthenticated (401)
+                if (!revocationService.isRevoked(claims.getId(), principal, jwtTokenProvider.issuedAtMillis(claims))) {
+                    UserDetails userDetails = principal;
 
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
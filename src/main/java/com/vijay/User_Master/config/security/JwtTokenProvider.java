@@ -1,66 +1,112 @@
 package com.vijay.User_Master.config.security;
 
 
+import com.vijay.User_Master.entity.Role;
 import com.vijay.User_Master.exceptions.UserAlreadyExistsException;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 
-import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    @Value("${app.jwt-secret}")
-    private String jwtSecret;
+    private final JwtTokenVerifier verifier;
 
     @Value("${app-jwt-expiration-milliseconds}")
     private long jwtExpirationDate;
 
     private Object principal;
 
+    // Claims that let the filter rebuild the principal without a database lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_USER_TYPE = "utype";
+    public static final String CLAIM_ROLES = "roles";
+    // "iat" only has second precision; revocation cut-offs need the exact issue time
+    public static final String CLAIM_ISSUED_MILLIS = "iatms";
+    private static final String TYPE_USER = "USER";
+    private static final String TYPE_WORKER = "WORKER";
+
     // Generate JWT token
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationDate);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(expireDate)
-                .signWith(key())
-                .compact();
+                // "jti" lets a single token be revoked on logout
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(currentDate)
+                .setExpiration(expireDate);
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            builder.claim(CLAIM_ISSUED_MILLIS, currentDate.getTime())
+                    .claim(CLAIM_USER_ID, principal.getId())
+                    .claim(CLAIM_USER_TYPE, principal.isWorker() ? TYPE_WORKER : TYPE_USER)
+                    .claim(CLAIM_ROLES, roleNames(principal));
+        }
+        return builder.signWith(verifier.key()).compact();
+    }
+
+    /**
+     * Names of the principal's active roles, as carried in the roles claim.
+     */
+    public static List<String> roleNames(CustomUserDetails principal) {
+        return principal.getRoles().stream()
+                .filter(role -> role.isActive() && !role.isDeleted())
+                .map(Role::getName)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Verifies signature and expiry in one parse (or a verified-token cache hit) and returns the claims.
+     */
+    public Claims parseClaims(String token) {
+        return verifier.verify(token);
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode(jwtSecret)
-        );
+    /**
+     * Principal built from verified claims, or null for tokens issued before the claims were added.
+     */
+    public CustomUserDetails toPrincipal(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        Object type = claims.get(CLAIM_USER_TYPE);
+        Object roles = claims.get(CLAIM_ROLES);
+        if (!(userId instanceof Number id) || type == null || !(roles instanceof Collection<?> names)) {
+            return null;
+        }
+        return CustomUserDetails.fromClaims(id.longValue(), claims.getSubject(), TYPE_WORKER.equals(type),
+                names.stream().map(String::valueOf).toList());
+    }
+
+    /**
+     * Issue time in milliseconds, falling back to the second-precision "iat".
+     */
+    public long issuedAtMillis(Claims claims) {
+        if (claims.get(CLAIM_ISSUED_MILLIS) instanceof Number millis) {
+            return millis.longValue();
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0;
     }
 
     // Get username from JWT token
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return verifier.verify(token).getSubject();
     }
 
     // Validate JWT token
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parse(token);
+            verifier.verify(token);
             return true;
         } catch (JwtException ex) {
             throw new UserAlreadyExistsException("Invalid JWT token");
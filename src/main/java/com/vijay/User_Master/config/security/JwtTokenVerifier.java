@@ -0,0 +1,77 @@
+package com.vijay.User_Master.config.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies access tokens with a signing key and parser built once at startup.
+ * <p>
+ * Verified tokens are remembered until their "exp", keyed by the signature segment, so a client
+ * sending the same token on every request pays for the HMAC check once. The cache holds at most
+ * {@code app.jwt-verified-cache-size} tokens; when full, new tokens are verified but not cached
+ * until the sweep frees room. Revocation is not cached here and is still checked per request.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final Key key;
+    private final JwtParser parser;
+    private final int maxCached;
+
+    private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+
+    private record Verified(String token, Claims claims, long expiresAtMillis) {
+    }
+
+    public JwtTokenVerifier(@Value("${app.jwt-secret}") String jwtSecret,
+                            @Value("${app.jwt-verified-cache-size:10000}") int maxCached) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.maxCached = maxCached;
+    }
+
+    /**
+     * Key used to sign new tokens.
+     */
+    public Key key() {
+        return key;
+    }
+
+    /**
+     * Claims of a token with a valid signature that has not expired; throws a JwtException otherwise.
+     */
+    public Claims verify(String token) {
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        Verified hit = verified.get(signature);
+        long now = System.currentTimeMillis();
+        if (hit != null && hit.token().equals(token)) {
+            if (now < hit.expiresAtMillis()) {
+                return hit.claims();
+            }
+            verified.remove(signature, hit);
+            throw new ExpiredJwtException(null, hit.claims(), "JWT expired at " + hit.claims().getExpiration());
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null && verified.size() < maxCached) {
+            verified.put(signature, new Verified(token, claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt-verified-sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        verified.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+}
@@ -0,0 +1,178 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.exceptions.exception.LoginThrottledException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Failed-login limiter, keyed by client IP and by account, that refuses attempts before they reach
+ * the password check.
+ * <p>
+ * Failures are counted in a sliding window (the previous window's count weighted by how much of it
+ * still overlaps, plus the current one). Past a free allowance each further failure doubles the
+ * cool-down before the next attempt is accepted, up to {@code max-delay-ms}. A successful login clears
+ * the account's count but not the IP's, so a stuffing run that hits the odd valid password keeps
+ * slowing down. Counters are immutable states swapped by compare-and-set; a lock is only taken to
+ * evict keys once {@code max-keys} are tracked.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    @Value("${app.login-throttle.window-ms:900000}")
+    private long windowMillis;
+
+    @Value("${app.login-throttle.ip-free-failures:20}")
+    private int ipFreeFailures;
+
+    @Value("${app.login-throttle.account-free-failures:5}")
+    private int accountFreeFailures;
+
+    @Value("${app.login-throttle.base-delay-ms:1000}")
+    private long baseDelayMillis;
+
+    @Value("${app.login-throttle.max-delay-ms:900000}")
+    private long maxDelayMillis;
+
+    // Past this many tracked keys the least recently active ones are evicted to make room
+    @Value("${app.login-throttle.max-keys:100000}")
+    private int maxKeys;
+
+    private final Map<String, AtomicReference<Window>> windows = new ConcurrentHashMap<>();
+    // Replaced in tests to move time forward
+    LongSupplier clock = System::currentTimeMillis;
+
+    private record Window(long start, int previous, int current, long blockedUntil) {
+
+        Window roll(long now, long length) {
+            long elapsed = now - start;
+            if (elapsed < length) {
+                return this;
+            }
+            // One window later the current count becomes the previous one; any later, both are stale
+            return elapsed < 2 * length
+                    ? new Window(start + length, current, 0, blockedUntil)
+                    : new Window(now, 0, 0, blockedUntil);
+        }
+
+        double estimate(long now, long length) {
+            double overlap = 1.0 - (double) (now - start) / length;
+            return previous * Math.max(0.0, overlap) + current;
+        }
+    }
+
+    /**
+     * Throws LoginThrottledException while the client or the account is cooling down.
+     */
+    public void checkAllowed(String ip, String login) {
+        long now = clock.getAsLong();
+        long wait = Math.max(blockedFor(ipKey(ip), now), blockedFor(accountKey(login), now));
+        if (wait > 0) {
+            throw new LoginThrottledException("Too many failed login attempts. Try again later.",
+                    Math.max(1, (wait + 999) / 1000));
+        }
+    }
+
+    public void recordFailure(String ip, String login) {
+        long now = clock.getAsLong();
+        fail(ipKey(ip), ipFreeFailures, now);
+        fail(accountKey(login), accountFreeFailures, now);
+    }
+
+    public void recordSuccess(String login) {
+        windows.remove(accountKey(login));
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-throttle.sweep-ms:60000}")
+    public void sweep() {
+        long now = clock.getAsLong();
+        windows.values().removeIf(ref -> {
+            Window window = ref.get();
+            return now >= window.blockedUntil() && window.roll(now, windowMillis).estimate(now, windowMillis) < 1.0;
+        });
+    }
+
+    private long blockedFor(String key, long now) {
+        if (key == null) {
+            return 0;
+        }
+        AtomicReference<Window> ref = windows.get(key);
+        return ref == null ? 0 : ref.get().blockedUntil() - now;
+    }
+
+    private void fail(String key, int freeFailures, long now) {
+        if (key == null) {
+            return;
+        }
+        AtomicReference<Window> ref = windows.get(key);
+        if (ref == null) {
+            if (windows.size() >= maxKeys) {
+                makeRoom(now);
+            }
+            ref = windows.computeIfAbsent(key, k -> new AtomicReference<>(new Window(now, 0, 0, 0)));
+        }
+        Window updated = ref.updateAndGet(window -> {
+            Window rolled = window.roll(now, windowMillis);
+            Window counted = new Window(rolled.start(), rolled.previous(), rolled.current() + 1, rolled.blockedUntil());
+            long delay = delayFor(counted.estimate(now, windowMillis), freeFailures);
+            return delay == 0 ? counted
+                    : new Window(counted.start(), counted.previous(), counted.current(),
+                    Math.max(counted.blockedUntil(), now + delay));
+        });
+        if (updated.blockedUntil() > now && updated.current() == freeFailures + 1) {
+            log.warn("Throttling logins for {} after repeated failures", key);
+        }
+    }
+
+    // Drops the windows whose last block or start is oldest, a percent of the table at a time so the
+    // sort is rare; keys still cooling down sort after every other one and go last
+    private synchronized void makeRoom(long now) {
+        if (windows.size() < maxKeys) {
+            return;
+        }
+        sweep();
+        if (windows.size() < maxKeys) {
+            return;
+        }
+        int excess = windows.size() - maxKeys + Math.max(1, maxKeys / 100);
+        List<String> oldest = windows.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> lastActive(entry.getValue().get())))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList();
+        oldest.forEach(windows::remove);
+        log.warn("Login throttle tracks {} keys; evicted the {} least recently active", maxKeys, oldest.size());
+    }
+
+    private static long lastActive(Window window) {
+        return Math.max(window.start(), window.blockedUntil());
+    }
+
+    // Doubles with every failure past the free allowance
+    private long delayFor(double failures, int freeFailures) {
+        int excess = (int) Math.ceil(failures) - freeFailures;
+        if (excess <= 0) {
+            return 0;
+        }
+        int shift = Math.min(excess - 1, 30);
+        return Math.min(maxDelayMillis, baseDelayMillis << shift);
+    }
+
+    private static String ipKey(String ip) {
+        return ip == null ? null : "IP:" + ip;
+    }
+
+    private static String accountKey(String login) {
+        return login == null || login.isBlank() ? null : "ACCOUNT:" + login.trim().toLowerCase(Locale.ROOT);
+    }
+}
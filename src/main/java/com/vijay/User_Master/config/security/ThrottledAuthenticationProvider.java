@@ -0,0 +1,50 @@
+package com.vijay.User_Master.config.security;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Username/password provider for both the API login and the form login, consulting the
+ * {@link LoginThrottle} before the account is loaded and the password hashed.
+ */
+public class ThrottledAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final LoginThrottle loginThrottle;
+
+    public ThrottledAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                           LoginThrottle loginThrottle) {
+        setUserDetailsService(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String ip = clientIp();
+        String login = authentication.getName();
+        loginThrottle.checkAllowed(ip, login);
+        try {
+            Authentication result = super.authenticate(authentication);
+            loginThrottle.recordSuccess(login);
+            return result;
+        } catch (BadCredentialsException e) {
+            // Unknown accounts surface as bad credentials too, so they count against the IP as well
+            loginThrottle.recordFailure(ip, login);
+            throw e;
+        }
+    }
+
+    // The valve only rewrites this from X-Forwarded-For for requests from server.tomcat.remoteip.internal-proxies
+    private static String clientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
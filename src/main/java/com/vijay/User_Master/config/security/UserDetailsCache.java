@@ -0,0 +1,144 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.Helper.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of database-loaded principals, keyed by the login string (username or email)
+ * they were loaded with.
+ * <p>
+ * Services that change an account (status, deletion, username, email, roles, password) invalidate it
+ * after their transaction commits; role-wide changes clear the whole cache. Every invalidation bumps
+ * an epoch, and a load that started before an invalidation is returned but not cached, so a stale
+ * read can never outlive the change that made it stale. The TTL bounds staleness for account changes
+ * made outside those services.
+ */
+@Component
+public class UserDetailsCache {
+
+    @Value("${app.user-details-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${app.user-details-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Account ("USER:1", "WORKER:7") -> login strings its principal is cached under
+    private final Map<String, Set<String>> loginsByAccount = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record Entry(CustomUserDetails details, long expiresAtMillis) {
+    }
+
+    public record Stats(long hits, long misses, double hitRate, long evictions, long invalidations, int size) {
+    }
+
+    /**
+     * Cached principal for the login, or the loader's result (cached unless invalidated meanwhile).
+     */
+    public CustomUserDetails get(String login, Function<String, CustomUserDetails> loader) {
+        Entry entry = entries.get(login);
+        long now = System.currentTimeMillis();
+        if (entry != null && now < entry.expiresAtMillis()) {
+            hits.increment();
+            return entry.details();
+        }
+        misses.increment();
+        long loadEpoch = epoch.get();
+        CustomUserDetails details = loader.apply(login);
+        if (entries.size() < maxSize) {
+            entries.put(login, new Entry(details, now + ttlMillis));
+            loginsByAccount.computeIfAbsent(account(details.isWorker(), details.getId()),
+                    key -> ConcurrentHashMap.newKeySet()).add(login);
+            // An invalidation that ran during the load may have missed the entry just put
+            if (epoch.get() != loadEpoch) {
+                entries.remove(login);
+            }
+        }
+        return details;
+    }
+
+    public void invalidateUser(Long userId) {
+        TransactionUtils.afterCommit(() -> invalidate(account(false, userId)));
+    }
+
+    public void invalidateWorker(Long workerId) {
+        TransactionUtils.afterCommit(() -> invalidate(account(true, workerId)));
+    }
+
+    /**
+     * For changes to a role, which may be held by any cached principal.
+     */
+    public void invalidateAll() {
+        TransactionUtils.afterCommit(() -> {
+            epoch.incrementAndGet();
+            invalidations.add(entries.size());
+            entries.clear();
+            loginsByAccount.clear();
+        });
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new Stats(hitCount, missCount, total == 0 ? 0.0 : (double) hitCount / total,
+                evictions.sum(), invalidations.sum(), entries.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-details-cache.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAtMillis() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        loginsByAccount.values().removeIf(logins -> {
+            logins.removeIf(login -> !entries.containsKey(login));
+            return logins.isEmpty();
+        });
+        int excess = entries.size() - maxSize;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAtMillis()))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(login -> {
+                        entries.remove(login);
+                        evictions.increment();
+                    });
+        }
+    }
+
+    private void invalidate(String account) {
+        epoch.incrementAndGet();
+        Set<String> logins = loginsByAccount.remove(account);
+        if (logins != null) {
+            logins.forEach(entries::remove);
+            invalidations.add(logins.size());
+        }
+    }
+
+    private static String account(boolean worker, Long id) {
+        return (worker ? "WORKER:" : "USER:") + id;
+    }
+}
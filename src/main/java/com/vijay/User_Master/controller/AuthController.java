@@ -2,7 +2,6 @@ package com.vijay.User_Master.controller;
 
 import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.ExceptionUtil;
-import com.vijay.User_Master.config.security.CustomUserDetails;
 import com.vijay.User_Master.config.security.model.LoginJWTResponse;
 import com.vijay.User_Master.config.security.model.LoginRequest;
 import com.vijay.User_Master.dto.UserRequest;
@@ -50,6 +49,19 @@ public class AuthController {
         return ExceptionUtil.createBuildResponse(login, HttpStatus.OK);
     }
 
+    /**
+     * Logout endpoint; the bearer token of the request is rejected from now on.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")
+                || authorization.length() == "Bearer ".length()) {
+            return ExceptionUtil.createErrorResponseMessage("Bearer token is required", HttpStatus.BAD_REQUEST);
+        }
+        authService.logout(authorization.substring("Bearer ".length()));
+        return ExceptionUtil.createBuildResponseMessage("Logged out successfully", HttpStatus.OK);
+    }
+
     /**
      * Endpoint for registering an admin user.
      *
@@ -83,12 +95,12 @@ public class AuthController {
     /**
      * Endpoint to get the currently logged-in user's details.
      *
-     * @return A ResponseEntity containing the CustomUserDetails or an error message.
+     * @return A ResponseEntity containing the UserResponse or an error message.
      */
     @GetMapping("/current-user")
     public ResponseEntity<?> getCurrentUser() {
         try {
-            CustomUserDetails loggedInUser = CommonUtils.getLoggedInUser();
+            UserResponse loggedInUser = authService.getCurrentUser();
             return ResponseEntity.ok(loggedInUser);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User is not authenticated....!!");
@@ -1,11 +1,17 @@
 package com.vijay.User_Master.controller;
 
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.tutorial.CommentDTO;
 import com.vijay.User_Master.service.CommentService;
+import com.vijay.User_Master.service.CommentStreamHub;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +23,7 @@ import java.util.Map;
 public class CommentController {
 
     private final CommentService commentService;
+    private final CommentStreamHub commentStreamHub;
 
     /**
      * Get all comments for a tutorial
@@ -32,6 +39,27 @@ public class CommentController {
         }
     }
 
+    /**
+     * Get a page of comment threads (top-level comments with replies); pass nextCursor for the next page
+     */
+    @GetMapping("/tutorial/{tutorialId}/threads")
+    public ResponseEntity<CursorPageResponse<CommentDTO>> getCommentThreads(
+            @PathVariable Long tutorialId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getCommentThreads(tutorialId, cursor, size));
+    }
+
+    /**
+     * Live comment updates (created / edited / deleted) as server-sent events
+     */
+    @GetMapping(value = "/tutorial/{tutorialId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamComments(@PathVariable Long tutorialId, HttpServletRequest request) {
+        return commentStreamHub.subscribe(CommentStreamHub.tutorialChannel(tutorialId), request.getRemoteAddr())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
     /**
      * Add a new comment to a tutorial
      */
@@ -0,0 +1,77 @@
+package com.vijay.User_Master.controller;
+
+import com.vijay.User_Master.Helper.ConditionalRequests;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.tutorial.CourseDTO;
+import com.vijay.User_Master.dto.tutorial.VideoLessonDTO;
+import com.vijay.User_Master.service.CourseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/v1/courses")
+@RequiredArgsConstructor
+@Tag(name = "Courses", description = "Video course browsing APIs")
+public class CourseController {
+
+    private final CourseService courseService;
+
+    @GetMapping
+    @Operation(summary = "Get published courses", description = "Retrieve paginated list of published courses")
+    public ResponseEntity<Page<CourseDTO>> getPublishedCourses(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        return ResponseEntity.ok(courseService.getPublishedCourses(page, size, sortBy, sortDir));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Scroll published courses", description = "Keyset-paginated published courses; pass nextCursor back to get the following page")
+    public ResponseEntity<CursorPageResponse<CourseDTO>> scrollPublishedCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(courseService.getPublishedCoursesByCursor(cursor, size, sortBy, sortDir, includeTotal));
+    }
+
+    @GetMapping("/all/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_USER')")
+    @Operation(summary = "Scroll all courses", description = "Keyset-paginated courses including drafts (Admin/SuperUser only)")
+    public ResponseEntity<CursorPageResponse<CourseDTO>> scrollAllCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(courseService.getAllCoursesByCursor(cursor, size, sortBy, sortDir, includeTotal));
+    }
+
+    @GetMapping("/lessons/top-rated")
+    @Operation(summary = "Get top rated lessons", description = "Video lessons ranked by Bayesian average rating, optionally within a category or difficulty")
+    public ResponseEntity<Page<VideoLessonDTO>> getTopRatedLessons(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String difficulty) {
+        return ResponseEntity.ok(courseService.getTopRatedLessons(page, size, categoryId, difficulty));
+    }
+
+    @GetMapping("/slug/{slug}")
+    @Operation(summary = "Get course by slug", description = "Retrieve a course by its URL slug")
+    public ResponseEntity<CourseDTO> getCourseBySlug(@PathVariable String slug, WebRequest request) {
+        if (ConditionalRequests.notModified(request, courseService.getCourseVersionBySlug(slug))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(courseService.getCourseBySlug(slug));
+    }
+}
@@ -0,0 +1,69 @@
+package com.vijay.User_Master.controller;
+
+import com.vijay.User_Master.Helper.ConditionalRequests;
+import com.vijay.User_Master.service.SeoFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "SEO", description = "Sitemaps and syndication feeds")
+public class SeoController {
+
+    private static final MediaType RSS_TYPE = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+    private static final MediaType ATOM_TYPE = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+    private static final MediaType XML_TYPE = MediaType.parseMediaType("application/xml;charset=UTF-8");
+
+    private final SeoFeedService seoFeedService;
+
+    @GetMapping("/sitemap.xml")
+    @Operation(summary = "Sitemap", description = "Sitemap of public pages, or a sitemap index once the catalog is sharded")
+    public ResponseEntity<StreamingResponseBody> sitemap(WebRequest request) {
+        return document(SeoFeedService.SITEMAP, XML_TYPE, request);
+    }
+
+    @GetMapping("/sitemap-pages.xml")
+    @Operation(summary = "Pages sitemap", description = "Listing, category and course pages (sharded mode only)")
+    public ResponseEntity<StreamingResponseBody> pagesSitemap(WebRequest request) {
+        return document(SeoFeedService.PAGES_SITEMAP, XML_TYPE, request);
+    }
+
+    @GetMapping("/sitemap-tutorials-{shard:\\d+}.xml")
+    @Operation(summary = "Tutorial sitemap shard", description = "Up to 50,000 tutorial URLs per shard (sharded mode only)")
+    public ResponseEntity<StreamingResponseBody> tutorialSitemap(@PathVariable int shard, WebRequest request) {
+        return document(SeoFeedService.tutorialShardName(shard), XML_TYPE, request);
+    }
+
+    @GetMapping("/rss.xml")
+    @Operation(summary = "RSS feed", description = "Recently published tutorials as RSS 2.0")
+    public ResponseEntity<StreamingResponseBody> rss(WebRequest request) {
+        return document(SeoFeedService.RSS, RSS_TYPE, request);
+    }
+
+    @GetMapping("/atom.xml")
+    @Operation(summary = "Atom feed", description = "Recently published tutorials as Atom")
+    public ResponseEntity<StreamingResponseBody> atom(WebRequest request) {
+        return document(SeoFeedService.ATOM, ATOM_TYPE, request);
+    }
+
+    private ResponseEntity<StreamingResponseBody> document(String name, MediaType type, WebRequest request) {
+        if (!seoFeedService.exists(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalRequests.notModified(request, seoFeedService.getVersion(name))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(type)
+                .body(out -> seoFeedService.write(name, out));
+    }
+}
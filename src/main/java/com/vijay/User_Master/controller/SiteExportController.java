@@ -0,0 +1,29 @@
+package com.vijay.User_Master.controller;
+
+import com.vijay.User_Master.service.StaticSiteExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/site-export")
+@RequiredArgsConstructor
+@Tag(name = "Static Export", description = "Static snapshot export of the public tutorial site")
+public class SiteExportController {
+
+    private final StaticSiteExportService siteExportService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export static site", description = "Re-export every published page to the static export directory (Admin only)")
+    public ResponseEntity<Map<String, Integer>> exportAll() {
+        return ResponseEntity.ok(Map.of("pagesWritten", siteExportService.exportAll()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.vijay.User_Master.controller;
 
+import com.vijay.User_Master.Helper.ConditionalRequests;
 import com.vijay.User_Master.dto.tutorial.TutorialCategoryDTO;
 import com.vijay.User_Master.service.TutorialCategoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,31 +24,46 @@ public class TutorialCategoryController {
 
     @GetMapping
     @Operation(summary = "Get all categories", description = "Retrieve all tutorial categories")
-    public ResponseEntity<List<TutorialCategoryDTO>> getAllCategories() {
+    public ResponseEntity<List<TutorialCategoryDTO>> getAllCategories(WebRequest request) {
+        if (ConditionalRequests.notModified(request, categoryService.getCategoriesVersion("all"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(categoryService.getAllCategories());
     }
 
     @GetMapping("/active")
     @Operation(summary = "Get active categories", description = "Retrieve only active categories")
-    public ResponseEntity<List<TutorialCategoryDTO>> getActiveCategories() {
+    public ResponseEntity<List<TutorialCategoryDTO>> getActiveCategories(WebRequest request) {
+        if (ConditionalRequests.notModified(request, categoryService.getCategoriesVersion("active"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(categoryService.getActiveCategories());
     }
 
     @GetMapping("/root")
     @Operation(summary = "Get root categories", description = "Retrieve top-level categories without parent")
-    public ResponseEntity<List<TutorialCategoryDTO>> getRootCategories() {
+    public ResponseEntity<List<TutorialCategoryDTO>> getRootCategories(WebRequest request) {
+        if (ConditionalRequests.notModified(request, categoryService.getCategoriesVersion("root"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(categoryService.getRootCategories());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get category by ID", description = "Retrieve a specific category by its ID")
-    public ResponseEntity<TutorialCategoryDTO> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<TutorialCategoryDTO> getCategoryById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, categoryService.getCategoryVersion(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(categoryService.getCategoryById(id));
     }
 
     @GetMapping("/slug/{slug}")
     @Operation(summary = "Get category by slug", description = "Retrieve a category by its URL slug")
-    public ResponseEntity<TutorialCategoryDTO> getCategoryBySlug(@PathVariable String slug) {
+    public ResponseEntity<TutorialCategoryDTO> getCategoryBySlug(@PathVariable String slug, WebRequest request) {
+        if (ConditionalRequests.notModified(request, categoryService.getCategoryVersionBySlug(slug))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(categoryService.getCategoryBySlug(slug));
     }
 
@@ -1,6 +1,12 @@
 package com.vijay.User_Master.controller;
 
+import com.vijay.User_Master.Helper.ConditionalRequests;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.ResourceVersion;
+import com.vijay.User_Master.dto.tutorial.RenderedTutorialContent;
 import com.vijay.User_Master.dto.tutorial.TutorialDTO;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.service.TutorialContentRenderer;
 import com.vijay.User_Master.service.TutorialService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +16,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/tutorials")
@@ -18,10 +27,11 @@ import org.springframework.web.bind.annotation.*;
 public class TutorialController {
 
     private final TutorialService tutorialService;
+    private final TutorialContentRenderer contentRenderer;
 
     @GetMapping
     @Operation(summary = "Get all published tutorials", description = "Retrieve paginated list of published tutorials")
-    public ResponseEntity<Page<TutorialDTO>> getAllTutorials(
+    public ResponseEntity<Page<TutorialSummaryDTO>> getAllTutorials(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "displayOrder") String sortBy,
@@ -31,19 +41,44 @@ public class TutorialController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get tutorial by ID", description = "Retrieve a specific tutorial by its ID")
-    public ResponseEntity<TutorialDTO> getTutorialById(@PathVariable Long id) {
+    public ResponseEntity<TutorialDTO> getTutorialById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, tutorialService.getTutorialVersion(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(tutorialService.getTutorialById(id));
     }
 
+    @GetMapping("/{id}/rendered")
+    @Operation(summary = "Get rendered tutorial content", description = "Final HTML for the tutorial body, code example and snippets")
+    public ResponseEntity<RenderedTutorialContent> getRenderedTutorial(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = tutorialService.getRenderedTutorialVersion(id);
+        if (ConditionalRequests.notModified(request, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        RenderedTutorialContent rendered = contentRenderer.findRendered(id, version.getLastModified());
+        return ResponseEntity.ok(rendered != null ? rendered : contentRenderer.render(tutorialService.getTutorialById(id)));
+    }
+
+    @GetMapping("/{id}/related")
+    @Operation(summary = "Get related tutorials", description = "Precomputed tutorials with similar content")
+    public ResponseEntity<List<TutorialSummaryDTO>> getRelatedTutorials(@PathVariable Long id) {
+        return ResponseEntity.ok(tutorialService.getRelatedTutorials(id));
+    }
+
     @GetMapping("/slug/{slug}")
     @Operation(summary = "Get tutorial by slug", description = "Retrieve a tutorial by its URL slug and increment view count")
-    public ResponseEntity<TutorialDTO> getTutorialBySlug(@PathVariable String slug) {
+    public ResponseEntity<TutorialDTO> getTutorialBySlug(@PathVariable String slug, WebRequest request) {
+        // A revalidated (304) view skips the entity load but is still counted
+        if (ConditionalRequests.notModified(request, tutorialService.getTutorialVersionBySlug(slug))) {
+            tutorialService.countView(slug);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(tutorialService.getTutorialBySlug(slug));
     }
 
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "Get tutorials by category", description = "Retrieve tutorials belonging to a specific category")
-    public ResponseEntity<Page<TutorialDTO>> getTutorialsByCategory(
+    public ResponseEntity<Page<TutorialSummaryDTO>> getTutorialsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
@@ -52,7 +87,7 @@ public class TutorialController {
 
     @GetMapping("/difficulty/{difficulty}")
     @Operation(summary = "Get tutorials by difficulty", description = "Filter tutorials by difficulty level (BEGINNER, INTERMEDIATE, ADVANCED)")
-    public ResponseEntity<Page<TutorialDTO>> getTutorialsByDifficulty(
+    public ResponseEntity<Page<TutorialSummaryDTO>> getTutorialsByDifficulty(
             @PathVariable String difficulty,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
@@ -61,7 +96,7 @@ public class TutorialController {
 
     @GetMapping("/search")
     @Operation(summary = "Search tutorials", description = "Search tutorials by keyword in title, content, or keywords")
-    public ResponseEntity<Page<TutorialDTO>> searchTutorials(
+    public ResponseEntity<Page<TutorialSummaryDTO>> searchTutorials(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
@@ -70,20 +105,61 @@ public class TutorialController {
 
     @GetMapping("/popular")
     @Operation(summary = "Get popular tutorials", description = "Retrieve most viewed tutorials")
-    public ResponseEntity<Page<TutorialDTO>> getPopularTutorials(
+    public ResponseEntity<Page<TutorialSummaryDTO>> getPopularTutorials(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         return ResponseEntity.ok(tutorialService.getPopularTutorials(page, size));
     }
 
+    @GetMapping("/trending")
+    @Operation(summary = "Get trending tutorials", description = "Tutorials ranked by recent views, completions and ratings")
+    public ResponseEntity<List<TutorialSummaryDTO>> getTrendingTutorials(
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(tutorialService.getTrendingTutorials(size));
+    }
+
+    @GetMapping("/top-rated")
+    @Operation(summary = "Get top rated tutorials", description = "Tutorials ranked by Bayesian average rating, optionally within a category or difficulty")
+    public ResponseEntity<Page<TutorialSummaryDTO>> getTopRatedTutorials(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String difficulty) {
+        return ResponseEntity.ok(tutorialService.getTopRatedTutorials(page, size, categoryId, difficulty));
+    }
+
     @GetMapping("/recent")
     @Operation(summary = "Get recent tutorials", description = "Retrieve recently published tutorials")
-    public ResponseEntity<Page<TutorialDTO>> getRecentTutorials(
+    public ResponseEntity<Page<TutorialSummaryDTO>> getRecentTutorials(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         return ResponseEntity.ok(tutorialService.getRecentTutorials(page, size));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Scroll published tutorials", description = "Keyset-paginated published tutorials; pass nextCursor back to get the following page")
+    public ResponseEntity<CursorPageResponse<TutorialSummaryDTO>> scrollTutorials(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "displayOrder") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(tutorialService.getPublishedTutorialsByCursor(categoryId, cursor, size, sortBy, sortDir, includeTotal));
+    }
+
+    @GetMapping("/all/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_USER')")
+    @Operation(summary = "Scroll all tutorials", description = "Keyset-paginated tutorials including drafts (Admin/SuperUser only)")
+    public ResponseEntity<CursorPageResponse<TutorialSummaryDTO>> scrollAllTutorials(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(tutorialService.getAllTutorialsByCursor(cursor, size, sortBy, sortDir, includeTotal));
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_USER')")
     @Operation(summary = "Create tutorial", description = "Create a new tutorial (Admin/SuperUser only)")
@@ -4,13 +4,16 @@ import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.ExceptionUtil;
 
 import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.config.security.UserDetailsCache;
 import com.vijay.User_Master.dto.ImageResponse;
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.PageableResponse;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
 import com.vijay.User_Master.entity.Role;
 import com.vijay.User_Master.service.FileService;
 import com.vijay.User_Master.service.UserService;
+import com.vijay.User_Master.service.impl.EmailOutboxDispatcher;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -24,6 +27,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -42,6 +46,8 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
 
     private FileService fileService;
     private ModelMapper mapper;
@@ -112,6 +118,25 @@ public class UserController {
         return ExceptionUtil.createBuildResponse(response, HttpStatus.OK);
     }
 
+    /**
+     * Keyset-paginated users; pass nextCursor from the previous response to continue.
+     *  api/users/cursor?isDeleted=false&cursor=...
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<?> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Boolean isDeleted,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPageResponse<UserResponse> response = userService.getUsersByCursor(
+                cursor, pageSize, sortBy, sortDir, isDeleted, isActive, includeTotal);
+        return ExceptionUtil.createBuildResponse(response, HttpStatus.OK);
+    }
+
     /*
      *  api/users/active - only active user finds
      * */
@@ -194,6 +219,20 @@ public class UserController {
         return ExceptionUtil.createBuildResponse("User restored", HttpStatus.OK);
     }
 
+    // Hit rate of the cache behind loadUserByUsername (form login, getCurrentUser, legacy tokens)
+    @GetMapping("/principal-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPrincipalCacheStats() {
+        return ExceptionUtil.createBuildResponse(userDetailsCache.stats(), HttpStatus.OK);
+    }
+
+    // Sent, retried and given-up counts since startup, plus the pending and failed rows in the outbox
+    @GetMapping("/mail-outbox/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getMailOutboxStats() {
+        return ExceptionUtil.createBuildResponse(emailOutboxDispatcher.stats(), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}/permanent")
     public ResponseEntity<?> permanentlyDeleteUser(@PathVariable Long id) {
         log.info("Permanently deleting user ID: {}", id);
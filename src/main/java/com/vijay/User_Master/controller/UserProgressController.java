@@ -1,9 +1,14 @@
 package com.vijay.User_Master.controller;
 
+import com.vijay.User_Master.dto.tutorial.LessonProgressDTO;
+import com.vijay.User_Master.dto.tutorial.ProgressHeartbeatRequest;
+import com.vijay.User_Master.dto.tutorial.TutorialMarkersDTO;
 import com.vijay.User_Master.dto.tutorial.UserProgressDTO;
+import com.vijay.User_Master.service.ProgressHeartbeatService;
 import com.vijay.User_Master.service.UserProgressService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -46,6 +51,35 @@ public class UserProgressController {
         return ResponseEntity.ok(progressService.completeTutorial(tutorialId));
     }
 
+    @PostMapping("/tutorial/{tutorialId}/heartbeat")
+    @Operation(summary = "Tutorial heartbeat", description = "Periodic reading heartbeat with scroll position and percentage; accrues time spent")
+    public ResponseEntity<ProgressHeartbeatService.Snapshot> tutorialHeartbeat(
+            @PathVariable Long tutorialId,
+            @Valid @RequestBody ProgressHeartbeatRequest request) {
+        return ResponseEntity.ok(progressService.tutorialHeartbeat(tutorialId, request));
+    }
+
+    @PostMapping("/lesson/{lessonId}/heartbeat")
+    @Operation(summary = "Lesson heartbeat", description = "Periodic playback heartbeat with position (seconds) and percentage; accrues watch time")
+    public ResponseEntity<ProgressHeartbeatService.Snapshot> lessonHeartbeat(
+            @PathVariable Long lessonId,
+            @Valid @RequestBody ProgressHeartbeatRequest request) {
+        return ResponseEntity.ok(progressService.lessonHeartbeat(lessonId, request));
+    }
+
+    @GetMapping("/lesson/{lessonId}")
+    @Operation(summary = "Get lesson progress", description = "Current user's watch progress for a video lesson, for resuming playback")
+    public ResponseEntity<LessonProgressDTO> getLessonProgress(@PathVariable Long lessonId) {
+        LessonProgressDTO progress = progressService.getCurrentUserLessonProgress(lessonId);
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/markers")
+    @Operation(summary = "Get tutorial markers", description = "Which of the given tutorials the current user has bookmarked, started or completed")
+    public ResponseEntity<TutorialMarkersDTO> getMarkers(@RequestParam List<Long> tutorialIds) {
+        return ResponseEntity.ok(progressService.getCurrentUserMarkers(tutorialIds));
+    }
+
     @GetMapping("/stats")
     @Operation(summary = "Get progress statistics", description = "Retrieve user's learning statistics")
     public ResponseEntity<Map<String, Object>> getProgressStats() {
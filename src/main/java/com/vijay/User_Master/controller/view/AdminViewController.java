@@ -28,7 +28,7 @@ public class AdminViewController {
     @GetMapping
     public String adminDashboard(Model model) {
         List<TutorialCategoryDTO> categories = categoryService.getAllCategories();
-        Page<TutorialDTO> tutorials = tutorialService.getAllPublishedTutorials(0, 1000, "id", "asc");
+        Page<TutorialSummaryDTO> tutorials = tutorialService.getAllPublishedTutorials(0, 1000, "id", "asc");
         List<QuizDTO> quizzes = quizService.getAllQuizzes();
         Page<CourseDTO> courses = courseService.getAllCourses(0, 1000, "id", "asc");
         
@@ -89,7 +89,7 @@ public class AdminViewController {
 
     @GetMapping("/tutorials")
     public String listTutorials(@RequestParam(defaultValue = "0") int page, Model model) {
-        Page<TutorialDTO> tutorials = tutorialService.getAllTutorials(page, 20, "id", "desc");
+        Page<TutorialSummaryDTO> tutorials = tutorialService.getAllTutorials(page, 20, "id", "desc");
         model.addAttribute("tutorials", tutorials);
         model.addAttribute("title", "Manage Tutorials");
         return "admin/tutorials";
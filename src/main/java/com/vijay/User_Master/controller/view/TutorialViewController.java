@@ -1,9 +1,11 @@
 package com.vijay.User_Master.controller.view;
 
+import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.dto.tutorial.*;
 import com.vijay.User_Master.dto.UserResponse;
 import com.vijay.User_Master.repository.UserProgressRepository;
 import com.vijay.User_Master.service.*;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
@@ -27,6 +29,9 @@ public class TutorialViewController {
     private final UserService userService;
     private final UserProgressRepository progressRepository;
     private final CourseService courseService;
+    private final TutorialContentRenderer contentRenderer;
+    private final StaticSiteExportService siteExportService;
+    private final UserTutorialStateCache tutorialStateCache;
 
     @GetMapping
     public String home(Model model) {
@@ -41,23 +46,38 @@ public class TutorialViewController {
                                    @RequestParam(defaultValue = "0") int page,
                                    Model model) {
         TutorialCategoryDTO category = categoryService.getCategoryBySlug(slug);
-        Page<TutorialDTO> tutorials = tutorialService.getTutorialsByCategory(category.getId(), page, 10);
+        Page<TutorialSummaryDTO> tutorials = tutorialService.getTutorialsByCategory(category.getId(), page, 10);
         
         model.addAttribute("category", category);
         model.addAttribute("tutorials", tutorials);
+        model.addAttribute("markers", markersFor(tutorials));
         model.addAttribute("title", category.getName() + " Tutorials");
         return "tutorials/category-list";
     }
 
     @GetMapping("/view/{slug}")
-    public String viewTutorial(@PathVariable String slug, Model model) {
-        TutorialDTO tutorial = tutorialService.getTutorialBySlug(slug);
-        
+    public String viewTutorial(@PathVariable String slug, Model model, HttpServletRequest request) {
+        // Layout fields only; the body is looked up by (id, updatedAt) and the full tutorial is
+        // loaded just to render a version that is neither cached nor spilled
+        TutorialSummaryDTO tutorial = tutorialService.getTutorialSummaryBySlug(slug);
+        RenderedTutorialContent renderedContent = contentRenderer.findRendered(tutorial.getId(), tutorial.getUpdatedAt());
+        if (renderedContent == null) {
+            renderedContent = contentRenderer.render(tutorialService.getTutorialById(tutorial.getId()));
+        }
+        // Static export fetches must not count as views
+        if (!siteExportService.isExportRequest(request)) {
+            tutorialService.countView(tutorial.getId());
+            tutorial.setViewCount(tutorial.getViewCount() != null ? tutorial.getViewCount() + 1 : 1L);
+        }
+
         // Check if bookmarked and get bookmark status
         boolean isBookmarked = false;
         try {
-            isBookmarked = bookmarkService.isBookmarked(tutorial.getId());
-            progressService.startTutorial(tutorial.getId());
+            String username = CommonUtils.getLoggedInUsernameOrNull();
+            isBookmarked = tutorialStateCache.isBookmarked(username, tutorial.getId());
+            if (username != null && !tutorialStateCache.isStarted(username, tutorial.getId())) {
+                progressService.startTutorial(tutorial.getId());
+            }
         } catch (Exception e) {
             // User might not be logged in or error in progress/bookmark service
             System.err.println("Error in viewTutorial optional features: " + e.getMessage());
@@ -65,6 +85,8 @@ public class TutorialViewController {
 
         model.addAttribute("tutorial", tutorial);
         model.addAttribute("isBookmarked", isBookmarked);
+        model.addAttribute("renderedContent", renderedContent);
+        model.addAttribute("relatedTutorials", tutorialService.getRelatedTutorials(tutorial.getId()));
         model.addAttribute("title", tutorial.getTitle());
         return "tutorials/detail";
     }
@@ -97,8 +119,9 @@ public class TutorialViewController {
     public String search(@RequestParam("q") String query,
                         @RequestParam(defaultValue = "0") int page,
                         Model model) {
-        Page<TutorialDTO> results = tutorialService.searchTutorials(query, page, 10);
+        Page<TutorialSummaryDTO> results = tutorialService.searchTutorials(query, page, 10);
         model.addAttribute("tutorials", results);
+        model.addAttribute("markers", markersFor(results));
         model.addAttribute("query", query);
         model.addAttribute("title", "Search Results: " + query);
         return "tutorials/search";
@@ -183,5 +206,9 @@ public class TutorialViewController {
         model.addAttribute("title", lesson.getTitle() + " - " + course.getTitle());
         return "tutorials/watch-lesson";
     }
-}
 
+    private TutorialMarkersDTO markersFor(Page<TutorialSummaryDTO> tutorials) {
+        List<Long> ids = tutorials.getContent().stream().map(TutorialSummaryDTO::getId).toList();
+        return tutorialStateCache.getMarkers(CommonUtils.getLoggedInUsernameOrNull(), ids);
+    }
+}
@@ -0,0 +1,65 @@
+package com.vijay.User_Master.dto;
+
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Read model for authentication: the account columns, its status and its roles, loaded by one
+ * narrow query instead of the full User/Worker graph.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountIdentity {
+
+    private Long id;
+    private String name;
+    private String username;
+    private String email;
+    private String passwordHash;
+    private String phoNo;
+    private String imageName;
+    private boolean deleted;
+    private LocalDateTime deletedOn;
+    private AccountStatus accountStatus;
+    private Set<Role> roles;
+    private boolean worker;
+
+    /**
+     * Folds the rows of an identity query (one per role) into a single identity. Rows are
+     * [id, name, username, email, password, phoNo, imageName, isDeleted, deletedOn, status, role].
+     */
+    public static Optional<AccountIdentity> fromRows(List<Object[]> rows, boolean worker) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] first = rows.get(0);
+        Set<Role> roles = new HashSet<>();
+        for (Object[] row : rows) {
+            // A login may match one account's username and another's email; keep the first account
+            if (row[0].equals(first[0]) && row[10] != null) {
+                roles.add((Role) row[10]);
+            }
+        }
+        return Optional.of(new AccountIdentity(
+                (Long) first[0],
+                (String) first[1],
+                (String) first[2],
+                (String) first[3],
+                (String) first[4],
+                (String) first[5],
+                (String) first[6],
+                (Boolean) first[7],
+                (LocalDateTime) first[8],
+                (AccountStatus) first[9],
+                roles,
+                worker));
+    }
+}
@@ -0,0 +1,21 @@
+package com.vijay.User_Master.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    // Only populated when the caller explicitly asks for the total
+    private Long totalElements;
+
+}
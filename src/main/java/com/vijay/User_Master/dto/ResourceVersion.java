@@ -0,0 +1,17 @@
+package com.vijay.User_Master.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validator pair for conditional GETs: a strong ETag and, when meaningful, a Last-Modified time.
+ */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+    private final String etag;
+    // null when the representation has no single modification time
+    private final LocalDateTime lastModified;
+}
@@ -0,0 +1,27 @@
+package com.vijay.User_Master.dto.tutorial;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A comment change pushed to live subscribers of a tutorial or lesson.
+ * The same serialized event goes to every subscriber, so the comment carries no
+ * per-viewer flags (isOwner / canModify are always false); clients work those out themselves.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommentEventDTO {
+    public static final String CREATED = "created";
+    public static final String EDITED = "edited";
+    public static final String DELETED = "deleted";
+
+    private String type;
+    private Long commentId;
+    private Long parentCommentId;
+    // CommentDTO or LessonCommentDTO; null for deletions
+    private Object comment;
+}
@@ -24,6 +24,7 @@ public class LessonCommentDTO {
     private LocalDateTime updatedAt;
     private boolean isEdited;
     private Long parentCommentId;
+    private int replyCount;
     
     @Builder.Default
     private List<LessonCommentDTO> replies = new ArrayList<>();
@@ -0,0 +1,24 @@
+package com.vijay.User_Master.dto.tutorial;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LessonProgressDTO {
+    private Long lessonId;
+    private String lessonTitle;
+    private boolean isCompleted;
+    private Integer progressPercentage;
+    private Integer lastPosition;
+    private Integer timeSpentMinutes;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime lastAccessedAt;
+}
@@ -0,0 +1,22 @@
+package com.vijay.User_Master.dto.tutorial;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProgressHeartbeatRequest {
+
+    @Min(0)
+    private Integer position; // Video second or scroll offset; null if unknown
+
+    @Min(0)
+    @Max(100)
+    private Integer percentage; // null if unknown (e.g. embedded players)
+}
@@ -0,0 +1,40 @@
+package com.vijay.User_Master.dto.tutorial;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Final HTML for a tutorial version, produced once per updatedAt by TutorialContentRenderer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RenderedTutorialContent {
+    private Long tutorialId;
+    private LocalDateTime updatedAt;
+    private String contentHtml;
+    private String codeExampleHtml;
+    // Unhighlighted, as the playground's starting code
+    private String codeExample;
+    // Highlighted code per snippet id
+    private Map<Long, String> snippetHtml;
+
+    // Rough in-memory footprint used to bound the cache
+    public long sizeInChars() {
+        long size = length(contentHtml) + length(codeExampleHtml) + length(codeExample);
+        if (snippetHtml != null) {
+            size += snippetHtml.values().stream().mapToLong(RenderedTutorialContent::length).sum();
+        }
+        return size;
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.vijay.User_Master.dto.tutorial;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Which of a page of tutorials the current user has bookmarked, started or completed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TutorialMarkersDTO {
+    private Set<Long> bookmarked;
+    private Set<Long> started;
+    private Set<Long> completed;
+
+    public static TutorialMarkersDTO empty() {
+        return new TutorialMarkersDTO(Set.of(), Set.of(), Set.of());
+    }
+}
@@ -0,0 +1,40 @@
+package com.vijay.User_Master.dto.tutorial;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight tutorial row for cards and list pages.
+ * Populated directly by JPQL constructor expressions in TutorialRepository,
+ * so it never carries content, codeExample or code snippets.
+ * Field order must match TutorialRepository.SUMMARY_SELECT.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TutorialSummaryDTO {
+    private Long id;
+    private String title;
+    private String slug;
+    private String difficulty;
+    private Integer estimatedMinutes;
+    private Integer displayOrder;
+    private boolean published;
+    private LocalDateTime publishedAt;
+    private Long viewCount;
+    private Double averageRating;
+    private Integer ratingCount;
+    private String videoThumbnail;
+    private String metaDescription;
+    private Long categoryId;
+    private String categoryName;
+    private String categorySlug;
+    private Long authorId;
+    private String authorName;
+    private LocalDateTime updatedAt;
+}
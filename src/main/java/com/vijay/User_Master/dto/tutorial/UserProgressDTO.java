@@ -22,5 +22,6 @@ public class UserProgressDTO {
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
     private Integer timeSpentMinutes;
+    private Integer lastPosition;
     private LocalDateTime lastAccessedAt;
 }
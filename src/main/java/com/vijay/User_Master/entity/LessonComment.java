@@ -55,6 +55,11 @@ public class LessonComment {
     @Builder.Default
     private boolean isEdited = false;
 
+    // Maintained on reply insert/delete so rendering a thread never counts replies per comment
+    @Column(name = "reply_count", nullable = false)
+    @Builder.Default
+    private int replyCount = 0;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
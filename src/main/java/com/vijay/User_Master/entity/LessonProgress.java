@@ -0,0 +1,64 @@
+package com.vijay.User_Master.entity;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "lesson_progress", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "lesson_id"})
+})
+public class LessonProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonBackReference
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lesson_id", nullable = false)
+    @JsonBackReference
+    private VideoLesson lesson;
+
+    @Column(name = "is_completed")
+    @Builder.Default
+    private boolean isCompleted = false;
+
+    @Column(name = "progress_percentage")
+    @Builder.Default
+    private Integer progressPercentage = 0;
+
+    // Playback position in seconds, used to resume the video
+    @Column(name = "last_position")
+    private Integer lastPosition;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "time_spent_minutes")
+    @Builder.Default
+    private Integer timeSpentMinutes = 0;
+
+    @Column(name = "last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
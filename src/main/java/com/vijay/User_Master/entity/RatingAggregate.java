@@ -0,0 +1,69 @@
+package com.vijay.User_Master.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running totals of the approved ratings of one tutorial or lesson.
+ * Maintained with atomic delta upserts by RatingAggregateService, so a vote costs one
+ * statement and a rating summary is a single-row read.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "rating_aggregates", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"target_type", "target_id"})
+})
+public class RatingAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private RatingTarget targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    // Histogram of approved ratings, one column per star level
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    public double getAverage() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+    }
+
+    public long getStars(int stars) {
+        return switch (stars) {
+            case 1 -> stars1;
+            case 2 -> stars2;
+            case 3 -> stars3;
+            case 4 -> stars4;
+            case 5 -> stars5;
+            default -> 0L;
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.vijay.User_Master.entity;
+
+/**
+ * Kinds of content that carry star ratings; keys the rows in rating_aggregates.
+ */
+public enum RatingTarget {
+    TUTORIAL,
+    LESSON
+}
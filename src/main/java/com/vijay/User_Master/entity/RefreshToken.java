@@ -7,6 +7,11 @@ import java.time.Instant;
 
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_refresh_token_token", columnList = "token"),
+        @Index(name = "idx_refresh_token_previous", columnList = "previousToken"),
+        @Index(name = "idx_refresh_token_expiry", columnList = "expiryDate")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -17,9 +22,15 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
 
+    // SHA-256 of the token handed to the client (older rows hold the raw token)
     private String token;
     private Instant expiryDate;
 
+    // Rotation chain: every token rotated from the same login shares a family
+    private String family;
+    // Hash of the token this one replaced; presenting it again means the chain was copied
+    private String previousToken;
+
     private String username; // Added Username as Identifier
     private String email;
 
@@ -0,0 +1,36 @@
+package com.vijay.User_Master.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Access tokens for {@code subject} issued at or before {@code notBefore} are no longer accepted.
+ * Subjects are "USER:{id}", "WORKER:{id}" or "ROLE:{name}". Rows can be dropped once
+ * {@code expiresAt} has passed, since every token they could match has expired by then.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "token_revocations", indexes = {
+    @Index(name = "idx_token_revocations_not_before", columnList = "not_before"),
+    @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 150)
+    private String subject;
+
+    // Epoch millis
+    @Column(name = "not_before", nullable = false)
+    private long notBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+}
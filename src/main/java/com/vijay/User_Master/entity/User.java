@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -22,6 +23,11 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "users")
+// Roles and status for code that maps the whole account; authentication uses UserRepository.findIdentityRows
+@NamedEntityGraph(name = "User.account", attributeNodes = {
+        @NamedAttributeNode("roles"),
+        @NamedAttributeNode("accountStatus")
+})
 public class User  {
 
     @Id
@@ -41,17 +47,18 @@ public class User  {
     private boolean isDeleted;
     private LocalDateTime deletedOn;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id")
     )
     private Set<Role> roles;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL,fetch = FetchType.LAZY)
     private List<Worker> workers;
 
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JoinColumn(name = "status_id")
     private AccountStatus accountStatus;
 }
@@ -39,6 +39,10 @@ public class UserProgress {
     @Builder.Default
     private Integer progressPercentage = 0;
 
+    // Scroll offset (or section) where the user left off
+    @Column(name = "last_position")
+    private Integer lastPosition;
+
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
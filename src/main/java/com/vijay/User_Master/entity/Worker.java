@@ -2,6 +2,7 @@ package com.vijay.User_Master.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -16,6 +17,10 @@ import java.util.Set;
 @Entity
 @Table(name = "workers")
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = "Worker.account", attributeNodes = {
+        @NamedAttributeNode("roles"),
+        @NamedAttributeNode("accountStatus")
+})
 public class Worker extends BaseModel {
 
 
@@ -37,7 +42,8 @@ public class Worker extends BaseModel {
 
     private String imageName;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(name = "workers_roles",
             joinColumns = @JoinColumn(name = "worker_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id")
@@ -48,7 +54,7 @@ public class Worker extends BaseModel {
     @JoinColumn(name="user_id",nullable = false)
     private User user;
 
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "status_id")
     private AccountStatus accountStatus;
 
@@ -2,11 +2,13 @@ package com.vijay.User_Master.exceptions;
 
 import com.vijay.User_Master.Helper.ExceptionUtil;
 import com.vijay.User_Master.exceptions.exception.InvalidTokenException;
+import com.vijay.User_Master.exceptions.exception.LoginThrottledException;
 import com.vijay.User_Master.exceptions.exception.TokenExpiredException;
 import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
 import com.vijay.User_Master.exceptions.exception.TokenRefreshException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -63,6 +65,18 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<?> handleLoginThrottledException(LoginThrottledException ex) {
+        logger.warn("Login throttled: {}", ex.getMessage());
+        ResponseEntity<?> response = ExceptionUtil.createErrorResponseMessage(
+                ex.getMessage(),
+                HttpStatus.TOO_MANY_REQUESTS
+        );
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
     // ============= EXISTING EXCEPTIONS ============= //
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<?> handleBadCredentialsException(BadCredentialsException ex) {
@@ -0,0 +1,19 @@
+package com.vijay.User_Master.exceptions.exception;
+
+import lombok.Getter;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * A login attempt refused before any password check, either because the client or account is
+ * cooling down after failed attempts or because password hashing is saturated.
+ */
+@Getter
+public class LoginThrottledException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
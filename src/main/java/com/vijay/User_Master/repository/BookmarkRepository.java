@@ -21,6 +21,10 @@ public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
     
     Optional<Bookmark> findByUserIdAndTutorialId(Long userId, Long tutorialId);
 
+    // Matches the login name, which may be the username or the email
+    @Query("SELECT b.tutorial.id FROM Bookmark b WHERE b.user.username = :login OR b.user.email = :login")
+    List<Long> findTutorialIdsByLogin(@Param("login") String login);
+
     // Check if user has bookmarked a tutorial
     boolean existsByUserIdAndTutorialId(Long userId, Long tutorialId);
 
@@ -4,10 +4,13 @@ import com.vijay.User_Master.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,4 +35,33 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     // Count replies for a comment
     long countByParentCommentId(Long parentCommentId);
+
+    // Thread loading: a keyset page of top-level comments (newest first), then all their replies in one IN query
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.tutorial.id = :tutorialId AND c.parentComment IS NULL " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelPage(@Param("tutorialId") Long tutorialId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.tutorial.id = :tutorialId AND c.parentComment IS NULL " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelPageAfter(@Param("tutorialId") Long tutorialId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.parentComment.id IN :parentIds ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRepliesByParentIds(@Param("parentIds") Collection<Long> parentIds);
+
+    // Bulk update so the parent is not marked as edited by its @PreUpdate hook
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta WHERE c.id = :id")
+    void adjustReplyCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT COUNT(r) FROM Comment r WHERE r.parentComment.replyCount = 0")
+    long countRepliesUnderUncountedParents();
+
+    @Modifying
+    @Query(value = "UPDATE comments c JOIN (SELECT parent_comment_id AS parent_id, COUNT(*) AS replies " +
+           "FROM comments WHERE parent_comment_id IS NOT NULL GROUP BY parent_comment_id) r " +
+           "ON r.parent_id = c.id SET c.reply_count = r.replies",
+           nativeQuery = true)
+    void recountReplies();
 }
@@ -4,14 +4,34 @@ import com.vijay.User_Master.entity.Course;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
     Optional<Course> findBySlug(String slug);
     Page<Course> findByCategory_Id(Long categoryId, Pageable pageable);
     Page<Course> findByIsPublishedTrue(Pageable pageable);
     Page<Course> findByCategory_IdAndIsPublishedTrue(Long categoryId, Pageable pageable);
+    boolean existsBySlugAndIsPublishedTrue(String slug);
+
+    @Query("SELECT c.slug FROM Course c WHERE c.isPublished = true")
+    List<String> findPublishedSlugs();
+
+    long countByIsPublishedTrue();
+
+    // Sitemap rows [slug, lastmod] in id order
+    @Query("SELECT c.slug, COALESCE(c.updatedAt, c.createdAt) FROM Course c WHERE c.isPublished = true ORDER BY c.id")
+    Stream<Object[]> streamPublishedSitemapRows();
+
+    // Course version for conditional GETs: [course updatedAt, latest lesson updatedAt, lesson count]
+    @Query("SELECT c.updatedAt, MAX(l.updatedAt), COUNT(l) FROM Course c LEFT JOIN c.lessons l " +
+           "WHERE c.slug = :slug GROUP BY c.id, c.updatedAt")
+    List<Object[]> findVersionBySlug(@Param("slug") String slug);
 }
@@ -0,0 +1,36 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now "
+            + "ORDER BY e.nextAttemptAt, e.id")
+    List<EmailOutbox> findDue(@Param("status") EmailOutbox.Status status, @Param("now") Instant now, Pageable pageable);
+
+    // Takes the lease only if no other dispatcher moved the row since it was read
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :leaseUntil WHERE e.id = :id "
+            + "AND e.status = :status AND e.nextAttemptAt = :seen")
+    int claim(@Param("id") Long id, @Param("status") EmailOutbox.Status status, @Param("seen") Instant seen,
+              @Param("leaseUntil") Instant leaseUntil);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") EmailOutbox.Status status, @Param("before") Instant before);
+}
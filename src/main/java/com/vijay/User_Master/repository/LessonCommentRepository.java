@@ -4,10 +4,13 @@ import com.vijay.User_Master.entity.LessonComment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,4 +35,33 @@ public interface LessonCommentRepository extends JpaRepository<LessonComment, Lo
 
     // Count replies for a comment
     long countByParentCommentId(Long parentCommentId);
+
+    // Thread loading: a keyset page of top-level comments (newest first), then all their replies in one IN query
+    @Query("SELECT c FROM LessonComment c JOIN FETCH c.author JOIN FETCH c.lesson WHERE c.lesson.id = :lessonId AND c.parentComment IS NULL " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<LessonComment> findTopLevelPage(@Param("lessonId") Long lessonId, Pageable pageable);
+
+    @Query("SELECT c FROM LessonComment c JOIN FETCH c.author JOIN FETCH c.lesson WHERE c.lesson.id = :lessonId AND c.parentComment IS NULL " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<LessonComment> findTopLevelPageAfter(@Param("lessonId") Long lessonId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT c FROM LessonComment c JOIN FETCH c.author JOIN FETCH c.lesson WHERE c.parentComment.id IN :parentIds ORDER BY c.createdAt ASC, c.id ASC")
+    List<LessonComment> findRepliesByParentIds(@Param("parentIds") Collection<Long> parentIds);
+
+    // Bulk update so the parent is not marked as edited by its @PreUpdate hook
+    @Modifying
+    @Query("UPDATE LessonComment c SET c.replyCount = c.replyCount + :delta WHERE c.id = :id")
+    void adjustReplyCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT COUNT(r) FROM LessonComment r WHERE r.parentComment.replyCount = 0")
+    long countRepliesUnderUncountedParents();
+
+    @Modifying
+    @Query(value = "UPDATE video_lesson_comments c JOIN (SELECT parent_comment_id AS parent_id, COUNT(*) AS replies " +
+           "FROM video_lesson_comments WHERE parent_comment_id IS NOT NULL GROUP BY parent_comment_id) r " +
+           "ON r.parent_id = c.id SET c.reply_count = r.replies",
+           nativeQuery = true)
+    void recountReplies();
 }
@@ -0,0 +1,26 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.entity.LessonProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LessonProgressRepository extends JpaRepository<LessonProgress, Long> {
+
+    @Query("SELECT lp FROM LessonProgress lp JOIN FETCH lp.lesson WHERE lp.user.id = :userId AND lp.lesson.id = :lessonId")
+    Optional<LessonProgress> findByUserIdAndLessonId(@Param("userId") Long userId, @Param("lessonId") Long lessonId);
+
+    boolean existsByUserIdAndLessonIdAndIsCompletedTrue(Long userId, Long lessonId);
+
+    // Conditional so that only one caller ever sees the transition to completed
+    @Modifying
+    @Query("UPDATE LessonProgress lp SET lp.isCompleted = true, lp.progressPercentage = 100, lp.completedAt = :now " +
+           "WHERE lp.user.id = :userId AND lp.lesson.id = :lessonId AND lp.isCompleted = false")
+    int markCompleted(@Param("userId") Long userId, @Param("lessonId") Long lessonId, @Param("now") LocalDateTime now);
+}
@@ -3,7 +3,9 @@ package com.vijay.User_Master.repository;
 import com.vijay.User_Master.entity.LessonRating;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +19,16 @@ public interface LessonRatingRepository extends JpaRepository<LessonRating, Long
     // Find rating by user and lesson
     Optional<LessonRating> findByUserIdAndLessonId(Long userId, Long lessonId);
 
+    // Row-locked reads for changes that move the rating aggregates: the old value read here is the
+    // one the delta is computed from, so concurrent re-rates or approvals must not both see it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM LessonRating r WHERE r.user.id = :userId AND r.lesson.id = :lessonId")
+    Optional<LessonRating> findForUpdate(@Param("userId") Long userId, @Param("lessonId") Long lessonId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM LessonRating r WHERE r.id = :id")
+    Optional<LessonRating> findByIdForUpdate(@Param("id") Long id);
+
     // Check if user has rated a lesson
     boolean existsByUserIdAndLessonId(Long userId, Long lessonId);
 
@@ -50,4 +62,8 @@ public interface LessonRatingRepository extends JpaRepository<LessonRating, Long
 
     // Find pending reviews (for moderation)
     List<LessonRating> findByIsApprovedFalseOrderByCreatedAtAsc();
+
+    // [lesson id, stars, count] over all approved ratings, used to rebuild rating aggregates
+    @Query("SELECT r.lesson.id, r.rating, COUNT(r) FROM LessonRating r WHERE r.isApproved = true GROUP BY r.lesson.id, r.rating")
+    List<Object[]> countApprovedGroupedByLessonAndRating();
 }
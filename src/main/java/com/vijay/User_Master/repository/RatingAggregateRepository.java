@@ -0,0 +1,83 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.entity.RatingAggregate;
+import com.vijay.User_Master.entity.RatingTarget;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, Long> {
+
+    Optional<RatingAggregate> findByTargetTypeAndTargetId(RatingTarget targetType, Long targetId);
+
+    boolean existsByTargetType(RatingTarget targetType);
+
+    @Modifying
+    @Query("DELETE FROM RatingAggregate a WHERE a.targetType = :targetType")
+    void deleteByTargetTypeInBulk(@Param("targetType") RatingTarget targetType);
+
+    // Single-statement atomic delta: inserts the row on the first vote, otherwise adds to the running totals
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (target_type, target_id, rating_sum, rating_count, " +
+            "stars_1, stars_2, stars_3, stars_4, stars_5) " +
+            "VALUES (:targetType, :targetId, :sum, :count, :s1, :s2, :s3, :s4, :s5) " +
+            "ON DUPLICATE KEY UPDATE rating_sum = rating_sum + VALUES(rating_sum), " +
+            "rating_count = rating_count + VALUES(rating_count), " +
+            "stars_1 = stars_1 + VALUES(stars_1), stars_2 = stars_2 + VALUES(stars_2), " +
+            "stars_3 = stars_3 + VALUES(stars_3), stars_4 = stars_4 + VALUES(stars_4), " +
+            "stars_5 = stars_5 + VALUES(stars_5)",
+            nativeQuery = true)
+    void applyDelta(@Param("targetType") String targetType, @Param("targetId") Long targetId,
+                    @Param("sum") long sum, @Param("count") long count,
+                    @Param("s1") long s1, @Param("s2") long s2, @Param("s3") long s3,
+                    @Param("s4") long s4, @Param("s5") long s5);
+
+    // Copies the aggregate onto the denormalized tutorials.average_rating / rating_count columns
+    @Modifying
+    @Query(value = "UPDATE tutorials t LEFT JOIN rating_aggregates a " +
+            "ON a.target_type = 'TUTORIAL' AND a.target_id = t.id " +
+            "SET t.average_rating = CASE WHEN a.rating_count > 0 THEN a.rating_sum / a.rating_count ELSE 0 END, " +
+            "t.rating_count = COALESCE(a.rating_count, 0) " +
+            "WHERE t.id = :tutorialId",
+            nativeQuery = true)
+    void syncTutorialRating(@Param("tutorialId") Long tutorialId);
+
+    @Modifying
+    @Query(value = "UPDATE tutorials t LEFT JOIN rating_aggregates a " +
+            "ON a.target_type = 'TUTORIAL' AND a.target_id = t.id " +
+            "SET t.average_rating = CASE WHEN a.rating_count > 0 THEN a.rating_sum / a.rating_count ELSE 0 END, " +
+            "t.rating_count = COALESCE(a.rating_count, 0)",
+            nativeQuery = true)
+    void syncAllTutorialRatings();
+
+    // Ranking rows [tutorial id, rating sum, rating count, category id, difficulty] for published, rated tutorials
+    String TUTORIAL_RANKING_SELECT = "SELECT a.targetId, a.ratingSum, a.ratingCount, t.category.id, t.difficulty " +
+            "FROM RatingAggregate a JOIN Tutorial t ON t.id = a.targetId " +
+            "WHERE a.targetType = com.vijay.User_Master.entity.RatingTarget.TUTORIAL " +
+            "AND t.isPublished = true AND a.ratingCount > 0 ";
+
+    // Ranking rows [lesson id, rating sum, rating count, category id, difficulty] for rated lessons of published courses
+    String LESSON_RANKING_SELECT = "SELECT a.targetId, a.ratingSum, a.ratingCount, c.category.id, c.difficulty " +
+            "FROM RatingAggregate a JOIN VideoLesson l ON l.id = a.targetId JOIN l.course c " +
+            "WHERE a.targetType = com.vijay.User_Master.entity.RatingTarget.LESSON " +
+            "AND c.isPublished = true AND a.ratingCount > 0 ";
+
+    @Query(TUTORIAL_RANKING_SELECT)
+    List<Object[]> findTutorialRankingRows();
+
+    @Query(TUTORIAL_RANKING_SELECT + "AND a.targetId IN :ids")
+    List<Object[]> findTutorialRankingRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(LESSON_RANKING_SELECT)
+    List<Object[]> findLessonRankingRows();
+
+    @Query(LESSON_RANKING_SELECT + "AND a.targetId IN :ids")
+    List<Object[]> findLessonRankingRowsByIds(@Param("ids") Collection<Long> ids);
+}
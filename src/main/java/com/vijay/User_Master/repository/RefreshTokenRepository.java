@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
@@ -29,4 +30,16 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Inte
     void deleteByWorkerId(@Param("workerId") Long workerId);
 
     Optional<RefreshToken> findByUsername(String identifier);
+
+    Optional<RefreshToken> findByPreviousToken(String previousToken);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken rt WHERE rt.token = :token")
+    int deleteByToken(@Param("token") String token);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :now")
+    int deleteExpired(@Param("now") Instant now);
 }
\ No newline at end of file
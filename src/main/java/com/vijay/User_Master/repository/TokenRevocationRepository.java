@@ -0,0 +1,22 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByNotBeforeGreaterThan(long since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation tr WHERE tr.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
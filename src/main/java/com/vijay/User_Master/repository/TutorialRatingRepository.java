@@ -3,7 +3,9 @@ package com.vijay.User_Master.repository;
 import com.vijay.User_Master.entity.TutorialRating;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +19,16 @@ public interface TutorialRatingRepository extends JpaRepository<TutorialRating,
     // Find rating by user and tutorial
     Optional<TutorialRating> findByUserIdAndTutorialId(Long userId, Long tutorialId);
 
+    // Row-locked reads for changes that move the rating aggregates: the old value read here is the
+    // one the delta is computed from, so concurrent re-rates or approvals must not both see it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TutorialRating r WHERE r.user.id = :userId AND r.tutorial.id = :tutorialId")
+    Optional<TutorialRating> findForUpdate(@Param("userId") Long userId, @Param("tutorialId") Long tutorialId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TutorialRating r WHERE r.id = :id")
+    Optional<TutorialRating> findByIdForUpdate(@Param("id") Long id);
+
     // Check if user has rated a tutorial
     boolean existsByUserIdAndTutorialId(Long userId, Long tutorialId);
 
@@ -50,4 +62,8 @@ public interface TutorialRatingRepository extends JpaRepository<TutorialRating,
 
     // Find pending reviews (for moderation)
     List<TutorialRating> findByIsApprovedFalseOrderByCreatedAtAsc();
+
+    // [tutorial id, stars, count] over all approved ratings, used to rebuild rating aggregates
+    @Query("SELECT r.tutorial.id, r.rating, COUNT(r) FROM TutorialRating r WHERE r.isApproved = true GROUP BY r.tutorial.id, r.rating")
+    List<Object[]> countApprovedGroupedByTutorialAndRating();
 }
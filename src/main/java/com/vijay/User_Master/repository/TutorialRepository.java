@@ -1,21 +1,69 @@
 package com.vijay.User_Master.repository;
 
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
 import com.vijay.User_Master.entity.Tutorial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TutorialRepository extends JpaRepository<Tutorial, Long> {
+public interface TutorialRepository extends JpaRepository<Tutorial, Long>, TutorialRepositoryCustom {
+
+    // Summary projection: category and author names joined in, no content/codeExample/snippets
+    String SUMMARY_SELECT = "SELECT new com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO(" +
+            "t.id, t.title, t.slug, t.difficulty, t.estimatedMinutes, t.displayOrder, t.isPublished, " +
+            "t.publishedAt, t.viewCount, t.averageRating, t.ratingCount, t.videoThumbnail, t.metaDescription, " +
+            "c.id, c.name, c.slug, a.id, a.name, t.updatedAt) " +
+            "FROM Tutorial t JOIN t.category c JOIN t.author a ";
 
     Optional<Tutorial> findBySlug(String slug);
 
+    long countByIsPublishedTrue();
+
+    // Version lookups for conditional GETs: a single column via the primary key / unique slug index
+    @Query("SELECT COALESCE(t.updatedAt, t.createdAt) FROM Tutorial t WHERE t.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(t.updatedAt, t.createdAt) FROM Tutorial t WHERE t.slug = :slug")
+    Optional<LocalDateTime> findUpdatedAtBySlug(@Param("slug") String slug);
+
+    // Everything a TutorialDTO shows that can change without touching t.updatedAt: the rating columns
+    // (written by a native update) and the category and author names. Rows are
+    // [updatedAt, ratingCount, averageRating, categoryName, authorName]
+    @Query("SELECT COALESCE(t.updatedAt, t.createdAt), t.ratingCount, t.averageRating, c.name, a.name " +
+            "FROM Tutorial t LEFT JOIN t.category c LEFT JOIN t.author a WHERE t.id = :id")
+    List<Object[]> findDtoVersionRowsById(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(t.updatedAt, t.createdAt), t.ratingCount, t.averageRating, c.name, a.name " +
+            "FROM Tutorial t LEFT JOIN t.category c LEFT JOIN t.author a WHERE t.slug = :slug")
+    List<Object[]> findDtoVersionRowsBySlug(@Param("slug") String slug);
+
+    @Query("SELECT t.id FROM Tutorial t WHERE t.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    // Page layout of the detail view; the body comes from the rendered-content cache
+    @Query(SUMMARY_SELECT + "WHERE t.slug = :slug")
+    Optional<TutorialSummaryDTO> findSummaryBySlug(@Param("slug") String slug);
+
+    // Bulk update so a view neither rewrites the row nor bumps updatedAt
+    @Modifying
+    @Query("UPDATE Tutorial t SET t.viewCount = COALESCE(t.viewCount, 0) + 1 WHERE t.id = :id")
+    int incrementViewCount(@Param("id") Long id);
+
     Page<Tutorial> findByIsPublishedTrue(Pageable pageable);
 
     Page<Tutorial> findByCategoryIdAndIsPublishedTrue(Long categoryId, Pageable pageable);
@@ -44,6 +92,67 @@ public interface TutorialRepository extends JpaRepository<Tutorial, Long> {
 
     boolean existsBySlug(String slug);
 
+    boolean existsBySlugAndIsPublishedTrue(String slug);
+
+    @Query("SELECT t.slug FROM Tutorial t WHERE t.isPublished = true")
+    List<String> findPublishedSlugs();
+
     @Query("SELECT COUNT(t) FROM Tutorial t WHERE t.category.id = :categoryId AND t.isPublished = true")
     Long countPublishedTutorialsByCategory(@Param("categoryId") Long categoryId);
+
+    // Published tutorial count per category in one pass: [categoryId, count]
+    @Query("SELECT t.category.id, COUNT(t) FROM Tutorial t WHERE t.isPublished = true GROUP BY t.category.id")
+    List<Object[]> countPublishedTutorialsGroupedByCategory();
+
+    // ========== Summary listings ==========
+
+    @Query(value = SUMMARY_SELECT,
+           countQuery = "SELECT COUNT(t) FROM Tutorial t")
+    Page<TutorialSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE t.isPublished = true",
+           countQuery = "SELECT COUNT(t) FROM Tutorial t WHERE t.isPublished = true")
+    Page<TutorialSummaryDTO> findPublishedSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE c.id = :categoryId AND t.isPublished = true",
+           countQuery = "SELECT COUNT(t) FROM Tutorial t WHERE t.category.id = :categoryId AND t.isPublished = true")
+    Page<TutorialSummaryDTO> findPublishedSummariesByCategory(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE t.difficulty = :difficulty AND t.isPublished = true",
+           countQuery = "SELECT COUNT(t) FROM Tutorial t WHERE t.difficulty = :difficulty AND t.isPublished = true")
+    Page<TutorialSummaryDTO> findPublishedSummariesByDifficulty(@Param("difficulty") String difficulty, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE t.isPublished = true " +
+           "AND (LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "OR LOWER(t.content) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "OR LOWER(t.keywords) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+           countQuery = "SELECT COUNT(t) FROM Tutorial t WHERE t.isPublished = true " +
+           "AND (LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "OR LOWER(t.content) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "OR LOWER(t.keywords) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<TutorialSummaryDTO> searchPublishedSummaries(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE t.isPublished = true ORDER BY t.viewCount DESC",
+           countQuery = "SELECT COUNT(t) FROM Tutorial t WHERE t.isPublished = true")
+    Page<TutorialSummaryDTO> findPopularSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE t.id IN :ids AND t.isPublished = true")
+    List<TutorialSummaryDTO> findPublishedSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Text used by the related-tutorials index: [id, title, keywords, content]
+    @Query("SELECT t.id, t.title, t.keywords, t.content FROM Tutorial t WHERE t.isPublished = true ORDER BY t.id")
+    Slice<Object[]> findPublishedIndexText(Pageable pageable);
+
+    @Query("SELECT t.id, t.title, t.keywords, t.content FROM Tutorial t WHERE t.id IN :ids AND t.isPublished = true")
+    List<Object[]> findPublishedIndexTextByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SUMMARY_SELECT + "WHERE t.isPublished = true ORDER BY t.publishedAt DESC",
+           countQuery = "SELECT COUNT(t) FROM Tutorial t WHERE t.isPublished = true")
+    Page<TutorialSummaryDTO> findRecentSummaries(Pageable pageable);
+
+    // Sitemap rows [slug, lastmod] in id order. A MIN_VALUE fetch size makes MySQL stream rows
+    // instead of buffering the whole result; callers must consume the stream inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT t.slug, COALESCE(t.updatedAt, t.createdAt) FROM Tutorial t WHERE t.isPublished = true ORDER BY t.id")
+    Stream<Object[]> streamPublishedSitemapRows(Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetPagination;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface TutorialRepositoryCustom {
+
+    // Keyset page of summaries after the given cursor (null cursor = first page)
+    List<TutorialSummaryDTO> findSummariesAfter(boolean publishedOnly, Long categoryId, String sortBy,
+                                                Sort.Direction direction, KeysetPagination.Cursor cursor, int limit);
+}
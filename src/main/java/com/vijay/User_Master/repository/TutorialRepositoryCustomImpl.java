@@ -0,0 +1,55 @@
+package com.vijay.User_Master.repository;
+
+import com.vijay.User_Master.Helper.KeysetPagination;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.entity.Tutorial;
+import com.vijay.User_Master.entity.TutorialCategory;
+import com.vijay.User_Master.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TutorialRepositoryCustomImpl implements TutorialRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TutorialSummaryDTO> findSummariesAfter(boolean publishedOnly, Long categoryId, String sortBy,
+                                                       Sort.Direction direction, KeysetPagination.Cursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TutorialSummaryDTO> query = cb.createQuery(TutorialSummaryDTO.class);
+        Root<Tutorial> t = query.from(Tutorial.class);
+        Join<Tutorial, TutorialCategory> c = t.join("category");
+        Join<Tutorial, User> a = t.join("author");
+
+        // Same columns, same order as TutorialRepository.SUMMARY_SELECT
+        query.select(cb.construct(TutorialSummaryDTO.class,
+                t.get("id"), t.get("title"), t.get("slug"), t.get("difficulty"), t.get("estimatedMinutes"),
+                t.get("displayOrder"), t.get("isPublished"), t.get("publishedAt"), t.get("viewCount"),
+                t.get("averageRating"), t.get("ratingCount"), t.get("videoThumbnail"), t.get("metaDescription"),
+                c.get("id"), c.get("name"), c.get("slug"), a.get("id"), a.get("name"), t.get("updatedAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (publishedOnly) {
+            predicates.add(cb.isTrue(t.get("isPublished")));
+        }
+        if (categoryId != null) {
+            predicates.add(cb.equal(c.get("id"), categoryId));
+        }
+        if (cursor != null) {
+            predicates.add(KeysetPagination.seekPredicate(cb, t, sortBy, direction, cursor));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(QueryUtils.toOrders(KeysetPagination.keysetSort(sortBy, direction), t, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -2,10 +2,12 @@ package com.vijay.User_Master.repository;
 
 import com.vijay.User_Master.entity.UserProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +37,18 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
 
     boolean existsByUserIdAndTutorialId(Long userId, Long tutorialId);
 
+    // [tutorialId, isCompleted] for every tutorial the user has started; login is the username or email
+    @Query("SELECT up.tutorial.id, up.isCompleted FROM UserProgress up WHERE up.user.username = :login OR up.user.email = :login")
+    List<Object[]> findTutorialStatesByLogin(@Param("login") String login);
+
     // Count completed tutorials for badge system
     long countByUserIdAndIsCompletedTrue(Long userId);
+
+    boolean existsByUserIdAndTutorialIdAndIsCompletedTrue(Long userId, Long tutorialId);
+
+    // Conditional so that only one caller ever sees the transition to completed
+    @Modifying
+    @Query("UPDATE UserProgress up SET up.isCompleted = true, up.progressPercentage = 100, up.completedAt = :now " +
+           "WHERE up.user.id = :userId AND up.tutorial.id = :tutorialId AND up.isCompleted = false")
+    int markCompleted(@Param("userId") Long userId, @Param("tutorialId") Long tutorialId, @Param("now") LocalDateTime now);
 }
@@ -6,12 +6,15 @@ import com.vijay.User_Master.entity.User;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
@@ -21,6 +24,17 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     Optional<User> findByUsernameOrEmail(String username, String email);
 
+    // Mapped to UserResponse off the request thread, where lazy roles could not be loaded
+    @Override
+    @EntityGraph(value = "User.account")
+    List<User> findAll();
+
+    // Identity rows for authentication, one per role; see AccountIdentity.fromRows
+    @Query("SELECT u.id, u.name, u.username, u.email, u.password, u.phoNo, u.imageName, u.isDeleted, u.deletedOn, s, r " +
+            "FROM User u LEFT JOIN u.accountStatus s LEFT JOIN u.roles r " +
+            "WHERE u.username = :login OR u.email = :login ORDER BY u.id")
+    List<Object[]> findIdentityRows(@Param("login") String login);
+
 
 
     Boolean existsByUsername(String username);
@@ -29,6 +43,10 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     User findByUsername(String username);
 
+    // [username, id] pairs
+    @Query("SELECT u.username, u.id FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdsByUsernames(@Param("usernames") Collection<String> usernames);
+
 
     Page<User> findAllByIsDeletedFalse(Pageable pageable);
 
@@ -2,8 +2,11 @@ package com.vijay.User_Master.repository;
 
 import com.vijay.User_Master.entity.VideoLesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +14,7 @@ import java.util.Optional;
 public interface VideoLessonRepository extends JpaRepository<VideoLesson, Long> {
     List<VideoLesson> findByCourse_IdOrderByLessonOrderAsc(Long courseId);
     Optional<VideoLesson> findByCourse_SlugAndSlug(String courseSlug, String lessonSlug);
+
+    @Query("SELECT l FROM VideoLesson l JOIN FETCH l.course WHERE l.id IN :ids")
+    List<VideoLesson> findAllWithCourseByIdIn(@Param("ids") Collection<Long> ids);
 }
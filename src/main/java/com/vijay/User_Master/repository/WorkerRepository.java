@@ -3,6 +3,7 @@ package com.vijay.User_Master.repository;
 import com.vijay.User_Master.entity.Worker;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -21,6 +22,17 @@ public interface WorkerRepository extends JpaRepository<Worker, Long>, JpaSpecif
 
     Optional<Worker> findByUsernameOrEmail(String username, String email);
 
+    // Every worker is mapped with its roles and status; fetch them in the same query
+    @Override
+    @EntityGraph(value = "Worker.account")
+    List<Worker> findAll();
+
+    // Identity rows for authentication, one per role; see AccountIdentity.fromRows
+    @Query("SELECT w.id, w.name, w.username, w.email, w.password, w.phoNo, w.imageName, w.isDeleted, w.deletedOn, s, r " +
+            "FROM Worker w LEFT JOIN w.accountStatus s LEFT JOIN w.roles r " +
+            "WHERE w.username = :login OR w.email = :login ORDER BY w.id")
+    List<Object[]> findIdentityRows(@Param("login") String login);
+
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
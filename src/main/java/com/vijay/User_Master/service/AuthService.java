@@ -24,6 +24,8 @@ public interface AuthService {
     boolean existsByUsernameOrEmail(String usernameOrEmail);
     boolean existsByUsernameOrEmailFields(String username, String email);
     LoginJWTResponse login(LoginRequest req);
+    void logout(String accessToken);
+    UserResponse getCurrentUser();
     CompletableFuture<Object> registerForAdminUser(UserRequest request,String url);
     UserResponse registerForNormalUser(UserRequest request);
     /*
@@ -6,7 +6,6 @@ import com.vijay.User_Master.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,9 +20,9 @@ public class BadgeService {
 
     private final BadgeRepository badgeRepository;
     private final UserBadgeRepository userBadgeRepository;
-    private final UserRepository userRepository;
     private final UserProgressRepository userProgressRepository;
     private final QuizAttemptRepository quizAttemptRepository;
+    private final CurrentUserContext currentUserContext;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
 
@@ -144,9 +143,7 @@ public class BadgeService {
     }
 
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserContext.getUser();
     }
 
     private BadgeDTO convertToDTO(Badge badge, List<UserBadge> userBadges, User user) {
@@ -1,12 +1,12 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.dto.tutorial.BookmarkDTO;
 import com.vijay.User_Master.entity.Bookmark;
 import com.vijay.User_Master.entity.Tutorial;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.repository.BookmarkRepository;
 import com.vijay.User_Master.repository.TutorialRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -25,7 +25,8 @@ public class BookmarkService {
 
     private final BookmarkRepository bookmarkRepository;
     private final TutorialRepository tutorialRepository;
-    private final UserRepository userRepository;
+    private final UserTutorialStateCache tutorialStateCache;
+    private final CurrentUserContext currentUserContext;
 
     /**
      * Add a bookmark for the current user
@@ -49,6 +50,7 @@ public class BookmarkService {
                 .build();
         
         bookmark = bookmarkRepository.save(bookmark);
+        tutorialStateCache.bookmarkAdded(loginName(), tutorialId);
         log.info("User {} bookmarked tutorial {}", user.getUsername(), tutorial.getTitle());
         
         return convertToDTO(bookmark);
@@ -66,6 +68,7 @@ public class BookmarkService {
         }
         
         bookmarkRepository.deleteByUserIdAndTutorialId(user.getId(), tutorialId);
+        tutorialStateCache.bookmarkRemoved(loginName(), tutorialId);
         log.info("User {} removed bookmark for tutorial {}", user.getUsername(), tutorialId);
     }
 
@@ -78,6 +81,7 @@ public class BookmarkService {
         
         if (bookmarkRepository.existsByUserIdAndTutorialId(user.getId(), tutorialId)) {
             bookmarkRepository.deleteByUserIdAndTutorialId(user.getId(), tutorialId);
+            tutorialStateCache.bookmarkRemoved(loginName(), tutorialId);
             log.info("User {} removed bookmark for tutorial {}", user.getUsername(), tutorialId);
             return false;
         } else {
@@ -90,21 +94,17 @@ public class BookmarkService {
                     .build();
             
             bookmarkRepository.save(bookmark);
+            tutorialStateCache.bookmarkAdded(loginName(), tutorialId);
             log.info("User {} bookmarked tutorial {}", user.getUsername(), tutorialId);
             return true;
         }
     }
 
     /**
-     * Check if current user has bookmarked a tutorial
+     * Check if current user has bookmarked a tutorial (answered from the per-user bitmap cache)
      */
     public boolean isBookmarked(Long tutorialId) {
-        try {
-            User user = getCurrentUser();
-            return bookmarkRepository.existsByUserIdAndTutorialId(user.getId(), tutorialId);
-        } catch (Exception e) {
-            return false;
-        }
+        return tutorialStateCache.isBookmarked(CommonUtils.getLoggedInUsernameOrNull(), tutorialId);
     }
 
     /**
@@ -164,10 +164,12 @@ public class BookmarkService {
 
     // Helper methods
     
+    private String loginName() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserContext.getUser();
     }
 
     private BookmarkDTO convertToDTO(Bookmark bookmark) {
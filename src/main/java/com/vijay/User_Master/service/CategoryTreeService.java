@@ -0,0 +1,158 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.dto.tutorial.TutorialCategoryDTO;
+import com.vijay.User_Master.entity.TutorialCategory;
+import com.vijay.User_Master.repository.TutorialCategoryRepository;
+import com.vijay.User_Master.repository.TutorialRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory snapshot of the category tree with published-tutorial counts.
+ * <p>
+ * The snapshot is immutable and swapped as a whole, so readers never see a half-built
+ * tree. Category or tutorial writes bump a generation counter after commit; the next
+ * read rebuilds from two queries (all categories + one grouped COUNT), and only a rebuild
+ * opens a transaction.
+ * DTOs handed out by the snapshot are shared and must be treated as read-only.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeService {
+
+    private final TutorialCategoryRepository categoryRepository;
+    private final TutorialRepository tutorialRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CategoryTree tree;
+
+    @Getter
+    public static final class CategoryTree {
+        private final long generation;
+        // Content hash over everything the category DTOs expose; stable across restarts
+        private final String version;
+        private final List<TutorialCategoryDTO> all;
+        private final List<TutorialCategoryDTO> active;
+        private final List<TutorialCategoryDTO> roots;
+        private final Map<Long, TutorialCategoryDTO> byId;
+        private final Map<String, TutorialCategoryDTO> bySlug;
+
+        private CategoryTree(long generation, List<TutorialCategoryDTO> all) {
+            this.generation = generation;
+            this.all = List.copyOf(all);
+            this.active = all.stream().filter(TutorialCategoryDTO::isActive).toList();
+            this.roots = active.stream().filter(c -> c.getParentId() == null).toList();
+
+            Map<Long, TutorialCategoryDTO> ids = new HashMap<>();
+            Map<String, TutorialCategoryDTO> slugs = new HashMap<>();
+            for (TutorialCategoryDTO category : all) {
+                ids.put(category.getId(), category);
+                slugs.put(category.getSlug(), category);
+            }
+            this.byId = Map.copyOf(ids);
+            this.bySlug = Map.copyOf(slugs);
+
+            long hash = 1;
+            for (TutorialCategoryDTO c : all) {
+                hash = 31 * hash + Objects.hash(c.getId(), c.getName(), c.getSlug(), c.getDescription(), c.getIcon(),
+                        c.getDisplayOrder(), c.isActive(), c.getParentId(), c.getUpdatedAt(), c.getTutorialCount());
+            }
+            this.version = Long.toHexString(hash);
+        }
+
+        public Optional<TutorialCategoryDTO> findById(Long id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        public Optional<TutorialCategoryDTO> findBySlug(String slug) {
+            return Optional.ofNullable(bySlug.get(slug));
+        }
+
+        public int getPublishedCount(Long categoryId) {
+            TutorialCategoryDTO category = byId.get(categoryId);
+            return category != null ? category.getTutorialCount() : 0;
+        }
+    }
+
+    public CategoryTree getTree() {
+        CategoryTree current = tree;
+        if (current != null && current.generation == generation.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = tree;
+            long target = generation.get();
+            if (current == null || current.generation != target) {
+                // A write landing mid-build bumps the generation again, so the next read rebuilds
+                TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+                readOnly.setReadOnly(true);
+                current = readOnly.execute(status -> build(target));
+                tree = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Marks the snapshot stale once the surrounding transaction commits (immediately if there is none).
+     */
+    public void invalidate() {
+        TransactionUtils.afterCommit(generation::incrementAndGet);
+    }
+
+    private CategoryTree build(long target) {
+        List<TutorialCategory> categories = categoryRepository.findAllOrderByDisplayOrder();
+
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : tutorialRepository.countPublishedTutorialsGroupedByCategory()) {
+            counts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+
+        Map<Long, TutorialCategoryDTO> byId = new LinkedHashMap<>();
+        Map<Long, Long> parentIds = new HashMap<>();
+        for (TutorialCategory category : categories) {
+            TutorialCategoryDTO dto = new TutorialCategoryDTO();
+            dto.setId(category.getId());
+            dto.setName(category.getName());
+            dto.setSlug(category.getSlug());
+            dto.setDescription(category.getDescription());
+            dto.setIcon(category.getIcon());
+            dto.setDisplayOrder(category.getDisplayOrder());
+            dto.setActive(category.isActive());
+            dto.setCreatedAt(category.getCreatedAt());
+            dto.setUpdatedAt(category.getUpdatedAt());
+            dto.setTutorialCount(counts.getOrDefault(category.getId(), 0));
+            dto.setSubCategories(new ArrayList<>());
+            byId.put(category.getId(), dto);
+            if (category.getParent() != null) {
+                // Reading the id of a lazy parent does not initialize it
+                parentIds.put(category.getId(), category.getParent().getId());
+            }
+        }
+
+        parentIds.forEach((childId, parentId) -> {
+            TutorialCategoryDTO child = byId.get(childId);
+            TutorialCategoryDTO parent = byId.get(parentId);
+            child.setParentId(parentId);
+            if (parent != null) {
+                child.setParentName(parent.getName());
+                parent.getSubCategories().add(child);
+            }
+        });
+        // Freeze child lists; categories were visited in display order, so they stay sorted
+        byId.values().forEach(dto -> dto.setSubCategories(List.copyOf(dto.getSubCategories())));
+
+        log.debug("Rebuilt category tree: {} categories", byId.size());
+        return new CategoryTree(target, new ArrayList<>(byId.values()));
+    }
+}
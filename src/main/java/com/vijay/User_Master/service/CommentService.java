@@ -1,20 +1,29 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.Helper.KeysetPagination;
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.tutorial.CommentDTO;
+import com.vijay.User_Master.dto.tutorial.CommentEventDTO;
 import com.vijay.User_Master.entity.Comment;
 import com.vijay.User_Master.entity.Tutorial;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
 import com.vijay.User_Master.repository.CommentRepository;
 import com.vijay.User_Master.repository.TutorialRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,7 +33,8 @@ public class CommentService {
 
     private final CommentRepository commentRepository;
     private final TutorialRepository tutorialRepository;
-    private final UserRepository userRepository;
+    private final CommentStreamHub commentStreamHub;
+    private final CurrentUserContext currentUserContext;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
 
@@ -37,12 +47,33 @@ public class CommentService {
         Long currentUserId = currentUser != null ? currentUser.getId() : null;
         
         List<Comment> topLevelComments = commentRepository.findTopLevelByTutorialId(tutorialId);
+        Map<Long, List<Comment>> replies = loadReplies(topLevelComments);
         
         return topLevelComments.stream()
-                .map(comment -> convertToDTO(comment, currentUserId, true))
+                .map(comment -> convertToDTO(comment, currentUserId, replies))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get a page of comment threads (newest first) with their replies, in three queries whatever the thread size
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentDTO> getCommentThreads(Long tutorialId, String cursor, int size) {
+        User currentUser = getCurrentUserOrNull();
+        Long currentUserId = currentUser != null ? currentUser.getId() : null;
+
+        size = KeysetPagination.pageSize(size);
+        KeysetPagination.Cursor after = KeysetPagination.decodeCursor(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> rows = after == null
+                ? commentRepository.findTopLevelPage(tutorialId, limit)
+                : commentRepository.findTopLevelPageAfter(tutorialId, cursorCreatedAt(after), after.getId(), limit);
+
+        Map<Long, List<Comment>> replies = loadReplies(rows.subList(0, Math.min(size, rows.size())));
+        return KeysetPagination.toCursorPage(rows, size, "createdAt",
+                comment -> convertToDTO(comment, currentUserId, replies), null);
+    }
+
     /**
      * Add a new comment to a tutorial
      */
@@ -66,9 +97,13 @@ public class CommentService {
                 .build();
 
         comment = commentRepository.save(comment);
+        if (parent != null) {
+            commentRepository.adjustReplyCount(parent.getId(), 1);
+        }
+        publishEvent(tutorialId, CommentEventDTO.CREATED, comment.getId(), parentCommentId, convertToDTO(comment, null, null));
         log.info("User {} added comment to tutorial {}", user.getUsername(), tutorial.getTitle());
 
-        return convertToDTO(comment, user.getId(), false);
+        return convertToDTO(comment, user.getId(), null);
     }
 
     /**
@@ -87,8 +122,11 @@ public class CommentService {
         comment.setContent(content.trim());
         comment = commentRepository.save(comment);
         log.info("User {} updated comment {}", user.getUsername(), commentId);
+        publishEvent(comment.getTutorial().getId(), CommentEventDTO.EDITED, commentId,
+                comment.getParentComment() != null ? comment.getParentComment().getId() : null,
+                convertToDTO(comment, null, null));
 
-        return convertToDTO(comment, user.getId(), false);
+        return convertToDTO(comment, user.getId(), null);
     }
 
     /**
@@ -104,7 +142,13 @@ public class CommentService {
             throw new SecurityException("Cannot delete another user's comment");
         }
 
+        Long parentId = comment.getParentComment() != null ? comment.getParentComment().getId() : null;
+        Long tutorialId = comment.getTutorial().getId();
         commentRepository.delete(comment);
+        if (parentId != null) {
+            commentRepository.adjustReplyCount(parentId, -1);
+        }
+        publishEvent(tutorialId, CommentEventDTO.DELETED, commentId, parentId, null);
         log.info("User {} deleted comment {}", user.getUsername(), commentId);
     }
 
@@ -116,14 +160,46 @@ public class CommentService {
         return commentRepository.countByTutorialId(tutorialId);
     }
 
+    /**
+     * Fill reply counters for comments written before the counter column existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillReplyCounts() {
+        if (commentRepository.countRepliesUnderUncountedParents() > 0) {
+            commentRepository.recountReplies();
+            log.info("Recounted comment replies");
+        }
+    }
+
     // ============ Private Helper Methods ============
 
-    private CommentDTO convertToDTO(Comment comment, Long currentUserId, boolean includeReplies) {
+    // Replies of all given comments in one IN query, grouped by parent id
+    private Map<Long, List<Comment>> loadReplies(List<Comment> parents) {
+        if (parents.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> parentIds = parents.stream().map(Comment::getId).toList();
+        return commentRepository.findRepliesByParentIds(parentIds).stream()
+                .collect(Collectors.groupingBy(reply -> reply.getParentComment().getId()));
+    }
+
+    private static LocalDateTime cursorCreatedAt(KeysetPagination.Cursor cursor) {
+        if (cursor.getValue() == null) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+        try {
+            return LocalDateTime.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+    }
+
+    private CommentDTO convertToDTO(Comment comment, Long currentUserId, Map<Long, List<Comment>> replyMap) {
         List<CommentDTO> replies = null;
-        if (includeReplies) {
-            List<Comment> replyEntities = commentRepository.findRepliesByParentId(comment.getId());
-            replies = replyEntities.stream()
-                    .map(reply -> convertToDTO(reply, currentUserId, false))
+        if (replyMap != null) {
+            replies = replyMap.getOrDefault(comment.getId(), List.of()).stream()
+                    .map(reply -> convertToDTO(reply, currentUserId, null))
                     .collect(Collectors.toList());
         }
 
@@ -136,26 +212,26 @@ public class CommentService {
                 .updatedAt(comment.getUpdatedAt().format(DATE_FORMATTER))
                 .isEdited(comment.isEdited())
                 .isOwner(currentUserId != null && currentUserId.equals(comment.getAuthor().getId()))
-                .replyCount((int) commentRepository.countByParentCommentId(comment.getId()))
+                .replyCount(comment.getReplyCount())
                 .replies(replies)
                 .build();
     }
 
+    // Live subscribers get one shared, viewer-neutral copy of the change
+    private void publishEvent(Long tutorialId, String type, Long commentId, Long parentCommentId, CommentDTO comment) {
+        commentStreamHub.publish(CommentStreamHub.tutorialChannel(tutorialId), "comment", CommentEventDTO.builder()
+                .type(type)
+                .commentId(commentId)
+                .parentCommentId(parentCommentId)
+                .comment(comment)
+                .build());
+    }
+
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserContext.getUser();
     }
 
     private User getCurrentUserOrNull() {
-        try {
-            String username = SecurityContextHolder.getContext().getAuthentication().getName();
-            if ("anonymousUser".equals(username)) {
-                return null;
-            }
-            return userRepository.findByUsernameOrEmail(username, username).orElse(null);
-        } catch (Exception e) {
-            return null;
-        }
+        return currentUserContext.getUserOrNull();
     }
 }
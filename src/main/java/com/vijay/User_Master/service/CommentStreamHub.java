@@ -0,0 +1,290 @@
+package com.vijay.User_Master.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.Helper.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent event hub for live comment updates, one channel per tutorial and per video lesson.
+ * <p>
+ * An event is serialized once into an SSE frame that every subscriber of the channel shares.
+ * Each connection has a small bounded buffer drained by a shared sender pool, so a slow client
+ * never blocks the publisher or other readers; a client whose buffer overflows is disconnected
+ * and its EventSource reconnects (and reloads) on its own. A write that stalls past
+ * {@code send-timeout-ms} (a client that stopped reading) is interrupted and the connection closed,
+ * so stalled clients cannot hold the sender threads. Heartbeats keep proxies from closing idle
+ * connections and weed out dead ones. Each client IP may hold at most {@code max-per-ip} streams.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommentStreamHub {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${tutorial.comments.stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${tutorial.comments.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${tutorial.comments.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${tutorial.comments.stream.max-per-ip:20}")
+    private int maxPerIp;
+
+    @Value("${tutorial.comments.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Map<String, Set<Subscriber>> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Map<String, AtomicInteger> subscribersByIp = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ExecutorService sender = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "comment-stream-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static String tutorialChannel(Long tutorialId) {
+        return "tutorial:" + tutorialId;
+    }
+
+    public static String lessonChannel(Long lessonId) {
+        return "lesson:" + lessonId;
+    }
+
+    /**
+     * Opens a subscription, or returns empty when the hub or the client IP is at its connection limit.
+     */
+    public Optional<SseEmitter> subscribe(String channel, String clientIp) {
+        if (!acquireIpSlot(clientIp)) {
+            return Optional.empty();
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            releaseIpSlot(clientIp);
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(channel, clientIp, emitter);
+        // Added inside compute so a concurrent remove cannot drop the set this subscriber joins
+        channels.compute(channel, (key, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Jittered retry so a restart does not bring every tab back in the same second
+        long retryMillis = 3000 + ThreadLocalRandom.current().nextLong(7000);
+        subscriber.offer(SseEmitter.event().reconnectTime(retryMillis).comment("connected").build());
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Pushes an event to the channel once the surrounding transaction commits.
+     */
+    public void publish(String channel, String eventName, Object payload) {
+        TransactionUtils.afterCommit(() -> broadcast(channel, eventName, payload));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${tutorial.comments.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        channels.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    /**
+     * Interrupts writes that have been blocked longer than the send timeout.
+     */
+    @Scheduled(fixedDelayString = "${tutorial.comments.stream.send-check-ms:1000}")
+    public void abortStalledSends() {
+        long now = System.currentTimeMillis();
+        channels.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.abortIfStalled(now)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        sender.shutdownNow();
+    }
+
+    private void broadcast(String channel, String eventName, Object payload) {
+        Set<Subscriber> subscribers = channels.get(channel);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .id(Long.toString(eventIds.incrementAndGet()))
+                    .name(eventName)
+                    .data(objectMapper.writeValueAsString(payload))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event for {}: {}", eventName, channel, e.getMessage());
+            return;
+        }
+        subscribers.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    private void remove(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.channel, (key, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+                releaseIpSlot(subscriber.clientIp);
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private boolean acquireIpSlot(String clientIp) {
+        if (clientIp == null) {
+            return true;
+        }
+        boolean[] acquired = new boolean[1];
+        subscribersByIp.compute(clientIp, (ip, count) -> {
+            AtomicInteger current = count != null ? count : new AtomicInteger();
+            if (current.get() < maxPerIp) {
+                current.incrementAndGet();
+                acquired[0] = true;
+            }
+            return current.get() == 0 ? null : current;
+        });
+        return acquired[0];
+    }
+
+    private void releaseIpSlot(String clientIp) {
+        if (clientIp != null) {
+            subscribersByIp.computeIfPresent(clientIp, (ip, count) -> count.decrementAndGet() <= 0 ? null : count);
+        }
+    }
+
+    private final class Subscriber {
+        private final String channel;
+        private final String clientIp;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        // At most one drain task per connection is queued or running
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // The sender thread while a write is in progress, and when it started; guarded by this
+        private Thread sendingThread;
+        private long sendStartedAt;
+
+        Subscriber(String channel, String clientIp, SseEmitter emitter) {
+            this.channel = channel;
+            this.clientIp = clientIp;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(frame)) {
+                log.debug("Dropping slow comment stream subscriber on {}", channel);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while (!closed && (frame = buffer.poll()) != null) {
+                    send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // A frame may have arrived after the last poll but before the flag was cleared
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Set<DataWithMediaType> frame) throws IOException {
+            synchronized (this) {
+                sendingThread = Thread.currentThread();
+                sendStartedAt = System.currentTimeMillis();
+            }
+            try {
+                emitter.send(frame);
+            } finally {
+                synchronized (this) {
+                    sendingThread = null;
+                    // An abort that raced with the end of the write must not leak to the pool thread's next task
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        void abortIfStalled(long now) {
+            synchronized (this) {
+                if (sendingThread == null || now - sendStartedAt <= sendTimeoutMs) {
+                    return;
+                }
+                sendingThread.interrupt();
+                sendingThread = null;
+            }
+            log.debug("Aborting stalled comment stream write on {}", channel);
+            close();
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // Already completed or the connection is gone
+            }
+        }
+    }
+}
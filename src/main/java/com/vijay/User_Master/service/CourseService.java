@@ -1,5 +1,7 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.ResourceVersion;
 import com.vijay.User_Master.dto.tutorial.CourseDTO;
 import com.vijay.User_Master.dto.tutorial.VideoLessonDTO;
 import org.springframework.data.domain.Page;
@@ -12,8 +14,11 @@ public interface CourseService {
     CourseDTO updateCourse(Long id, CourseDTO courseDTO);
     CourseDTO getCourseById(Long id);
     CourseDTO getCourseBySlug(String slug);
+    ResourceVersion getCourseVersionBySlug(String slug);
     Page<CourseDTO> getAllCourses(int page, int size, String sortBy, String sortDir);
     Page<CourseDTO> getPublishedCourses(int page, int size, String sortBy, String sortDir);
+    CursorPageResponse<CourseDTO> getPublishedCoursesByCursor(String cursor, int size, String sortBy, String sortDir, boolean includeTotal);
+    CursorPageResponse<CourseDTO> getAllCoursesByCursor(String cursor, int size, String sortBy, String sortDir, boolean includeTotal);
     Page<CourseDTO> getCoursesByCategory(Long categoryId, int page, int size);
     void deleteCourse(Long id);
     void publishCourse(Long id);
@@ -26,4 +31,5 @@ public interface CourseService {
     VideoLessonDTO getLessonBySlug(String courseSlug, String lessonSlug);
     List<VideoLessonDTO> getLessonsByCourseId(Long courseId);
     void deleteLesson(Long id);
+    Page<VideoLessonDTO> getTopRatedLessons(int page, int size, Long categoryId, String difficulty);
 }
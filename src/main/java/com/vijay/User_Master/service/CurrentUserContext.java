@@ -0,0 +1,72 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The authenticated {@link User}, resolved once per request and shared by every service.
+ * <p>
+ * A user principal already carries its id (from the token claims or the identity query), so the
+ * user is a {@code getReferenceById} proxy and no query runs unless a field beyond the id is read.
+ * Other principals fall back to a lookup by login name; workers have no User row and resolve to
+ * none. The result is memoised in the current request's attributes, next to the authentication it
+ * was resolved for; outside a request (scheduled or async work) it is resolved on each call.
+ */
+@Service
+@RequiredArgsConstructor
+public class CurrentUserContext {
+
+    private static final String ATTRIBUTE = CurrentUserContext.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    private record Resolved(Authentication authentication, User user) {
+    }
+
+    /**
+     * The authenticated user; throws when the caller is anonymous or not a user.
+     */
+    public User getUser() {
+        User user = getUserOrNull();
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user;
+    }
+
+    public User getUserOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return resolve(authentication);
+        }
+        // Keyed by the authentication so a login or logout mid-request is not served a stale user
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Resolved resolved
+                && resolved.authentication() == authentication) {
+            return resolved.user();
+        }
+        User user = resolve(authentication);
+        attributes.setAttribute(ATTRIBUTE, new Resolved(authentication, user), RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    private User resolve(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            return principal.isWorker() ? null : userRepository.getReferenceById(principal.getId());
+        }
+        String login = authentication.getName();
+        return userRepository.findByUsernameOrEmail(login, login).orElse(null);
+    }
+}
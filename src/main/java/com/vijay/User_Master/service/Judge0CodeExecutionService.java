@@ -5,7 +5,6 @@ import com.vijay.User_Master.dto.tutorial.CodeExecutionResponse;
 import com.vijay.User_Master.entity.CodeExecutionLog;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.repository.CodeExecutionLogRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +12,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -29,7 +27,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class Judge0CodeExecutionService {
 
     private final CodeExecutionLogRepository executionLogRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
     private final RestTemplate restTemplate = new RestTemplate();
 
     @Value("${judge0.api.url:https://judge0-ce.p.rapidapi.com}")
@@ -264,8 +262,7 @@ public class Judge0CodeExecutionService {
 
     private void saveExecutionLog(CodeExecutionRequest request, CodeExecutionResponse response, String token, String ipAddress) {
         try {
-            String username = SecurityContextHolder.getContext().getAuthentication().getName();
-            User user = userRepository.findByUsername(username);
+            User user = currentUserContext.getUserOrNull();
 
             CodeExecutionLog executionLog = CodeExecutionLog.builder()
                     .user(user)
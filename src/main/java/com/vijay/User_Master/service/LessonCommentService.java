@@ -1,19 +1,28 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.Helper.KeysetPagination;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.tutorial.CommentEventDTO;
 import com.vijay.User_Master.dto.tutorial.LessonCommentDTO;
 import com.vijay.User_Master.entity.LessonComment;
-import com.vijay.User_Master.entity.VideoLesson;
 import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.entity.VideoLesson;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
 import com.vijay.User_Master.repository.LessonCommentRepository;
 import com.vijay.User_Master.repository.VideoLessonRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,7 +32,8 @@ public class LessonCommentService {
 
     private final LessonCommentRepository commentRepository;
     private final VideoLessonRepository lessonRepository;
-    private final UserRepository userRepository;
+    private final CommentStreamHub commentStreamHub;
+    private final CurrentUserContext currentUserContext;
 
     /**
      * Get all comments for a lesson with replies
@@ -34,12 +44,33 @@ public class LessonCommentService {
         Long currentUserId = currentUser != null ? currentUser.getId() : null;
         
         List<LessonComment> topLevelComments = commentRepository.findTopLevelByLessonId(lessonId);
+        Map<Long, List<LessonComment>> replies = loadReplies(topLevelComments);
         
         return topLevelComments.stream()
-                .map(comment -> convertToDTO(comment, currentUserId, true))
+                .map(comment -> convertToDTO(comment, currentUserId, replies))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get a page of comment threads (newest first) with their replies, in three queries whatever the thread size
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LessonCommentDTO> getCommentThreads(Long lessonId, String cursor, int size) {
+        User currentUser = getCurrentUserOrNull();
+        Long currentUserId = currentUser != null ? currentUser.getId() : null;
+
+        size = KeysetPagination.pageSize(size);
+        KeysetPagination.Cursor after = KeysetPagination.decodeCursor(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<LessonComment> rows = after == null
+                ? commentRepository.findTopLevelPage(lessonId, limit)
+                : commentRepository.findTopLevelPageAfter(lessonId, cursorCreatedAt(after), after.getId(), limit);
+
+        Map<Long, List<LessonComment>> replies = loadReplies(rows.subList(0, Math.min(size, rows.size())));
+        return KeysetPagination.toCursorPage(rows, size, "createdAt",
+                comment -> convertToDTO(comment, currentUserId, replies), null);
+    }
+
     /**
      * Add a new comment to a lesson
      */
@@ -63,9 +94,13 @@ public class LessonCommentService {
                 .build();
 
         comment = commentRepository.save(comment);
+        if (parent != null) {
+            commentRepository.adjustReplyCount(parent.getId(), 1);
+        }
+        publishEvent(lessonId, CommentEventDTO.CREATED, comment.getId(), parentCommentId, convertToDTO(comment, null, null));
         log.info("User {} added comment to lesson {}", user.getUsername(), lesson.getTitle());
 
-        return convertToDTO(comment, user.getId(), false);
+        return convertToDTO(comment, user.getId(), null);
     }
 
     /**
@@ -84,8 +119,11 @@ public class LessonCommentService {
         comment.setContent(content.trim());
         comment = commentRepository.save(comment);
         log.info("User {} updated comment {}", user.getUsername(), commentId);
+        publishEvent(comment.getLesson().getId(), CommentEventDTO.EDITED, commentId,
+                comment.getParentComment() != null ? comment.getParentComment().getId() : null,
+                convertToDTO(comment, null, null));
 
-        return convertToDTO(comment, user.getId(), false);
+        return convertToDTO(comment, user.getId(), null);
     }
 
     /**
@@ -101,7 +139,13 @@ public class LessonCommentService {
             throw new SecurityException("Cannot delete another user's comment");
         }
 
+        Long parentId = comment.getParentComment() != null ? comment.getParentComment().getId() : null;
+        Long lessonId = comment.getLesson().getId();
         commentRepository.delete(comment);
+        if (parentId != null) {
+            commentRepository.adjustReplyCount(parentId, -1);
+        }
+        publishEvent(lessonId, CommentEventDTO.DELETED, commentId, parentId, null);
         log.info("User {} deleted comment {}", user.getUsername(), commentId);
     }
 
@@ -113,14 +157,46 @@ public class LessonCommentService {
         return commentRepository.countByLessonId(lessonId);
     }
 
+    /**
+     * Fill reply counters for comments written before the counter column existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillReplyCounts() {
+        if (commentRepository.countRepliesUnderUncountedParents() > 0) {
+            commentRepository.recountReplies();
+            log.info("Recounted comment replies");
+        }
+    }
+
     // ============ Private Helper Methods ============
 
-    private LessonCommentDTO convertToDTO(LessonComment comment, Long currentUserId, boolean includeReplies) {
+    // Replies of all given comments in one IN query, grouped by parent id
+    private Map<Long, List<LessonComment>> loadReplies(List<LessonComment> parents) {
+        if (parents.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> parentIds = parents.stream().map(LessonComment::getId).toList();
+        return commentRepository.findRepliesByParentIds(parentIds).stream()
+                .collect(Collectors.groupingBy(reply -> reply.getParentComment().getId()));
+    }
+
+    private static LocalDateTime cursorCreatedAt(KeysetPagination.Cursor cursor) {
+        if (cursor.getValue() == null) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+        try {
+            return LocalDateTime.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+    }
+
+    private LessonCommentDTO convertToDTO(LessonComment comment, Long currentUserId, Map<Long, List<LessonComment>> replyMap) {
         List<LessonCommentDTO> replies = null;
-        if (includeReplies) {
-            List<LessonComment> replyEntities = commentRepository.findRepliesByParentId(comment.getId());
-            replies = replyEntities.stream()
-                    .map(reply -> convertToDTO(reply, currentUserId, false))
+        if (replyMap != null) {
+            replies = replyMap.getOrDefault(comment.getId(), List.of()).stream()
+                    .map(reply -> convertToDTO(reply, currentUserId, null))
                     .collect(Collectors.toList());
         }
 
@@ -136,26 +212,27 @@ public class LessonCommentService {
                 .updatedAt(comment.getUpdatedAt())
                 .isEdited(comment.isEdited())
                 .parentCommentId(comment.getParentComment() != null ? comment.getParentComment().getId() : null)
+                .replyCount(comment.getReplyCount())
                 .canModify(currentUserId != null && currentUserId.equals(comment.getAuthor().getId()))
                 .replies(replies != null ? replies : List.of())
                 .build();
     }
 
+    // Live subscribers get one shared, viewer-neutral copy of the change
+    private void publishEvent(Long lessonId, String type, Long commentId, Long parentCommentId, LessonCommentDTO comment) {
+        commentStreamHub.publish(CommentStreamHub.lessonChannel(lessonId), "comment", CommentEventDTO.builder()
+                .type(type)
+                .commentId(commentId)
+                .parentCommentId(parentCommentId)
+                .comment(comment)
+                .build());
+    }
+
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserContext.getUser();
     }
 
     private User getCurrentUserOrNull() {
-        try {
-            String username = SecurityContextHolder.getContext().getAuthentication().getName();
-            if ("anonymousUser".equals(username)) {
-                return null;
-            }
-            return userRepository.findByUsernameOrEmail(username, username).orElse(null);
-        } catch (Exception e) {
-            return null;
-        }
+        return currentUserContext.getUserOrNull();
     }
 }
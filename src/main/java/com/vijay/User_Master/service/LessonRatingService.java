@@ -4,15 +4,15 @@ import com.vijay.User_Master.dto.tutorial.LessonRatingDTO;
 import com.vijay.User_Master.dto.tutorial.LessonRatingSummaryDTO;
 import com.vijay.User_Master.entity.VideoLesson;
 import com.vijay.User_Master.entity.LessonRating;
+import com.vijay.User_Master.entity.RatingAggregate;
+import com.vijay.User_Master.entity.RatingTarget;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.repository.LessonRatingRepository;
 import com.vijay.User_Master.repository.VideoLessonRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,7 +27,8 @@ public class LessonRatingService {
 
     private final LessonRatingRepository ratingRepository;
     private final VideoLessonRepository lessonRepository;
-    private final UserRepository userRepository;
+    private final RatingAggregateService aggregateService;
+    private final CurrentUserContext currentUserContext;
 
     /**
      * Rate a lesson (add or update rating)
@@ -44,12 +45,14 @@ public class LessonRatingService {
         
         // Check if user already rated
         Optional<LessonRating> existingRating = ratingRepository
-                .findByUserIdAndLessonId(user.getId(), lessonId);
+                .findForUpdate(user.getId(), lessonId);
         
         LessonRating lessonRating;
+        Integer previouslyCounted = null;
         if (existingRating.isPresent()) {
             // Update existing rating
             lessonRating = existingRating.get();
+            previouslyCounted = RatingAggregateService.counted(lessonRating.getRating(), lessonRating.isApproved());
             lessonRating.setRating(rating);
             lessonRating.setReview(review);
             log.info("User {} updated rating for lesson {}", user.getUsername(), lesson.getTitle());
@@ -68,6 +71,10 @@ public class LessonRatingService {
         
         lessonRating = ratingRepository.save(lessonRating);
         
+        // Move the vote in the lesson's running totals
+        aggregateService.recordChange(RatingTarget.LESSON, lessonId, previouslyCounted,
+                RatingAggregateService.counted(rating, lessonRating.isApproved()));
+        
         return convertToDTO(lessonRating);
     }
 
@@ -78,11 +85,14 @@ public class LessonRatingService {
     public void deleteRating(Long lessonId) {
         User user = getCurrentUser();
         
-        if (!ratingRepository.existsByUserIdAndLessonId(user.getId(), lessonId)) {
-            throw new RuntimeException("Rating not found");
-        }
+        LessonRating rating = ratingRepository.findForUpdate(user.getId(), lessonId)
+                .orElseThrow(() -> new RuntimeException("Rating not found"));
+        
+        ratingRepository.delete(rating);
         
-        ratingRepository.deleteByUserIdAndLessonId(user.getId(), lessonId);
+        // Take the vote out of the lesson's running totals
+        aggregateService.recordChange(RatingTarget.LESSON, lessonId,
+                RatingAggregateService.counted(rating.getRating(), rating.isApproved()), null);
         
         log.info("User {} deleted rating for lesson {}", user.getUsername(), lessonId);
     }
@@ -91,34 +101,19 @@ public class LessonRatingService {
      * Get rating summary for a lesson
      */
     public LessonRatingSummaryDTO getRatingSummary(Long lessonId) {
-        Double avgRating = ratingRepository.getAverageRating(lessonId);
-        long totalRatings = ratingRepository.countByLessonIdAndIsApprovedTrue(lessonId);
-        
-        // Get distribution
-        long fiveStar = 0, fourStar = 0, threeStar = 0, twoStar = 0, oneStar = 0;
-        
-        List<Object[]> distData = ratingRepository.getRatingDistribution(lessonId);
-        for (Object[] row : distData) {
-            Integer stars = (Integer) row[0];
-            Long count = (Long) row[1];
-            switch (stars) {
-                case 5: fiveStar = count; break;
-                case 4: fourStar = count; break;
-                case 3: threeStar = count; break;
-                case 2: twoStar = count; break;
-                case 1: oneStar = count; break;
-            }
-        }
+        // Totals and distribution come from the single aggregate row
+        RatingAggregate aggregate = aggregateService.getAggregate(RatingTarget.LESSON, lessonId)
+                .orElseGet(RatingAggregate::new);
         
         return LessonRatingSummaryDTO.builder()
                 .lessonId(lessonId)
-                .averageRating(avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0)
-                .totalRatings(totalRatings)
-                .fiveStarCount(fiveStar)
-                .fourStarCount(fourStar)
-                .threeStarCount(threeStar)
-                .twoStarCount(twoStar)
-                .oneStarCount(oneStar)
+                .averageRating(Math.round(aggregate.getAverage() * 10.0) / 10.0)
+                .totalRatings(aggregate.getRatingCount())
+                .fiveStarCount(aggregate.getStars5())
+                .fourStarCount(aggregate.getStars4())
+                .threeStarCount(aggregate.getStars3())
+                .twoStarCount(aggregate.getStars2())
+                .oneStarCount(aggregate.getStars1())
                 .build();
     }
 
@@ -169,11 +164,16 @@ public class LessonRatingService {
      */
     @Transactional
     public LessonRatingDTO approveRating(Long ratingId) {
-        LessonRating rating = ratingRepository.findById(ratingId)
+        LessonRating rating = ratingRepository.findByIdForUpdate(ratingId)
                 .orElseThrow(() -> new RuntimeException("Rating not found"));
+        Integer previouslyCounted = RatingAggregateService.counted(rating.getRating(), rating.isApproved());
         rating.setApproved(true);
         rating = ratingRepository.save(rating);
         
+        // An approved vote starts counting towards the lesson's totals
+        aggregateService.recordChange(RatingTarget.LESSON, rating.getLesson().getId(),
+                previouslyCounted, rating.getRating());
+        
         return convertToDTO(rating);
     }
 
@@ -190,9 +190,7 @@ public class LessonRatingService {
     // Helper methods
     
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserContext.getUser();
     }
 
     private LessonRatingDTO convertToDTO(LessonRating rating) {
@@ -0,0 +1,334 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.entity.RatingTarget;
+import com.vijay.User_Master.entity.Tutorial;
+import com.vijay.User_Master.entity.User;
+import com.vijay.User_Master.repository.LessonProgressRepository;
+import com.vijay.User_Master.repository.TutorialRepository;
+import com.vijay.User_Master.repository.UserProgressRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Absorbs progress heartbeats for tutorials and video lessons in memory.
+ * <p>
+ * Each (user, item) pair has an accumulator that keeps the highest percentage, the latest position
+ * and the time spent since the last flush. Time is credited from the gap between heartbeats, capped
+ * so that a tab left open in the background does not keep accruing. Accumulators are written out as
+ * one batch of upserts per flush, and right away when an item reaches its completion threshold.
+ * Completion is a conditional update, so the trending and badge hooks fire exactly once per user
+ * and item even across restarts or several instances.
+ * <p>
+ * Accumulators are keyed by username so the heartbeat path does no database reads; ids are resolved
+ * once per flush. Principals without a users row (workers) are dropped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProgressHeartbeatService {
+
+    private static final String TUTORIAL_UPSERT = upsert("user_progress", "tutorial_id");
+    private static final String LESSON_UPSERT = upsert("lesson_progress", "lesson_id");
+
+    private final UserProgressRepository progressRepository;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final UserRepository userRepository;
+    private final TutorialRepository tutorialRepository;
+    private final TutorialTrendingService trendingService;
+    private final BadgeService badgeService;
+    private final UserTutorialStateCache tutorialStateCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${tutorial.progress.heartbeat-seconds:30}")
+    private long heartbeatSeconds;
+
+    @Value("${tutorial.progress.idle-ms:600000}")
+    private long idleMillis;
+
+    @Value("${tutorial.progress.lesson-completion-percentage:90}")
+    private int lessonCompletionPercentage;
+
+    private final Map<Key, Accumulator> accumulators = new ConcurrentHashMap<>();
+    // Serialises flushes so a completion never runs ahead of an in-flight upsert for the same row
+    private final Object flushLock = new Object();
+
+    private record Key(RatingTarget target, String username, long itemId) {
+    }
+
+    private record Pending(Key key, Accumulator accumulator, int percentage, Integer position, long minutes) {
+    }
+
+    /**
+     * What the client gets back from a heartbeat.
+     */
+    public record Snapshot(int progressPercentage, boolean completed) {
+    }
+
+    /**
+     * Records a heartbeat. {@code accrueTime} is false for explicit progress updates, which say nothing
+     * about how long the user has been on the page.
+     */
+    public Snapshot record(RatingTarget target, String username, Long itemId, Integer position,
+                           Integer percentage, boolean accrueTime) {
+        Key key = new Key(target, username, itemId);
+        long now = System.currentTimeMillis();
+        while (true) {
+            Accumulator acc = accumulators.computeIfAbsent(key, k -> new Accumulator());
+            boolean completeNow;
+            Snapshot snapshot;
+            synchronized (acc) {
+                if (acc.retired) {
+                    continue; // evicted between lookup and lock; retry with a fresh accumulator
+                }
+                if (accrueTime) {
+                    if (acc.lastBeatMillis > 0) {
+                        long gapSeconds = (now - acc.lastBeatMillis) / 1000;
+                        acc.pendingSeconds += Math.min(Math.max(gapSeconds, 0), heartbeatSeconds * 2);
+                    }
+                    acc.lastBeatMillis = now;
+                }
+                acc.lastSeenMillis = now;
+                if (percentage != null) {
+                    acc.percentage = Math.max(acc.percentage, Math.min(Math.max(percentage, 0), 100));
+                }
+                if (position != null) {
+                    acc.position = Math.max(position, 0);
+                }
+                acc.dirty = true;
+                completeNow = !acc.completionHandled && acc.percentage >= completionThreshold(target);
+                if (completeNow) {
+                    acc.completionHandled = true;
+                }
+                snapshot = new Snapshot(acc.percentage, acc.completionHandled);
+            }
+            if (completeNow) {
+                flush(List.of(key), false);
+                complete(key, acc);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Writes out one user's pending progress, so reads that follow see it.
+     */
+    public void flushUser(String username) {
+        List<Key> keys = accumulators.keySet().stream()
+                .filter(key -> key.username().equals(username))
+                .toList();
+        if (!keys.isEmpty()) {
+            flush(keys, false);
+        }
+    }
+
+    public void flush(RatingTarget target, String username, Long itemId) {
+        Key key = new Key(target, username, itemId);
+        if (accumulators.containsKey(key)) {
+            flush(List.of(key), false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tutorial.progress.flush-ms:15000}")
+    public void flushAll() {
+        flush(new ArrayList<>(accumulators.keySet()), false);
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(new ArrayList<>(accumulators.keySet()), true);
+    }
+
+    private void flush(Collection<Key> keys, boolean finalFlush) {
+        synchronized (flushLock) {
+            long now = System.currentTimeMillis();
+            List<Pending> batch = new ArrayList<>();
+            for (Key key : keys) {
+                Accumulator acc = accumulators.get(key);
+                if (acc != null) {
+                    Pending pending = acc.take(key, finalFlush, now - idleMillis);
+                    if (pending != null) {
+                        batch.add(pending);
+                    }
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                write(batch);
+            } catch (DataIntegrityViolationException e) {
+                // Some row points at a deleted or unknown item; write the rest one by one
+                batch.forEach(this::writeSingle);
+            } catch (DataAccessException e) {
+                log.warn("Progress flush of {} entries failed, will retry: {}", batch.size(), e.getMessage());
+                batch.forEach(pending -> pending.accumulator().restore(pending.minutes()));
+            }
+        }
+    }
+
+    private void writeSingle(Pending pending) {
+        try {
+            write(List.of(pending));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Dropping progress for missing {} {}", pending.key().target(), pending.key().itemId());
+        } catch (DataAccessException e) {
+            pending.accumulator().restore(pending.minutes());
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        Set<String> usernames = new HashSet<>();
+        batch.forEach(pending -> usernames.add(pending.key().username()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        tx.executeWithoutResult(status -> {
+            Map<String, Long> userIds = new HashMap<>();
+            for (Object[] row : userRepository.findIdsByUsernames(usernames)) {
+                userIds.put((String) row[0], (Long) row[1]);
+            }
+            List<Object[]> tutorialRows = new ArrayList<>();
+            List<Object[]> lessonRows = new ArrayList<>();
+            for (Pending pending : batch) {
+                Long userId = userIds.get(pending.key().username());
+                if (userId == null) {
+                    continue;
+                }
+                Object[] row = {userId, pending.key().itemId(), pending.percentage(), pending.position(),
+                        pending.minutes(), now, now, now, now};
+                if (pending.key().target() == RatingTarget.TUTORIAL) {
+                    tutorialRows.add(row);
+                    tutorialStateCache.tutorialStarted(pending.key().username(), pending.key().itemId());
+                } else {
+                    lessonRows.add(row);
+                }
+            }
+            if (!tutorialRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(TUTORIAL_UPSERT, tutorialRows);
+            }
+            if (!lessonRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(LESSON_UPSERT, lessonRows);
+            }
+        });
+    }
+
+    private void complete(Key key, Accumulator acc) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            Boolean first = tx.execute(status -> {
+                User user = userRepository.findByUsername(key.username());
+                if (user == null) {
+                    return false;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                if (key.target() == RatingTarget.TUTORIAL) {
+                    if (progressRepository.markCompleted(user.getId(), key.itemId(), now) == 0) {
+                        retryUnlessCompleted(acc, progressRepository.existsByUserIdAndTutorialIdAndIsCompletedTrue(user.getId(), key.itemId()));
+                        return false;
+                    }
+                    Tutorial tutorial = tutorialRepository.findById(key.itemId())
+                            .orElseThrow(() -> new RuntimeException("Tutorial not found"));
+                    badgeService.checkTutorialBadges(user, tutorial);
+                } else if (lessonProgressRepository.markCompleted(user.getId(), key.itemId(), now) == 0) {
+                    retryUnlessCompleted(acc, lessonProgressRepository.existsByUserIdAndLessonIdAndIsCompletedTrue(user.getId(), key.itemId()));
+                    return false;
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(first)) {
+                if (key.target() == RatingTarget.TUTORIAL) {
+                    trendingService.recordCompletion(key.itemId());
+                    tutorialStateCache.tutorialCompleted(key.username(), key.itemId());
+                }
+                log.info("User {} completed {} {}", key.username(), key.target().name().toLowerCase(Locale.ROOT), key.itemId());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not record completion of {} {} for {}: {}", key.target(), key.itemId(), key.username(), e.getMessage());
+            retryUnlessCompleted(acc, false);
+        }
+    }
+
+    // The row was not written yet (failed flush); let the next heartbeat try again
+    private static void retryUnlessCompleted(Accumulator acc, boolean completed) {
+        if (!completed) {
+            synchronized (acc) {
+                acc.completionHandled = false;
+            }
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        accumulators.forEach((key, acc) -> {
+            synchronized (acc) {
+                if (!acc.dirty && acc.pendingSeconds == 0 && now - acc.lastSeenMillis > idleMillis) {
+                    acc.retired = true;
+                    accumulators.remove(key, acc);
+                }
+            }
+        });
+    }
+
+    private int completionThreshold(RatingTarget target) {
+        return target == RatingTarget.TUTORIAL ? 100 : lessonCompletionPercentage;
+    }
+
+    private static String upsert(String table, String itemColumn) {
+        return "INSERT INTO " + table + " (user_id, " + itemColumn + ", is_completed, progress_percentage, last_position, " +
+                "time_spent_minutes, started_at, last_accessed_at, created_at, updated_at) " +
+                "VALUES (?, ?, false, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE " +
+                "progress_percentage = GREATEST(COALESCE(progress_percentage, 0), VALUES(progress_percentage)), " +
+                "last_position = COALESCE(VALUES(last_position), last_position), " +
+                "time_spent_minutes = COALESCE(time_spent_minutes, 0) + VALUES(time_spent_minutes), " +
+                "last_accessed_at = VALUES(last_accessed_at), updated_at = VALUES(updated_at)";
+    }
+
+    private static final class Accumulator {
+        private int percentage;
+        private Integer position;
+        private long pendingSeconds;
+        private long lastBeatMillis;
+        private long lastSeenMillis;
+        private boolean dirty;
+        private boolean completionHandled;
+        private boolean retired;
+
+        // Whole minutes go to the database; the remainder carries over unless the session is over
+        synchronized Pending take(Key key, boolean finalFlush, long idleBefore) {
+            boolean roundUp = finalFlush || lastSeenMillis < idleBefore;
+            if (!dirty && !(roundUp && pendingSeconds > 0)) {
+                return null;
+            }
+            long minutes = roundUp ? Math.round(pendingSeconds / 60.0) : pendingSeconds / 60;
+            pendingSeconds = roundUp ? 0 : pendingSeconds % 60;
+            dirty = false;
+            return new Pending(key, this, percentage, position, minutes);
+        }
+
+        synchronized void restore(long minutes) {
+            pendingSeconds += minutes * 60;
+            dirty = true;
+        }
+    }
+}
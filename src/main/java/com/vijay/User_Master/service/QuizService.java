@@ -6,7 +6,6 @@ import com.vijay.User_Master.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,8 +24,8 @@ public class QuizService {
     private final QuestionOptionRepository optionRepository;
     private final QuizAttemptRepository attemptRepository;
     private final QuizResponseRepository responseRepository;
-    private final UserRepository userRepository;
     private final TutorialRepository tutorialRepository;
+    private final CurrentUserContext currentUserContext;
 
     /**
      * Get the active quiz for a tutorial (without correct answers)
@@ -376,9 +375,7 @@ public class QuizService {
     // ============ Helper Methods ============
 
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserContext.getUser();
     }
 
     private QuizDTO convertToDTO(Quiz quiz, boolean includeCorrectAnswers) {
@@ -0,0 +1,129 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.entity.RatingAggregate;
+import com.vijay.User_Master.entity.RatingTarget;
+import com.vijay.User_Master.repository.LessonRatingRepository;
+import com.vijay.User_Master.repository.RatingAggregateRepository;
+import com.vijay.User_Master.repository.TutorialRatingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Per-tutorial and per-lesson rating totals (sum, count, 5-bucket histogram).
+ * Every vote change is applied as a delta in one upsert, instead of re-aggregating the
+ * ratings table; tutorial totals are also copied onto tutorials.average_rating/rating_count.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateService {
+
+    private final RatingAggregateRepository aggregateRepository;
+    private final TutorialRatingRepository tutorialRatingRepository;
+    private final LessonRatingRepository lessonRatingRepository;
+    private final TopRatedService topRatedService;
+
+    /**
+     * Moves one vote from {@code oldRating} to {@code newRating}. Null means "not counted":
+     * the vote did not exist yet, was deleted, or is awaiting approval.
+     */
+    @Transactional
+    public void recordChange(RatingTarget target, Long targetId, Integer oldRating, Integer newRating) {
+        if (Objects.equals(oldRating, newRating)) {
+            return;
+        }
+        long[] stars = new long[6];
+        long sum = 0;
+        long count = 0;
+        if (oldRating != null) {
+            stars[oldRating]--;
+            sum -= oldRating;
+            count--;
+        }
+        if (newRating != null) {
+            stars[newRating]++;
+            sum += newRating;
+            count++;
+        }
+        aggregateRepository.applyDelta(target.name(), targetId, sum, count,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+        if (target == RatingTarget.TUTORIAL) {
+            aggregateRepository.syncTutorialRating(targetId);
+        }
+        topRatedService.markChanged(target, targetId);
+    }
+
+    /**
+     * The counted value of a vote: its stars when approved, otherwise null.
+     */
+    public static Integer counted(Integer rating, boolean approved) {
+        return approved ? rating : null;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RatingAggregate> getAggregate(RatingTarget target, Long targetId) {
+        return aggregateRepository.findByTargetTypeAndTargetId(target, targetId);
+    }
+
+    // Ratings written before aggregates existed are folded in once, on the first start
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (!aggregateRepository.existsByTargetType(RatingTarget.TUTORIAL) && tutorialRatingRepository.count() > 0) {
+            rebuild(RatingTarget.TUTORIAL);
+        }
+        if (!aggregateRepository.existsByTargetType(RatingTarget.LESSON) && lessonRatingRepository.count() > 0) {
+            rebuild(RatingTarget.LESSON);
+        }
+    }
+
+    /**
+     * Recomputes every aggregate of one target type from the ratings table.
+     */
+    @Transactional
+    public void rebuild(RatingTarget target) {
+        List<Object[]> rows = target == RatingTarget.TUTORIAL
+                ? tutorialRatingRepository.countApprovedGroupedByTutorialAndRating()
+                : lessonRatingRepository.countApprovedGroupedByLessonAndRating();
+
+        Map<Long, RatingAggregate> aggregates = new HashMap<>();
+        for (Object[] row : rows) {
+            Long targetId = (Long) row[0];
+            int stars = (Integer) row[1];
+            long count = (Long) row[2];
+            if (stars < 1 || stars > 5) {
+                continue;
+            }
+            RatingAggregate aggregate = aggregates.computeIfAbsent(targetId,
+                    id -> RatingAggregate.builder().targetType(target).targetId(id).build());
+            aggregate.setRatingSum(aggregate.getRatingSum() + stars * count);
+            aggregate.setRatingCount(aggregate.getRatingCount() + count);
+            switch (stars) {
+                case 1 -> aggregate.setStars1(count);
+                case 2 -> aggregate.setStars2(count);
+                case 3 -> aggregate.setStars3(count);
+                case 4 -> aggregate.setStars4(count);
+                default -> aggregate.setStars5(count);
+            }
+        }
+
+        aggregateRepository.deleteByTargetTypeInBulk(target);
+        aggregateRepository.saveAll(aggregates.values());
+        if (target == RatingTarget.TUTORIAL) {
+            aggregateRepository.flush();
+            aggregateRepository.syncAllTutorialRatings();
+        }
+        topRatedService.requestRebuild();
+        log.info("Rebuilt {} rating aggregates for {} items", target, aggregates.size());
+    }
+}
@@ -2,16 +2,20 @@ package com.vijay.User_Master.service;
 
 import com.vijay.User_Master.dto.*;
 
+import java.util.List;
+
 public interface RefreshTokenService {
 
     JwtResponse refreshAccessToken(RefreshTokenRequest request);
 
-    RefreshTokenDto createRefreshToken(String username, String email, Long userId, Long workerId);
+    RefreshTokenDto createRefreshToken(String username, String email, Long userId, Long workerId, List<String> roles);
 
     RefreshTokenDto verifyRefreshToken(RefreshTokenDto refreshTokenDto);
 
     void invalidateRefreshToken(String token);
 
+    void invalidateRefreshTokens(Long userId, Long workerId);
+
 
 
 
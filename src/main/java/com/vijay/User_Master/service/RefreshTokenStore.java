@@ -0,0 +1,74 @@
+package com.vijay.User_Master.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Storage for refresh tokens. Tokens are only ever stored and looked up by their SHA-256 hash;
+ * the raw value exists only in the response to the client.
+ * <p>
+ * Each account has one live token. {@link #rotate} swaps it for a new one in the same family;
+ * presenting a token that was already rotated out means the chain was copied, so the family is
+ * revoked and the caller must log in again.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Owner and lifetime of a stored token. {@code roles} are the account's active role names as of
+     * {@code accountAsOf}; both are null when the token was read back from the table, which has no roles.
+     */
+    record StoredToken(String tokenHash, String family, String username, String email,
+                       Long userId, Long workerId, List<String> roles, Instant accountAsOf,
+                       Instant expiresAt) {
+    }
+
+    /**
+     * A newly minted token: the raw value for the client plus what was stored.
+     */
+    record IssuedToken(String token, StoredToken stored) {
+    }
+
+    /**
+     * Starts a new family for the account, replacing any live token it had.
+     */
+    IssuedToken issue(String username, String email, Long userId, Long workerId, List<String> roles);
+
+    /**
+     * Consumes a live token and returns its successor. Throws TokenNotFoundException for unknown
+     * tokens, TokenExpiredException for expired ones and InvalidTokenException on reuse.
+     */
+    IssuedToken rotate(String token);
+
+    /**
+     * The live token, without consuming it; same exceptions as {@link #rotate}.
+     */
+    StoredToken verify(String token);
+
+    /**
+     * Replaces the account details kept with a live token, as of now, and returns the updated entry.
+     */
+    StoredToken updateAccount(StoredToken stored, String username, String email, List<String> roles);
+
+    /**
+     * Removes a live token; returns false when there was none.
+     */
+    boolean revoke(String token);
+
+    /**
+     * Removes the account's live token, whatever its family, here and in the table.
+     */
+    void revokeAccount(Long userId, Long workerId);
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
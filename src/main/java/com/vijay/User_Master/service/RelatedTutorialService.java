@@ -0,0 +1,276 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.config.SchedulingConfig;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.repository.TutorialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * "Read next" recommendations from content similarity.
+ * <p>
+ * Each published tutorial gets a MinHash signature over the words of its title and
+ * content plus its keywords. Signatures are split into LSH bands so only tutorials
+ * sharing a band bucket are compared. The top-k list per tutorial is precomputed, so
+ * the detail page only does a map lookup. Edits are queued after commit and a
+ * background job re-indexes just the edited tutorials and their LSH neighbours.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedTutorialService {
+
+    private static final int NUM_HASHES = 128;
+    private static final int BANDS = 64;
+    private static final int ROWS = NUM_HASHES / BANDS;
+    private static final double MIN_SIMILARITY = 0.05;
+    private static final int BATCH_SIZE = 100;
+
+    private static final Pattern TAGS = Pattern.compile("<[^>]+>");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+    // Common English words plus the keys of the JSON block format used by the editor
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "are", "but", "not", "you", "all", "can", "this", "that", "with",
+            "from", "have", "has", "was", "will", "your", "which", "when", "what", "there", "their",
+            "into", "use", "using", "how", "its", "our", "also", "then", "than", "each", "more",
+            "type", "text", "content", "meta", "language", "filename", "caption", "blocks");
+    private static final long[] SEEDS = new SplittableRandom(42).longs(NUM_HASHES).toArray();
+
+    private final TutorialRepository tutorialRepository;
+
+    @Value("${tutorial.related.top-k:5}")
+    private int topK;
+
+    // Index internals are only touched by the synchronized jobs below
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+    // Read side: lock-free lookups for the detail page
+    private final Map<Long, List<Long>> related = new ConcurrentHashMap<>();
+    private final Map<Long, TutorialSummaryDTO> summaries = new ConcurrentHashMap<>();
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public List<TutorialSummaryDTO> getRelated(Long tutorialId) {
+        return related.getOrDefault(tutorialId, List.of()).stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Queues a tutorial for re-indexing once the current transaction commits.
+     */
+    public void markChanged(Long tutorialId) {
+        TransactionUtils.afterCommit(() -> pending.add(tutorialId));
+    }
+
+    @Scheduled(fixedDelayString = "${tutorial.related.pending-ms:5000}")
+    public synchronized void processPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+        reindex(ids);
+    }
+
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${tutorial.related.rebuild-ms:21600000}",
+            scheduler = SchedulingConfig.LONG_JOB_SCHEDULER)
+    public synchronized void rebuild() {
+        Map<Long, int[]> freshSignatures = new HashMap<>();
+        Map<Long, TutorialSummaryDTO> freshSummaries = new HashMap<>();
+
+        Pageable pageable = PageRequest.of(0, BATCH_SIZE);
+        Slice<Object[]> slice;
+        do {
+            slice = tutorialRepository.findPublishedIndexText(pageable);
+            freshSignatures.putAll(signaturesOf(slice.getContent()));
+            List<Long> ids = slice.getContent().stream().map(row -> (Long) row[0]).toList();
+            if (!ids.isEmpty()) {
+                tutorialRepository.findPublishedSummariesByIds(ids)
+                        .forEach(summary -> freshSummaries.put(summary.getId(), summary));
+            }
+            pageable = slice.nextPageable();
+        } while (slice.hasNext());
+
+        signatures.clear();
+        buckets.clear();
+        freshSignatures.forEach((id, signature) -> {
+            signatures.put(id, signature);
+            addToBuckets(id, signature);
+        });
+
+        Map<Long, List<Long>> freshRelated = new HashMap<>();
+        signatures.keySet().forEach(id -> freshRelated.put(id, topSimilar(id)));
+
+        summaries.putAll(freshSummaries);
+        summaries.keySet().retainAll(freshSummaries.keySet());
+        related.putAll(freshRelated);
+        related.keySet().retainAll(freshRelated.keySet());
+        log.info("Related-tutorials index rebuilt for {} tutorials", signatures.size());
+    }
+
+    private void reindex(Collection<Long> ids) {
+        Map<Long, int[]> changed = signaturesOf(tutorialRepository.findPublishedIndexTextByIds(ids));
+        Map<Long, TutorialSummaryDTO> changedSummaries = changed.isEmpty() ? Map.of()
+                : tutorialRepository.findPublishedSummariesByIds(changed.keySet()).stream()
+                        .collect(Collectors.toMap(TutorialSummaryDTO::getId, summary -> summary));
+
+        // Old and new neighbours both need their lists recomputed
+        Set<Long> affected = new HashSet<>(ids);
+        for (Long id : ids) {
+            int[] old = signatures.remove(id);
+            if (old != null) {
+                affected.addAll(candidates(id, old));
+                removeFromBuckets(id, old);
+            }
+        }
+        for (Long id : ids) {
+            int[] signature = changed.get(id);
+            TutorialSummaryDTO summary = changedSummaries.get(id);
+            if (signature == null || summary == null) {
+                // Unpublished, deleted or without indexable text
+                summaries.remove(id);
+                related.remove(id);
+                continue;
+            }
+            signatures.put(id, signature);
+            addToBuckets(id, signature);
+            summaries.put(id, summary);
+            affected.addAll(candidates(id, signature));
+        }
+
+        for (Long id : affected) {
+            if (signatures.containsKey(id)) {
+                related.put(id, topSimilar(id));
+            } else {
+                related.remove(id);
+            }
+        }
+        log.debug("Re-indexed {} tutorials, {} related lists refreshed", ids.size(), affected.size());
+    }
+
+    private List<Long> topSimilar(Long id) {
+        int[] signature = signatures.get(id);
+        return candidates(id, signature).stream()
+                .map(other -> Map.entry(other, similarity(signature, signatures.get(other))))
+                .filter(entry -> entry.getValue() >= MIN_SIMILARITY)
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(topK)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Set<Long> candidates(Long id, int[] signature) {
+        Set<Long> result = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            result.addAll(buckets.getOrDefault(bucketKey(band, signature), Set.of()));
+        }
+        result.remove(id);
+        return result;
+    }
+
+    private void addToBuckets(Long id, int[] signature) {
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucketKey(band, signature), key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void removeFromBuckets(Long id, int[] signature) {
+        for (int band = 0; band < BANDS; band++) {
+            long key = bucketKey(band, signature);
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private static long bucketKey(int band, int[] signature) {
+        int hash = Arrays.hashCode(Arrays.copyOfRange(signature, band * ROWS, (band + 1) * ROWS));
+        return ((long) band << 32) | (hash & 0xffffffffL);
+    }
+
+    // Fraction of equal MinHash slots estimates the Jaccard similarity of the token sets
+    private static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    private static Map<Long, int[]> signaturesOf(List<Object[]> rows) {
+        Map<Long, int[]> result = new HashMap<>();
+        for (Object[] row : rows) {
+            Set<String> tokens = tokenize((String) row[1], (String) row[2], (String) row[3]);
+            if (!tokens.isEmpty()) {
+                result.put((Long) row[0], minHash(tokens));
+            }
+        }
+        return result;
+    }
+
+    private static int[] minHash(Set<String> tokens) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String token : tokens) {
+            long base = token.hashCode();
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int hash = (int) mix64(base ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static Set<String> tokenize(String title, String keywords, String content) {
+        Set<String> tokens = new HashSet<>();
+        addWords(tokens, title);
+        addWords(tokens, content != null ? TAGS.matcher(content).replaceAll(" ") : null);
+        if (keywords != null) {
+            for (String keyword : keywords.split(",")) {
+                String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+                if (!normalized.isEmpty()) {
+                    tokens.add("kw:" + normalized);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static void addWords(Set<String> tokens, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.length() >= 3 && !STOP_WORDS.contains(word)) {
+                tokens.add(word);
+            }
+        }
+    }
+
+    // SplitMix64 finalizer: cheap, well-distributed 64-bit mixing
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
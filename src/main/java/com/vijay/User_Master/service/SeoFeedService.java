@@ -0,0 +1,382 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.Helper.ConditionalRequests;
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.dto.ResourceVersion;
+import com.vijay.User_Master.dto.tutorial.TutorialCategoryDTO;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.repository.CourseRepository;
+import com.vijay.User_Master.repository.TutorialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Sitemap and RSS/Atom documents for the public tutorial site.
+ * <p>
+ * Documents are generated by streaming slug/lastmod projection rows straight into the response
+ * (content is never loaded), while a copy of the bytes is kept so later requests are served from
+ * memory. Any tutorial or course write bumps the generation after commit, and the next request
+ * regenerates. Once the catalog exceeds one shard, sitemap.xml becomes a sitemap index pointing at
+ * sitemap-pages.xml and sitemap-tutorials-N.xml (at most 50,000 URLs each).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeoFeedService {
+
+    public static final String SITEMAP = "sitemap.xml";
+    public static final String PAGES_SITEMAP = "sitemap-pages.xml";
+    public static final String TUTORIAL_SITEMAP_PREFIX = "sitemap-tutorials-";
+    public static final String RSS = "rss.xml";
+    public static final String ATOM = "atom.xml";
+    public static final int MAX_URLS_PER_SITEMAP = 50_000;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+    private static final String SITEMAP_NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    private final TutorialRepository tutorialRepository;
+    private final CourseRepository courseRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${tutorial.seo.site-url:http://localhost:8080}")
+    private String siteUrl;
+
+    @Value("${tutorial.seo.sitemap-shard-size:50000}")
+    private int shardSize;
+
+    @Value("${tutorial.seo.feed-size:50}")
+    private int feedSize;
+
+    @Value("${tutorial.seo.feed-title:Tutorials}")
+    private String feedTitle;
+
+    // Distinguishes ETags across restarts, since the generation counter starts again at zero
+    private final String bootId = Long.toHexString(System.currentTimeMillis());
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, CachedDocument> cache = new ConcurrentHashMap<>();
+    private volatile Layout layout;
+
+    private record CachedDocument(long generation, byte[] body) {
+    }
+
+    private record Layout(long generation, long tutorialCount, long pageCount, int shardSize) {
+        boolean sharded() {
+            return tutorialCount + pageCount > shardSize;
+        }
+
+        int shardCount() {
+            return (int) Math.max(1, (tutorialCount + shardSize - 1) / shardSize);
+        }
+    }
+
+    /**
+     * Drops cached documents once the surrounding transaction commits.
+     */
+    public void invalidate() {
+        TransactionUtils.afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.clear();
+        });
+    }
+
+    /**
+     * Every document currently served, sitemap index first; used by the static exporter.
+     */
+    public List<String> getDocumentNames() {
+        List<String> names = new ArrayList<>();
+        names.add(SITEMAP);
+        Layout current = layout();
+        if (current.sharded()) {
+            names.add(PAGES_SITEMAP);
+            for (int shard = 1; shard <= current.shardCount(); shard++) {
+                names.add(tutorialShardName(shard));
+            }
+        }
+        names.add(RSS);
+        names.add(ATOM);
+        return names;
+    }
+
+    public boolean exists(String name) {
+        return getDocumentNames().contains(name);
+    }
+
+    public ResourceVersion getVersion(String name) {
+        return new ResourceVersion(ConditionalRequests.etag("seo", name, bootId, generation.get()), null);
+    }
+
+    public static String tutorialShardName(int shard) {
+        return TUTORIAL_SITEMAP_PREFIX + shard + ".xml";
+    }
+
+    /**
+     * Writes the document to the stream, from the cache when it is still current.
+     */
+    public void write(String name, OutputStream out) throws IOException {
+        long currentGeneration = generation.get();
+        CachedDocument cached = cache.get(name);
+        if (cached != null && cached.generation() == currentGeneration) {
+            out.write(cached.body());
+            return;
+        }
+
+        ByteArrayOutputStream copy = new ByteArrayOutputStream(16 * 1024);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new TeeOutputStream(out, copy), StandardCharsets.UTF_8));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try {
+                    generate(name, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        // Stored under the generation read before generating, so a concurrent edit still forces a rebuild
+        cache.put(name, new CachedDocument(currentGeneration, copy.toByteArray()));
+        log.debug("Generated {} ({} bytes)", name, copy.size());
+    }
+
+    private void generate(String name, Writer out) throws IOException {
+        Layout current = layout();
+        if (SITEMAP.equals(name)) {
+            if (current.sharded()) {
+                writeSitemapIndex(out, current);
+            } else {
+                out.write(XML_HEADER);
+                out.write("<urlset xmlns=\"" + SITEMAP_NS + "\">\n");
+                writePageUrls(out);
+                writeTutorialUrls(out, 0, current.shardSize());
+                out.write("</urlset>\n");
+            }
+        } else if (PAGES_SITEMAP.equals(name)) {
+            out.write(XML_HEADER);
+            out.write("<urlset xmlns=\"" + SITEMAP_NS + "\">\n");
+            writePageUrls(out);
+            out.write("</urlset>\n");
+        } else if (name.startsWith(TUTORIAL_SITEMAP_PREFIX)) {
+            int shard = Integer.parseInt(name.substring(TUTORIAL_SITEMAP_PREFIX.length(), name.length() - 4));
+            out.write(XML_HEADER);
+            out.write("<urlset xmlns=\"" + SITEMAP_NS + "\">\n");
+            writeTutorialUrls(out, shard - 1, current.shardSize());
+            out.write("</urlset>\n");
+        } else if (RSS.equals(name)) {
+            writeRss(out);
+        } else if (ATOM.equals(name)) {
+            writeAtom(out);
+        } else {
+            throw new RuntimeException("Document not found");
+        }
+    }
+
+    private Layout layout() {
+        long currentGeneration = generation.get();
+        Layout current = layout;
+        if (current == null || current.generation() != currentGeneration) {
+            long pageCount = 2 + categoryTreeService.getTree().getActive().size() + courseRepository.countByIsPublishedTrue();
+            int size = Math.max(1, Math.min(shardSize, MAX_URLS_PER_SITEMAP));
+            current = new Layout(currentGeneration, tutorialRepository.countByIsPublishedTrue(), pageCount, size);
+            layout = current;
+        }
+        return current;
+    }
+
+    private void writeSitemapIndex(Writer out, Layout current) throws IOException {
+        out.write(XML_HEADER);
+        out.write("<sitemapindex xmlns=\"" + SITEMAP_NS + "\">\n");
+        writeIndexEntry(out, PAGES_SITEMAP);
+        for (int shard = 1; shard <= current.shardCount(); shard++) {
+            writeIndexEntry(out, tutorialShardName(shard));
+        }
+        out.write("</sitemapindex>\n");
+    }
+
+    private void writeIndexEntry(Writer out, String name) throws IOException {
+        out.write("  <sitemap><loc>");
+        out.write(xml(site() + "/" + name));
+        out.write("</loc></sitemap>\n");
+    }
+
+    private void writePageUrls(Writer out) throws IOException {
+        // Read the category tree before opening the course stream: a streaming result set holds the connection
+        List<TutorialCategoryDTO> categories = categoryTreeService.getTree().getActive();
+        writeUrl(out, "/tutorials", null);
+        writeUrl(out, "/tutorials/courses", null);
+        for (TutorialCategoryDTO category : categories) {
+            writeUrl(out, "/tutorials/category/" + category.getSlug(), null);
+        }
+        try (Stream<Object[]> rows = courseRepository.streamPublishedSitemapRows()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                writeUrl(out, "/tutorials/courses/view/" + row[0], (LocalDateTime) row[1]);
+            }
+        }
+    }
+
+    private void writeTutorialUrls(Writer out, int shardIndex, int size) throws IOException {
+        try (Stream<Object[]> rows = tutorialRepository.streamPublishedSitemapRows(PageRequest.of(shardIndex, size))) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                writeUrl(out, "/tutorials/view/" + row[0], (LocalDateTime) row[1]);
+            }
+        }
+    }
+
+    private void writeUrl(Writer out, String path, LocalDateTime lastModified) throws IOException {
+        out.write("  <url><loc>");
+        out.write(xml(site() + path));
+        out.write("</loc>");
+        if (lastModified != null) {
+            out.write("<lastmod>");
+            out.write(w3cDate(lastModified));
+            out.write("</lastmod>");
+        }
+        out.write("</url>\n");
+    }
+
+    private void writeRss(Writer out) throws IOException {
+        List<TutorialSummaryDTO> recent = recentTutorials();
+        out.write(XML_HEADER);
+        out.write("<rss version=\"2.0\" xmlns:atom=\"http://www.w3.org/2005/Atom\">\n<channel>\n");
+        element(out, "title", feedTitle);
+        element(out, "link", site() + "/tutorials");
+        element(out, "description", "Recently published tutorials");
+        out.write("<atom:link href=\"" + xml(site() + "/" + RSS) + "\" rel=\"self\" type=\"application/rss+xml\"/>\n");
+        if (!recent.isEmpty()) {
+            element(out, "lastBuildDate", rfc1123Date(published(recent.get(0))));
+        }
+        for (TutorialSummaryDTO tutorial : recent) {
+            String link = site() + "/tutorials/view/" + tutorial.getSlug();
+            out.write("<item>\n");
+            element(out, "title", tutorial.getTitle());
+            element(out, "link", link);
+            out.write("<guid isPermaLink=\"true\">" + xml(link) + "</guid>\n");
+            element(out, "description", tutorial.getMetaDescription());
+            element(out, "category", tutorial.getCategoryName());
+            element(out, "pubDate", rfc1123Date(published(tutorial)));
+            out.write("</item>\n");
+        }
+        out.write("</channel>\n</rss>\n");
+    }
+
+    private void writeAtom(Writer out) throws IOException {
+        List<TutorialSummaryDTO> recent = recentTutorials();
+        out.write(XML_HEADER);
+        out.write("<feed xmlns=\"http://www.w3.org/2005/Atom\">\n");
+        element(out, "title", feedTitle);
+        element(out, "id", site() + "/" + ATOM);
+        out.write("<link rel=\"self\" href=\"" + xml(site() + "/" + ATOM) + "\"/>\n");
+        out.write("<link href=\"" + xml(site() + "/tutorials") + "\"/>\n");
+        element(out, "updated", w3cDate(recent.isEmpty() ? LocalDateTime.now() : updated(recent.get(0))));
+        for (TutorialSummaryDTO tutorial : recent) {
+            String link = site() + "/tutorials/view/" + tutorial.getSlug();
+            out.write("<entry>\n");
+            element(out, "title", tutorial.getTitle());
+            element(out, "id", link);
+            out.write("<link href=\"" + xml(link) + "\"/>\n");
+            element(out, "published", w3cDate(published(tutorial)));
+            element(out, "updated", w3cDate(updated(tutorial)));
+            if (tutorial.getAuthorName() != null) {
+                out.write("<author><name>" + xml(tutorial.getAuthorName()) + "</name></author>\n");
+            }
+            if (tutorial.getCategoryName() != null) {
+                out.write("<category term=\"" + xml(tutorial.getCategoryName()) + "\"/>\n");
+            }
+            element(out, "summary", tutorial.getMetaDescription());
+            out.write("</entry>\n");
+        }
+        out.write("</feed>\n");
+    }
+
+    private List<TutorialSummaryDTO> recentTutorials() {
+        return tutorialRepository.findRecentSummaries(PageRequest.of(0, feedSize)).getContent();
+    }
+
+    private static LocalDateTime published(TutorialSummaryDTO tutorial) {
+        return tutorial.getPublishedAt() != null ? tutorial.getPublishedAt() : updated(tutorial);
+    }
+
+    private static LocalDateTime updated(TutorialSummaryDTO tutorial) {
+        if (tutorial.getUpdatedAt() != null) {
+            return tutorial.getUpdatedAt();
+        }
+        return tutorial.getPublishedAt() != null ? tutorial.getPublishedAt() : LocalDateTime.now();
+    }
+
+    private static void element(Writer out, String name, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        out.write("<" + name + ">");
+        out.write(xml(value));
+        out.write("</" + name + ">\n");
+    }
+
+    private String site() {
+        return StringUtils.trimTrailingCharacter(siteUrl, '/');
+    }
+
+    private static String xml(String value) {
+        return HtmlUtils.htmlEscape(value, StandardCharsets.UTF_8.name());
+    }
+
+    private static String w3cDate(LocalDateTime time) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(
+                time.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault()));
+    }
+
+    private static String rfc1123Date(LocalDateTime time) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(time.atZone(ZoneId.systemDefault()));
+    }
+
+    // Sends generated bytes to the client while keeping a copy for the cache
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream primary;
+        private final OutputStream copy;
+
+        TeeOutputStream(OutputStream primary, OutputStream copy) {
+            this.primary = primary;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+        }
+    }
+}
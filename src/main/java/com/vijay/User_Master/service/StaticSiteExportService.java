@@ -0,0 +1,270 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.config.SchedulingConfig;
+import com.vijay.User_Master.dto.tutorial.TutorialCategoryDTO;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.repository.CourseRepository;
+import com.vijay.User_Master.repository.TutorialRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the public tutorial site as static HTML so anonymous traffic can be served
+ * straight from disk (nginx try_files, or Tomcat's default servlet with sendfile).
+ * <p>
+ * Pages are fetched from this instance as an anonymous visitor, so the output is exactly
+ * what the live site renders. Layout mirrors the URLs:
+ * tutorials/view/{slug}/index.html, tutorials/category/{slug}/index.html,
+ * tutorials/courses/view/{slug}/index.html and tutorials/index.html, plus the sitemap and
+ * feed documents from SeoFeedService at the root.
+ * Publish/unpublish events queue the affected pages; a background job re-exports them.
+ * Only the first page of paginated category listings is exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StaticSiteExportService {
+
+    public static final String EXPORT_HEADER = "X-Static-Export";
+
+    private final TutorialRepository tutorialRepository;
+    private final CourseRepository courseRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final SeoFeedService seoFeedService;
+    private final RestTemplateBuilder restTemplateBuilder;
+
+    @Value("${tutorial.export.dir:}")
+    private String exportDir;
+
+    @Value("${tutorial.export.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Value("${tutorial.export.connect-timeout-ms:2000}")
+    private long connectTimeoutMillis;
+
+    @Value("${tutorial.export.read-timeout-ms:15000}")
+    private long readTimeoutMillis;
+
+    // Bounded, so a hung page fetch cannot hold the export (and its scheduler thread) indefinitely
+    private RestTemplate restTemplate;
+    // Lets the view layer recognise export fetches (e.g. to skip view counting)
+    private final String exportToken = UUID.randomUUID().toString();
+
+    private final Set<String> pendingTutorials = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingCourses = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingCategories = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean listingsDirty = new AtomicBoolean();
+
+    @PostConstruct
+    void initClient() {
+        restTemplate = restTemplateBuilder
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .readTimeout(Duration.ofMillis(readTimeoutMillis))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return StringUtils.hasText(exportDir);
+    }
+
+    public boolean isExportRequest(HttpServletRequest request) {
+        return exportToken.equals(request.getHeader(EXPORT_HEADER));
+    }
+
+    /**
+     * Queues a tutorial page (and the listings that show it) for re-export after commit.
+     */
+    public void markTutorialChanged(String slug) {
+        if (isEnabled() && slug != null) {
+            TransactionUtils.afterCommit(() -> {
+                pendingTutorials.add(slug);
+                listingsDirty.set(true);
+            });
+        }
+    }
+
+    public void markCourseChanged(String slug) {
+        if (isEnabled() && slug != null) {
+            TransactionUtils.afterCommit(() -> pendingCourses.add(slug));
+        }
+    }
+
+    /**
+     * Queues the listings for re-export after commit; the category's own page is removed if the
+     * category is gone or inactive by then.
+     */
+    public void markCategoryChanged(String slug) {
+        if (isEnabled() && slug != null) {
+            TransactionUtils.afterCommit(() -> {
+                pendingCategories.add(slug);
+                listingsDirty.set(true);
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tutorial.export.pending-ms:10000}",
+            scheduler = SchedulingConfig.LONG_JOB_SCHEDULER)
+    public synchronized void processPending() {
+        if (!isEnabled() || (pendingTutorials.isEmpty() && pendingCourses.isEmpty() && !listingsDirty.get())) {
+            return;
+        }
+        List<String> tutorials = drain(pendingTutorials);
+        List<String> courses = drain(pendingCourses);
+        List<String> categories = drain(pendingCategories);
+
+        for (String slug : tutorials) {
+            if (tutorialRepository.existsBySlugAndIsPublishedTrue(slug)) {
+                exportPage("/tutorials/view/" + slug);
+            } else {
+                deletePage("/tutorials/view/" + slug);
+            }
+        }
+        for (String slug : courses) {
+            if (courseRepository.existsBySlugAndIsPublishedTrue(slug)) {
+                exportPage("/tutorials/courses/view/" + slug);
+            } else {
+                deletePage("/tutorials/courses/view/" + slug);
+            }
+        }
+        for (String slug : categories) {
+            // Active categories are rewritten with the listings below
+            boolean active = categoryTreeService.getTree().findBySlug(slug)
+                    .map(TutorialCategoryDTO::isActive)
+                    .orElse(false);
+            if (!active) {
+                deletePage("/tutorials/category/" + slug);
+            }
+        }
+        if (listingsDirty.getAndSet(false) || !courses.isEmpty()) {
+            exportListings();
+        }
+        writeSitemap();
+        log.info("Static export refreshed: {} tutorials, {} courses", tutorials.size(), courses.size());
+    }
+
+    /**
+     * Full export of every published page; returns the number of pages written.
+     */
+    public synchronized int exportAll() {
+        if (!isEnabled()) {
+            throw new BadApiRequestException("Static export is disabled (tutorial.export.dir is not set)");
+        }
+        int written = 0;
+        for (String slug : tutorialRepository.findPublishedSlugs()) {
+            written += exportPage("/tutorials/view/" + slug) ? 1 : 0;
+        }
+        for (String slug : courseRepository.findPublishedSlugs()) {
+            written += exportPage("/tutorials/courses/view/" + slug) ? 1 : 0;
+        }
+        written += exportListings();
+        writeSitemap();
+        log.info("Full static export wrote {} pages to {}", written, exportDir);
+        return written;
+    }
+
+    private int exportListings() {
+        int written = exportPage("/tutorials") ? 1 : 0;
+        written += exportPage("/tutorials/courses") ? 1 : 0;
+        for (TutorialCategoryDTO category : categoryTreeService.getTree().getActive()) {
+            written += exportPage("/tutorials/category/" + category.getSlug()) ? 1 : 0;
+        }
+        return written;
+    }
+
+    private boolean exportPage(String path) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(EXPORT_HEADER, exportToken);
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                log.warn("Skipping static export of {}: status {}", path, response.getStatusCode());
+                return false;
+            }
+            writeAtomically(pageFile(path), response.getBody());
+            return true;
+        } catch (RestClientException | IOException e) {
+            log.warn("Static export of {} failed: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private void deletePage(String path) {
+        try {
+            Files.deleteIfExists(pageFile(path));
+        } catch (IOException e) {
+            log.warn("Could not remove exported page {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Sitemap and feed documents are rendered by SeoFeedService and copied next to the pages
+    private void writeSitemap() {
+        for (String name : seoFeedService.getDocumentNames()) {
+            try {
+                writeAtomically(Paths.get(exportDir, name), out -> seoFeedService.write(name, out));
+            } catch (IOException e) {
+                log.warn("Could not write static {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private Path pageFile(String path) {
+        Path root = Paths.get(exportDir).toAbsolutePath().normalize();
+        Path file = root.resolve(path.substring(1)).resolve("index.html").normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Export path escapes the export directory: " + path);
+        }
+        return file;
+    }
+
+    // Write to a temp file and rename, so the fronting server never sees a half-written page
+    private static void writeAtomically(Path target, String content) throws IOException {
+        writeAtomically(target, out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void writeAtomically(Path target, StreamingResponseBody body) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".export", ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            body.writeTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<String> drain(Set<String> pending) {
+        List<String> items = new ArrayList<>(pending);
+        pending.removeAll(items);
+        return items;
+    }
+}
@@ -0,0 +1,175 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.Helper.BloomFilter;
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.entity.TokenRevocation;
+import com.vijay.User_Master.repository.TokenRevocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation check for access tokens whose principal is rebuilt from claims alone.
+ * <p>
+ * Revoking a user, worker or role records a cut-off time; tokens for that subject issued at or before
+ * it are rejected. A single token (logout) is revoked by its id, as the subject "TOKEN:{jti}". Cut-offs
+ * are kept in memory behind a Bloom filter of their subjects, so a request whose subjects were never
+ * revoked costs a few bit probes and no map lookup. They are persisted and polled so other instances
+ * pick them up, and forgotten once every token they could match has expired; the filter is rebuilt
+ * from the remaining cut-offs at each sweep, or early once it fills up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    // Re-read recent rows on each poll so rows committed late on another instance are not missed
+    private static final long POLL_OVERLAP_MS = 60_000;
+    private static final int MIN_FILTER_CAPACITY = 1024;
+
+    private final TokenRevocationRepository revocationRepository;
+
+    @Value("${app-jwt-expiration-milliseconds}")
+    private long tokenLifetimeMillis;
+
+    @Value("${app.jwt-revocation-filter-fpp:0.001}")
+    private double filterFalsePositiveRate;
+
+    private final Map<String, Long> notBefore = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(MIN_FILTER_CAPACITY, 0.001);
+    private volatile long lastPollMillis;
+
+    public static String userSubject(Long userId) {
+        return "USER:" + userId;
+    }
+
+    public static String workerSubject(Long workerId) {
+        return "WORKER:" + workerId;
+    }
+
+    public static String roleSubject(String roleName) {
+        return "ROLE:" + roleName;
+    }
+
+    public static String tokenSubject(String tokenId) {
+        return "TOKEN:" + tokenId;
+    }
+
+    /**
+     * Rejects every access token of the subject issued up to now. Applies on this instance once the
+     * surrounding transaction commits, and on other instances at their next poll.
+     */
+    @Transactional
+    public void revoke(String subject) {
+        long now = System.currentTimeMillis();
+        revocationRepository.save(TokenRevocation.builder()
+                .subject(subject)
+                .notBefore(now)
+                .expiresAt(now + tokenLifetimeMillis)
+                .build());
+        TransactionUtils.afterCommit(() -> record(subject, now));
+        log.info("Revoked access tokens for {}", subject);
+    }
+
+    /**
+     * Rejects the one access token with this id; the row only needs to live until the token expires.
+     */
+    @Transactional
+    public void revokeToken(String tokenId, long tokenExpiresAtMillis) {
+        long now = System.currentTimeMillis();
+        String subject = tokenSubject(tokenId);
+        revocationRepository.save(TokenRevocation.builder()
+                .subject(subject)
+                .notBefore(now)
+                .expiresAt(tokenExpiresAtMillis)
+                .build());
+        TransactionUtils.afterCommit(() -> record(subject, now));
+    }
+
+    /**
+     * Whether the token was revoked by its id or, for tokens carrying a principal, through its
+     * user, worker or any of its roles. Either argument may be null.
+     */
+    public boolean isRevoked(String tokenId, CustomUserDetails principal, long issued) {
+        if (notBefore.isEmpty()) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (tokenId != null && revokedAt(current, tokenSubject(tokenId), issued)) {
+            return true;
+        }
+        if (principal == null) {
+            return false;
+        }
+        String subject = principal.isWorker() ? workerSubject(principal.getId()) : userSubject(principal.getId());
+        if (revokedAt(current, subject, issued)) {
+            return true;
+        }
+        for (Role role : principal.getRoles()) {
+            if (revokedAt(current, roleSubject(role.getName()), issued)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt-revocation-poll-ms:5000}")
+    public void poll() {
+        long now = System.currentTimeMillis();
+        long since = lastPollMillis == 0 ? now - tokenLifetimeMillis : lastPollMillis - POLL_OVERLAP_MS;
+        for (TokenRevocation revocation : revocationRepository.findByNotBeforeGreaterThan(since)) {
+            record(revocation.getSubject(), revocation.getNotBefore());
+        }
+        lastPollMillis = now;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt-revocation-sweep-ms:3600000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            notBefore.values().removeIf(cutoff -> cutoff < now - tokenLifetimeMillis);
+            rebuildFilter();
+        }
+        int deleted = revocationRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Dropped {} expired token revocations", deleted);
+        }
+    }
+
+    // Shares the lock with the sweep so an add is never lost to a filter being rebuilt
+    private synchronized void record(String subject, long cutoff) {
+        boolean added = !notBefore.containsKey(subject);
+        notBefore.merge(subject, cutoff, Math::max);
+        // Polls re-read recent rows; only a new subject needs a filter slot
+        if (added) {
+            filter.add(subject);
+            if (filter.isSaturated()) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    // Sized at twice the live cut-offs so the filter absorbs new revocations until the next sweep
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_FILTER_CAPACITY, notBefore.size() * 2),
+                filterFalsePositiveRate);
+        notBefore.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    private boolean revokedAt(BloomFilter current, String subject, long issuedAt) {
+        if (!current.mightContain(subject)) {
+            return false;
+        }
+        Long cutoff = notBefore.get(subject);
+        return cutoff != null && issuedAt <= cutoff;
+    }
+}
@@ -0,0 +1,263 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.config.SchedulingConfig;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.entity.RatingTarget;
+import com.vijay.User_Master.repository.RatingAggregateRepository;
+import com.vijay.User_Master.repository.TutorialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory "top rated" rankings of tutorials and video lessons, overall, per category and per difficulty.
+ * <p>
+ * Items are ordered by Bayesian average: (priorVotes * priorMean + ratingSum) / (priorVotes + ratingCount),
+ * where priorMean is the global mean rating. A tutorial with a single 5-star vote therefore sits near the
+ * global mean until more votes arrive. Rating events re-rank just the affected item (O(log n) per sorted
+ * set); the prior mean is re-based by the periodic full rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TopRatedService {
+
+    private static final Comparator<Ranked> RANK_ORDER = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparing(Comparator.comparingLong(Ranked::count).reversed())
+            .thenComparingLong(Ranked::id);
+
+    private final RatingAggregateRepository aggregateRepository;
+    private final TutorialRepository tutorialRepository;
+
+    @Value("${tutorial.top-rated.prior-votes:5}")
+    private double priorVotes;
+
+    private volatile RankedIndex tutorials = new RankedIndex(0);
+    private volatile RankedIndex lessons = new RankedIndex(0);
+    private volatile boolean built;
+
+    private final Set<Long> pendingTutorials = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingLessons = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    private record Ranked(long id, double score, long sum, long count, Long categoryId, String difficulty) {
+    }
+
+    /**
+     * Re-ranks an item once the surrounding transaction commits (rating change, publish state, category).
+     */
+    public void markChanged(RatingTarget target, Long id) {
+        if (id == null) {
+            return;
+        }
+        Set<Long> pending = target == RatingTarget.TUTORIAL ? pendingTutorials : pendingLessons;
+        TransactionUtils.afterCommit(() -> pending.add(id));
+    }
+
+    /**
+     * For changes that move many items at once, e.g. a course being published or unpublished.
+     */
+    public void requestRebuild() {
+        TransactionUtils.afterCommit(() -> rebuildRequested.set(true));
+    }
+
+    public Page<TutorialSummaryDTO> getTopRatedTutorials(int page, int size, Long categoryId, String difficulty) {
+        Page<Long> ids = tutorials.page(page, size, categoryId, difficulty);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        Map<Long, TutorialSummaryDTO> byId = tutorialRepository.findPublishedSummariesByIds(ids.getContent()).stream()
+                .collect(Collectors.toMap(TutorialSummaryDTO::getId, Function.identity()));
+        List<TutorialSummaryDTO> content = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Ranked lesson ids; CourseService maps them to lesson DTOs.
+     */
+    public Page<Long> getTopRatedLessonIds(int page, int size, Long categoryId, String difficulty) {
+        return lessons.page(page, size, categoryId, difficulty);
+    }
+
+    @Scheduled(fixedDelayString = "${tutorial.top-rated.pending-ms:2000}")
+    public synchronized void processPending() {
+        // The first run builds the rankings; pending ids re-applied afterwards are idempotent
+        if (!built || rebuildRequested.getAndSet(false)) {
+            rebuild();
+            return;
+        }
+        List<Long> tutorialIds = drain(pendingTutorials);
+        if (!tutorialIds.isEmpty()) {
+            apply(tutorials, tutorialIds, aggregateRepository.findTutorialRankingRowsByIds(tutorialIds));
+        }
+        List<Long> lessonIds = drain(pendingLessons);
+        if (!lessonIds.isEmpty()) {
+            apply(lessons, lessonIds, aggregateRepository.findLessonRankingRowsByIds(lessonIds));
+        }
+    }
+
+    /**
+     * Rebuilds both rankings from the aggregates and re-bases the prior on the current global mean.
+     */
+    @Scheduled(fixedDelayString = "${tutorial.top-rated.rebuild-ms:3600000}", initialDelay = 3600000,
+            scheduler = SchedulingConfig.LONG_JOB_SCHEDULER)
+    public synchronized void rebuild() {
+        tutorials = build(aggregateRepository.findTutorialRankingRows());
+        lessons = build(aggregateRepository.findLessonRankingRows());
+        built = true;
+        log.info("Top-rated rankings rebuilt: {} tutorials (prior mean {}), {} lessons (prior mean {})",
+                tutorials.size(), String.format("%.2f", tutorials.priorMean),
+                lessons.size(), String.format("%.2f", lessons.priorMean));
+    }
+
+    private RankedIndex build(List<Object[]> rows) {
+        long totalSum = 0;
+        long totalCount = 0;
+        for (Object[] row : rows) {
+            totalSum += (Long) row[1];
+            totalCount += (Long) row[2];
+        }
+        RankedIndex index = new RankedIndex(totalCount > 0 ? (double) totalSum / totalCount : 0.0);
+        for (Object[] row : rows) {
+            index.put(toRanked(row, index.priorMean));
+        }
+        return index;
+    }
+
+    // Items missing from the rows (unpublished, deleted, no approved votes left) drop out of the ranking
+    private void apply(RankedIndex index, Collection<Long> ids, List<Object[]> rows) {
+        Set<Long> present = new HashSet<>();
+        for (Object[] row : rows) {
+            Ranked ranked = toRanked(row, index.priorMean);
+            index.put(ranked);
+            present.add(ranked.id());
+        }
+        for (Long id : ids) {
+            if (!present.contains(id)) {
+                index.remove(id);
+            }
+        }
+    }
+
+    private Ranked toRanked(Object[] row, double priorMean) {
+        long sum = (Long) row[1];
+        long count = (Long) row[2];
+        double score = (priorVotes * priorMean + sum) / (priorVotes + count);
+        String difficulty = row[4] != null ? ((String) row[4]).toUpperCase(Locale.ROOT) : null;
+        return new Ranked((Long) row[0], score, sum, count, (Long) row[3], difficulty);
+    }
+
+    private static List<Long> drain(Set<Long> pending) {
+        List<Long> items = new ArrayList<>(pending);
+        pending.removeAll(items);
+        return items;
+    }
+
+    /**
+     * One ranking: the overall order plus one sorted set per category and per difficulty.
+     * Writers are serialised by the service; readers walk the concurrent sets without locking.
+     */
+    private static final class RankedIndex {
+        private final double priorMean;
+        private final Map<Long, Ranked> entries = new ConcurrentHashMap<>();
+        private final RankedSet overall = new RankedSet();
+        private final Map<Long, RankedSet> byCategory = new ConcurrentHashMap<>();
+        private final Map<String, RankedSet> byDifficulty = new ConcurrentHashMap<>();
+
+        RankedIndex(double priorMean) {
+            this.priorMean = priorMean;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        void put(Ranked ranked) {
+            remove(ranked.id());
+            entries.put(ranked.id(), ranked);
+            overall.add(ranked);
+            if (ranked.categoryId() != null) {
+                byCategory.computeIfAbsent(ranked.categoryId(), id -> new RankedSet()).add(ranked);
+            }
+            if (ranked.difficulty() != null) {
+                byDifficulty.computeIfAbsent(ranked.difficulty(), d -> new RankedSet()).add(ranked);
+            }
+        }
+
+        void remove(Long id) {
+            Ranked old = entries.remove(id);
+            if (old == null) {
+                return;
+            }
+            overall.remove(old);
+            if (old.categoryId() != null) {
+                byCategory.getOrDefault(old.categoryId(), RankedSet.EMPTY).remove(old);
+            }
+            if (old.difficulty() != null) {
+                byDifficulty.getOrDefault(old.difficulty(), RankedSet.EMPTY).remove(old);
+            }
+        }
+
+        Page<Long> page(int page, int size, Long categoryId, String difficulty) {
+            RankedSet set;
+            if (categoryId != null) {
+                set = byCategory.getOrDefault(categoryId, RankedSet.EMPTY);
+            } else if (difficulty != null) {
+                set = byDifficulty.getOrDefault(difficulty.toUpperCase(Locale.ROOT), RankedSet.EMPTY);
+            } else {
+                set = overall;
+            }
+            // Both filters: walk the category set and keep the requested difficulty
+            String wanted = categoryId != null && difficulty != null ? difficulty.toUpperCase(Locale.ROOT) : null;
+            List<Ranked> matching = wanted == null ? null : set.items.stream()
+                    .filter(r -> wanted.equals(r.difficulty()))
+                    .toList();
+
+            long total = matching != null ? matching.size() : set.size.get();
+            List<Long> content = (matching != null ? matching.stream() : set.items.stream())
+                    .skip((long) page * size)
+                    .limit(size)
+                    .map(Ranked::id)
+                    .toList();
+            return new PageImpl<>(content, PageRequest.of(page, size), total);
+        }
+    }
+
+    // Sorted set with an O(1) size; ConcurrentSkipListSet.size() walks the whole set
+    private static final class RankedSet {
+        private static final RankedSet EMPTY = new RankedSet();
+
+        private final NavigableSet<Ranked> items = new ConcurrentSkipListSet<>(RANK_ORDER);
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Ranked ranked) {
+            if (items.add(ranked)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(Ranked ranked) {
+            if (items.remove(ranked)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
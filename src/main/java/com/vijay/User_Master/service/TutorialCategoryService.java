@@ -1,5 +1,7 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.Helper.ConditionalRequests;
+import com.vijay.User_Master.dto.ResourceVersion;
 import com.vijay.User_Master.dto.tutorial.TutorialCategoryDTO;
 import com.vijay.User_Master.entity.TutorialCategory;
 import com.vijay.User_Master.repository.TutorialCategoryRepository;
@@ -10,7 +12,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,40 +20,48 @@ public class TutorialCategoryService {
 
     private final TutorialCategoryRepository categoryRepository;
     private final ModelMapper modelMapper;
+    private final CategoryTreeService categoryTreeService;
+    private final SeoFeedService seoFeedService;
+    private final StaticSiteExportService staticSiteExportService;
 
-    @Transactional(readOnly = true)
+    // Reads are served from the in-memory category tree
     public List<TutorialCategoryDTO> getAllCategories() {
-        return categoryRepository.findAllOrderByDisplayOrder().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return categoryTreeService.getTree().getAll();
     }
 
-    @Transactional(readOnly = true)
     public List<TutorialCategoryDTO> getActiveCategories() {
-        return categoryRepository.findByIsActiveTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return categoryTreeService.getTree().getActive();
     }
 
-    @Transactional(readOnly = true)
     public List<TutorialCategoryDTO> getRootCategories() {
-        return categoryRepository.findByParentIsNullAndIsActiveTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return categoryTreeService.getTree().getRoots();
     }
 
-    @Transactional(readOnly = true)
     public TutorialCategoryDTO getCategoryById(Long id) {
-        TutorialCategory category = categoryRepository.findById(id)
+        return categoryTreeService.getTree().findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
-        return convertToDTO(category);
     }
 
-    @Transactional(readOnly = true)
     public TutorialCategoryDTO getCategoryBySlug(String slug) {
-        TutorialCategory category = categoryRepository.findBySlug(slug)
+        return categoryTreeService.getTree().findBySlug(slug)
                 .orElseThrow(() -> new RuntimeException("Category not found with slug: " + slug));
-        return convertToDTO(category);
+    }
+
+    /**
+     * ETag for one of the list views ("all", "active", "root"); served from the tree, no DB access.
+     */
+    public ResourceVersion getCategoriesVersion(String view) {
+        return new ResourceVersion(ConditionalRequests.etag("categories", view, categoryTreeService.getTree().getVersion()), null);
+    }
+
+    public ResourceVersion getCategoryVersion(Long id) {
+        getCategoryById(id);
+        return new ResourceVersion(ConditionalRequests.etag("category", id, categoryTreeService.getTree().getVersion()), null);
+    }
+
+    public ResourceVersion getCategoryVersionBySlug(String slug) {
+        getCategoryBySlug(slug);
+        return new ResourceVersion(ConditionalRequests.etag("category", slug, categoryTreeService.getTree().getVersion()), null);
     }
 
     @Transactional
@@ -70,6 +79,10 @@ public class TutorialCategoryService {
         }
 
         TutorialCategory saved = categoryRepository.save(category);
+        categoryTreeService.invalidate();
+        // The sitemap lists category pages
+        seoFeedService.invalidate();
+        staticSiteExportService.markCategoryChanged(saved.getSlug());
         log.info("Created category: {}", saved.getName());
         return convertToDTO(saved);
     }
@@ -92,6 +105,9 @@ public class TutorialCategoryService {
         }
 
         TutorialCategory updated = categoryRepository.save(category);
+        categoryTreeService.invalidate();
+        seoFeedService.invalidate();
+        staticSiteExportService.markCategoryChanged(updated.getSlug());
         log.info("Updated category: {}", updated.getName());
         return convertToDTO(updated);
     }
@@ -102,6 +118,9 @@ public class TutorialCategoryService {
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
         
         categoryRepository.delete(category);
+        categoryTreeService.invalidate();
+        seoFeedService.invalidate();
+        staticSiteExportService.markCategoryChanged(category.getSlug());
         log.info("Deleted category: {}", category.getName());
     }
 
@@ -120,7 +139,10 @@ public class TutorialCategoryService {
             dto.setParentName(category.getParent().getName());
         }
         
-        dto.setTutorialCount(category.getTutorials() != null ? category.getTutorials().size() : 0);
+        dto.setCreatedAt(category.getCreatedAt());
+        dto.setUpdatedAt(category.getUpdatedAt());
+        // Count comes from the grouped COUNT in the tree; never initialize the tutorials collection
+        dto.setTutorialCount(categoryTreeService.getTree().getPublishedCount(category.getId()));
         
         return dto;
     }
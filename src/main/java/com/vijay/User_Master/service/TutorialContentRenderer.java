@@ -0,0 +1,330 @@
+package com.vijay.User_Master.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.Helper.JavaSyntaxHighlighter;
+import com.vijay.User_Master.dto.tutorial.CodeSnippetDTO;
+import com.vijay.User_Master.dto.tutorial.RenderedTutorialContent;
+import com.vijay.User_Master.dto.tutorial.TutorialDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.ext.heading.anchor.HeadingAnchorExtension;
+import org.commonmark.node.FencedCodeBlock;
+import org.commonmark.node.IndentedCodeBlock;
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.NodeRenderer;
+import org.commonmark.renderer.html.HtmlNodeRendererContext;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns tutorial content into final HTML once per (id, updatedAt) version.
+ * <p>
+ * Content is either the editor's JSON block array or legacy markdown; both end up as
+ * HTML with highlighted Java code and anchored headings. Results live in an LRU cache
+ * bounded by total characters. When a spill directory is configured, evicted entries
+ * are written there and read back before re-rendering.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TutorialContentRenderer {
+
+    private static final List<Extension> EXTENSIONS = List.of(TablesExtension.create(), HeadingAnchorExtension.create());
+    private static final Parser PARSER = Parser.builder().extensions(EXTENSIONS).build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder()
+            .extensions(EXTENSIONS)
+            .nodeRendererFactory(CodeBlockRenderer::new)
+            .build();
+
+    private static final Pattern HTML_HEADING = Pattern.compile("<h([1-6])>(.*?)</h\\1>", Pattern.DOTALL);
+    private static final Pattern TAGS = Pattern.compile("<[^>]+>");
+    private static final Map<String, String[]> CALLOUTS = Map.of(
+            "note", new String[]{"info", "info-circle", "Note"},
+            "tip", new String[]{"success", "lightbulb", "Tip"},
+            "warning", new String[]{"danger", "exclamation-triangle", "Warning"});
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${tutorial.render.cache-max-chars:20000000}")
+    private long maxCachedChars;
+
+    @Value("${tutorial.render.spill-dir:}")
+    private String spillDir;
+
+    // Access-ordered LRU; guarded by itself
+    private final LinkedHashMap<String, RenderedTutorialContent> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Long, String> currentKeyById = new HashMap<>();
+    private long cachedChars;
+
+    public RenderedTutorialContent render(TutorialDTO tutorial) {
+        RenderedTutorialContent found = findRendered(tutorial.getId(), tutorial.getUpdatedAt());
+        if (found != null) {
+            return found;
+        }
+        RenderedTutorialContent rendered = doRender(tutorial);
+        log.debug("Rendered tutorial {} version {}", tutorial.getId(), tutorial.getUpdatedAt());
+        store(tutorial.getId(), cacheKey(tutorial.getId(), tutorial.getUpdatedAt()), rendered);
+        return rendered;
+    }
+
+    /**
+     * The cached or spilled render of a version, or null when the full tutorial is needed to render it.
+     */
+    public RenderedTutorialContent findRendered(Long tutorialId, LocalDateTime updatedAt) {
+        String key = cacheKey(tutorialId, updatedAt);
+        synchronized (cache) {
+            RenderedTutorialContent cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        RenderedTutorialContent spilled = readSpilled(key);
+        if (spilled != null) {
+            store(tutorialId, key, spilled);
+        }
+        return spilled;
+    }
+
+    /**
+     * Drops every version of a deleted tutorial, in memory and on disk.
+     */
+    public void evict(Long tutorialId) {
+        synchronized (cache) {
+            String key = currentKeyById.remove(tutorialId);
+            RenderedTutorialContent removed = key != null ? cache.remove(key) : null;
+            if (removed != null) {
+                cachedChars -= removed.sizeInChars();
+            }
+        }
+        if (StringUtils.hasText(spillDir)) {
+            deleteSpilled(Paths.get(spillDir), tutorialId);
+        }
+    }
+
+    private RenderedTutorialContent doRender(TutorialDTO tutorial) {
+        Map<Long, String> snippets = new HashMap<>();
+        if (tutorial.getCodeSnippets() != null) {
+            for (CodeSnippetDTO snippet : tutorial.getCodeSnippets()) {
+                snippets.put(snippet.getId(), codeBlock(snippet.getCode(), snippet.getLanguage(), snippet.getTitle()));
+            }
+        }
+        return RenderedTutorialContent.builder()
+                .tutorialId(tutorial.getId())
+                .updatedAt(tutorial.getUpdatedAt())
+                .contentHtml(renderContent(tutorial.getContent()))
+                .codeExampleHtml(StringUtils.hasText(tutorial.getCodeExample())
+                        ? codeBlock(tutorial.getCodeExample(), "java", null) : null)
+                .codeExample(tutorial.getCodeExample())
+                .snippetHtml(snippets)
+                .build();
+    }
+
+    private String renderContent(String content) {
+        if (!StringUtils.hasText(content)) {
+            return "";
+        }
+        String trimmed = content.trim();
+        if (trimmed.startsWith("[")) {
+            try {
+                JsonNode blocks = objectMapper.readTree(trimmed);
+                if (blocks.isArray()) {
+                    return renderBlocks(blocks);
+                }
+            } catch (IOException e) {
+                // Not JSON after all, fall through to markdown
+            }
+        }
+        return RENDERER.render(PARSER.parse(content));
+    }
+
+    private String renderBlocks(JsonNode blocks) {
+        StringBuilder html = new StringBuilder();
+        Map<String, Integer> anchors = new HashMap<>();
+        for (JsonNode block : blocks) {
+            String type = block.path("type").asText();
+            String content = block.path("content").asText("");
+            JsonNode meta = block.path("meta");
+
+            if ("text".equals(type)) {
+                html.append("<div class=\"content-block-text\">").append(anchorHeadings(content, anchors)).append("</div>");
+            } else if ("code".equals(type)) {
+                html.append(codeBlock(content, meta.path("language").asText("java"), meta.path("filename").asText(null)));
+            } else if ("image".equals(type)) {
+                String caption = meta.path("caption").asText("");
+                html.append("<figure class=\"content-image my-4\"><img src=\"")
+                        .append(JavaSyntaxHighlighter.escapeHtml(content))
+                        .append("\" alt=\"").append(JavaSyntaxHighlighter.escapeHtml(caption))
+                        .append("\" class=\"img-fluid rounded\">");
+                if (!caption.isEmpty()) {
+                    html.append("<figcaption class=\"text-muted small text-center mt-2\">")
+                            .append(JavaSyntaxHighlighter.escapeHtml(caption)).append("</figcaption>");
+                }
+                html.append("</figure>");
+            } else if (CALLOUTS.containsKey(type)) {
+                String[] callout = CALLOUTS.get(type);
+                html.append("<div class=\"alert alert-").append(callout[0]).append(" d-flex align-items-start my-4\">")
+                        .append("<i class=\"fas fa-").append(callout[1]).append(" me-3 mt-1\"></i><div>")
+                        .append("<strong class=\"d-block mb-1\">").append(callout[2]).append("</strong>")
+                        .append(content)
+                        .append("</div></div>");
+            }
+        }
+        return html.toString();
+    }
+
+    private static String codeBlock(String code, String language, String filename) {
+        String lang = StringUtils.hasText(language) ? language.trim().toLowerCase(Locale.ROOT) : "java";
+        StringBuilder html = new StringBuilder("<div class=\"code-block-container\">");
+        if (StringUtils.hasText(filename)) {
+            html.append("<div class=\"code-filename\"><i class=\"fas fa-file-code me-2\"></i>")
+                    .append(JavaSyntaxHighlighter.escapeHtml(filename)).append("</div>");
+        }
+        html.append("<pre><code class=\"language-").append(JavaSyntaxHighlighter.escapeHtml(lang)).append("\">")
+                .append("java".equals(lang) ? JavaSyntaxHighlighter.highlight(code) : JavaSyntaxHighlighter.escapeHtml(code))
+                .append("</code></pre></div>");
+        return html.toString();
+    }
+
+    // Adds id attributes to plain <hN> tags in editor HTML so headings can be linked
+    private static String anchorHeadings(String html, Map<String, Integer> anchors) {
+        Matcher matcher = HTML_HEADING.matcher(html);
+        StringBuilder out = new StringBuilder();
+        while (matcher.find()) {
+            String base = slugify(TAGS.matcher(matcher.group(2)).replaceAll(""));
+            int seen = anchors.merge(base, 1, Integer::sum);
+            String id = seen == 1 ? base : base + "-" + (seen - 1);
+            matcher.appendReplacement(out, Matcher.quoteReplacement(
+                    "<h" + matcher.group(1) + " id=\"" + id + "\">" + matcher.group(2) + "</h" + matcher.group(1) + ">"));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private static String slugify(String text) {
+        String slug = text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+        return slug.isEmpty() ? "section" : slug;
+    }
+
+    private static String cacheKey(Long tutorialId, LocalDateTime updatedAt) {
+        String version = updatedAt != null ? updatedAt.toString().replaceAll("[^0-9]", "") : "0";
+        return "tutorial-" + tutorialId + "-" + version;
+    }
+
+    private void store(Long tutorialId, String key, RenderedTutorialContent rendered) {
+        List<Map.Entry<String, RenderedTutorialContent>> evicted = new ArrayList<>();
+        synchronized (cache) {
+            // Older versions of the same tutorial are never asked for again
+            String previous = currentKeyById.put(tutorialId, key);
+            if (previous != null && !previous.equals(key)) {
+                RenderedTutorialContent stale = cache.remove(previous);
+                if (stale != null) {
+                    cachedChars -= stale.sizeInChars();
+                }
+            }
+            RenderedTutorialContent replaced = cache.put(key, rendered);
+            cachedChars += rendered.sizeInChars() - (replaced != null ? replaced.sizeInChars() : 0);
+
+            Iterator<Map.Entry<String, RenderedTutorialContent>> it = cache.entrySet().iterator();
+            while (cachedChars > maxCachedChars && cache.size() > 1 && it.hasNext()) {
+                Map.Entry<String, RenderedTutorialContent> eldest = it.next();
+                it.remove();
+                cachedChars -= eldest.getValue().sizeInChars();
+                currentKeyById.remove(eldest.getValue().getTutorialId(), eldest.getKey());
+                evicted.add(eldest);
+            }
+        }
+        evicted.forEach(entry -> spill(entry.getKey(), entry.getValue()));
+    }
+
+    private void spill(String key, RenderedTutorialContent rendered) {
+        if (!StringUtils.hasText(spillDir)) {
+            return;
+        }
+        try {
+            Path dir = Files.createDirectories(Paths.get(spillDir));
+            deleteSpilled(dir, rendered.getTutorialId());
+            objectMapper.writeValue(dir.resolve(key + ".json").toFile(), rendered);
+        } catch (IOException e) {
+            log.warn("Could not spill rendered tutorial {} to disk: {}", rendered.getTutorialId(), e.getMessage());
+        }
+    }
+
+    private void deleteSpilled(Path dir, Long tutorialId) {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> old = Files.newDirectoryStream(dir, "tutorial-" + tutorialId + "-*.json")) {
+            for (Path file : old) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove spilled renders of tutorial {}: {}", tutorialId, e.getMessage());
+        }
+    }
+
+    private RenderedTutorialContent readSpilled(String key) {
+        if (!StringUtils.hasText(spillDir)) {
+            return null;
+        }
+        Path file = Paths.get(spillDir, key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), RenderedTutorialContent.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable spilled render {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Renders fenced and indented code blocks through the Java highlighter.
+     */
+    private static class CodeBlockRenderer implements NodeRenderer {
+
+        private final HtmlNodeRendererContext context;
+
+        CodeBlockRenderer(HtmlNodeRendererContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public Set<Class<? extends Node>> getNodeTypes() {
+            return Set.of(FencedCodeBlock.class, IndentedCodeBlock.class);
+        }
+
+        @Override
+        public void render(Node node) {
+            String language = null;
+            String literal;
+            if (node instanceof FencedCodeBlock fenced) {
+                literal = fenced.getLiteral();
+                if (StringUtils.hasText(fenced.getInfo())) {
+                    language = fenced.getInfo().trim().split("\\s+")[0];
+                }
+            } else {
+                literal = ((IndentedCodeBlock) node).getLiteral();
+            }
+            context.getWriter().line();
+            context.getWriter().raw(codeBlock(literal, language, null));
+            context.getWriter().line();
+        }
+    }
+}
@@ -2,17 +2,17 @@ package com.vijay.User_Master.service;
 
 import com.vijay.User_Master.dto.tutorial.RatingSummaryDTO;
 import com.vijay.User_Master.dto.tutorial.TutorialRatingDTO;
+import com.vijay.User_Master.entity.RatingAggregate;
+import com.vijay.User_Master.entity.RatingTarget;
 import com.vijay.User_Master.entity.Tutorial;
 import com.vijay.User_Master.entity.TutorialRating;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.repository.TutorialRatingRepository;
 import com.vijay.User_Master.repository.TutorialRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,7 +29,9 @@ public class TutorialRatingService {
 
     private final TutorialRatingRepository ratingRepository;
     private final TutorialRepository tutorialRepository;
-    private final UserRepository userRepository;
+    private final TutorialTrendingService trendingService;
+    private final RatingAggregateService aggregateService;
+    private final CurrentUserContext currentUserContext;
 
     /**
      * Rate a tutorial (add or update rating)
@@ -46,12 +48,14 @@ public class TutorialRatingService {
         
         // Check if user already rated
         Optional<TutorialRating> existingRating = ratingRepository
-                .findByUserIdAndTutorialId(user.getId(), tutorialId);
+                .findForUpdate(user.getId(), tutorialId);
         
         TutorialRating tutorialRating;
+        Integer previouslyCounted = null;
         if (existingRating.isPresent()) {
             // Update existing rating
             tutorialRating = existingRating.get();
+            previouslyCounted = RatingAggregateService.counted(tutorialRating.getRating(), tutorialRating.isApproved());
             tutorialRating.setRating(rating);
             tutorialRating.setReview(review);
             log.info("User {} updated rating for tutorial {}", user.getUsername(), tutorial.getTitle());
@@ -70,8 +74,10 @@ public class TutorialRatingService {
         
         tutorialRating = ratingRepository.save(tutorialRating);
         
-        // Update tutorial's average rating
-        updateTutorialRatingStats(tutorialId);
+        // Move the vote in the tutorial's running totals
+        aggregateService.recordChange(RatingTarget.TUTORIAL, tutorialId, previouslyCounted,
+                RatingAggregateService.counted(rating, tutorialRating.isApproved()));
+        trendingService.recordRating(tutorialId, rating);
         
         return convertToDTO(tutorialRating);
     }
@@ -83,14 +89,14 @@ public class TutorialRatingService {
     public void deleteRating(Long tutorialId) {
         User user = getCurrentUser();
         
-        if (!ratingRepository.existsByUserIdAndTutorialId(user.getId(), tutorialId)) {
-            throw new RuntimeException("Rating not found");
-        }
+        TutorialRating rating = ratingRepository.findForUpdate(user.getId(), tutorialId)
+                .orElseThrow(() -> new RuntimeException("Rating not found"));
         
-        ratingRepository.deleteByUserIdAndTutorialId(user.getId(), tutorialId);
+        ratingRepository.delete(rating);
         
-        // Update tutorial stats
-        updateTutorialRatingStats(tutorialId);
+        // Take the vote out of the tutorial's running totals
+        aggregateService.recordChange(RatingTarget.TUTORIAL, tutorialId,
+                RatingAggregateService.counted(rating.getRating(), rating.isApproved()), null);
         
         log.info("User {} deleted rating for tutorial {}", user.getUsername(), tutorialId);
     }
@@ -99,20 +105,12 @@ public class TutorialRatingService {
      * Get rating summary for a tutorial
      */
     public RatingSummaryDTO getRatingSummary(Long tutorialId) {
-        Double avgRating = ratingRepository.getAverageRating(tutorialId);
-        long totalRatings = ratingRepository.countByTutorialIdAndIsApprovedTrue(tutorialId);
-        
-        // Get distribution
+        // Totals and distribution come from the single aggregate row
+        RatingAggregate aggregate = aggregateService.getAggregate(RatingTarget.TUTORIAL, tutorialId)
+                .orElseGet(RatingAggregate::new);
         Map<Integer, Long> distribution = new HashMap<>();
         for (int i = 1; i <= 5; i++) {
-            distribution.put(i, 0L);
-        }
-        
-        List<Object[]> distData = ratingRepository.getRatingDistribution(tutorialId);
-        for (Object[] row : distData) {
-            Integer stars = (Integer) row[0];
-            Long count = (Long) row[1];
-            distribution.put(stars, count);
+            distribution.put(i, aggregate.getStars(i));
         }
         
         // Check if current user has rated
@@ -132,8 +130,8 @@ public class TutorialRatingService {
         
         return RatingSummaryDTO.builder()
                 .tutorialId(tutorialId)
-                .averageRating(avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0)
-                .totalRatings(totalRatings)
+                .averageRating(Math.round(aggregate.getAverage() * 10.0) / 10.0)
+                .totalRatings(aggregate.getRatingCount())
                 .distribution(distribution)
                 .userHasRated(userHasRated)
                 .userRating(userRating)
@@ -187,13 +185,15 @@ public class TutorialRatingService {
      */
     @Transactional
     public TutorialRatingDTO approveRating(Long ratingId) {
-        TutorialRating rating = ratingRepository.findById(ratingId)
+        TutorialRating rating = ratingRepository.findByIdForUpdate(ratingId)
                 .orElseThrow(() -> new RuntimeException("Rating not found"));
+        Integer previouslyCounted = RatingAggregateService.counted(rating.getRating(), rating.isApproved());
         rating.setApproved(true);
         rating = ratingRepository.save(rating);
         
-        // Update tutorial stats
-        updateTutorialRatingStats(rating.getTutorial().getId());
+        // An approved vote starts counting towards the tutorial's totals
+        aggregateService.recordChange(RatingTarget.TUTORIAL, rating.getTutorial().getId(),
+                previouslyCounted, rating.getRating());
         
         return convertToDTO(rating);
     }
@@ -210,25 +210,8 @@ public class TutorialRatingService {
 
     // Helper methods
     
-    private void updateTutorialRatingStats(Long tutorialId) {
-        Tutorial tutorial = tutorialRepository.findById(tutorialId).orElse(null);
-        if (tutorial != null) {
-            Double avgRating = ratingRepository.getAverageRating(tutorialId);
-            long ratingCount = ratingRepository.countByTutorialIdAndIsApprovedTrue(tutorialId);
-            
-            // Note: You'll need to add these fields to Tutorial entity
-            // tutorial.setAverageRating(avgRating != null ? avgRating : 0.0);
-            // tutorial.setRatingCount((int) ratingCount);
-            // tutorialRepository.save(tutorial);
-            
-            log.debug("Updated tutorial {} stats: avg={}, count={}", tutorialId, avgRating, ratingCount);
-        }
-    }
-
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserContext.getUser();
     }
 
     private TutorialRatingDTO convertToDTO(TutorialRating rating) {
@@ -1,13 +1,19 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.Helper.ConditionalRequests;
+import com.vijay.User_Master.Helper.KeysetPagination;
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.ResourceVersion;
 import com.vijay.User_Master.dto.tutorial.TutorialDTO;
 import com.vijay.User_Master.dto.tutorial.CodeSnippetDTO;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.entity.RatingTarget;
 import com.vijay.User_Master.entity.Tutorial;
 import com.vijay.User_Master.entity.TutorialCategory;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.repository.TutorialRepository;
 import com.vijay.User_Master.repository.TutorialCategoryRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
@@ -15,12 +21,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,62 +36,91 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TutorialService {
 
+    // Columns of both Tutorial and TutorialSummaryDTO, since the seek runs on one and the cursor reads the other
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("id", "title", "difficulty", "estimatedMinutes",
+            "displayOrder", "publishedAt", "viewCount", "averageRating", "ratingCount", "updatedAt");
+
     private final TutorialRepository tutorialRepository;
     private final TutorialCategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
     private final ModelMapper modelMapper;
+    private final TutorialTrendingService trendingService;
+    private final CategoryTreeService categoryTreeService;
+    private final RelatedTutorialService relatedTutorialService;
+    private final StaticSiteExportService siteExportService;
+    private final SeoFeedService seoFeedService;
+    private final TopRatedService topRatedService;
+    private final TutorialContentRenderer contentRenderer;
 
     @Transactional(readOnly = true)
-    public Page<TutorialDTO> getAllPublishedTutorials(int page, int size, String sortBy, String sortDir) {
+    public Page<TutorialSummaryDTO> getAllPublishedTutorials(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        return tutorialRepository.findByIsPublishedTrue(pageable)
-                .map(this::convertToDTO);
+        return tutorialRepository.findPublishedSummaries(pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<TutorialDTO> getAllTutorials(int page, int size, String sortBy, String sortDir) {
+    public Page<TutorialSummaryDTO> getAllTutorials(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        return tutorialRepository.findAll(pageable)
-                .map(this::convertToDTO);
+        return tutorialRepository.findAllSummaries(pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<TutorialDTO> getTutorialsByCategory(Long categoryId, int page, int size) {
+    public Page<TutorialSummaryDTO> getTutorialsByCategory(Long categoryId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return tutorialRepository.findByCategoryIdAndIsPublishedTrue(categoryId, pageable)
-                .map(this::convertToDTO);
+        return tutorialRepository.findPublishedSummariesByCategory(categoryId, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<TutorialDTO> getTutorialsByDifficulty(String difficulty, int page, int size) {
+    public Page<TutorialSummaryDTO> getTutorialsByDifficulty(String difficulty, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return tutorialRepository.findByDifficultyAndIsPublishedTrue(difficulty, pageable)
-                .map(this::convertToDTO);
+        return tutorialRepository.findPublishedSummariesByDifficulty(difficulty, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<TutorialDTO> searchTutorials(String keyword, int page, int size) {
+    public Page<TutorialSummaryDTO> searchTutorials(String keyword, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return tutorialRepository.searchPublishedTutorials(keyword, pageable)
-                .map(this::convertToDTO);
+        return tutorialRepository.searchPublishedSummaries(keyword, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<TutorialDTO> getPopularTutorials(int page, int size) {
+    public Page<TutorialSummaryDTO> getPopularTutorials(int page, int size) {
+        Page<TutorialSummaryDTO> snapshot = trendingService.getPopularPage(page, size);
+        if (snapshot != null) {
+            return snapshot;
+        }
         Pageable pageable = PageRequest.of(page, size);
-        return tutorialRepository.findPopularTutorials(pageable)
-                .map(this::convertToDTO);
+        return tutorialRepository.findPopularSummaries(pageable);
+    }
+
+    public List<TutorialSummaryDTO> getTrendingTutorials(int size) {
+        return trendingService.getTrending(size);
+    }
+
+    public Page<TutorialSummaryDTO> getTopRatedTutorials(int page, int size, Long categoryId, String difficulty) {
+        return topRatedService.getTopRatedTutorials(page, size, categoryId, difficulty);
     }
 
     @Transactional(readOnly = true)
-    public Page<TutorialDTO> getRecentTutorials(int page, int size) {
+    public Page<TutorialSummaryDTO> getRecentTutorials(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return tutorialRepository.findRecentTutorials(pageable)
-                .map(this::convertToDTO);
+        return tutorialRepository.findRecentSummaries(pageable);
+    }
+
+    // Keyset pagination: cost stays flat however deep the client scrolls
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TutorialSummaryDTO> getPublishedTutorialsByCursor(Long categoryId, String cursor, int size,
+                                                                              String sortBy, String sortDir, boolean includeTotal) {
+        return scrollSummaries(true, categoryId, cursor, size, sortBy, sortDir, includeTotal);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TutorialSummaryDTO> getAllTutorialsByCursor(String cursor, int size, String sortBy,
+                                                                        String sortDir, boolean includeTotal) {
+        return scrollSummaries(false, null, cursor, size, sortBy, sortDir, includeTotal);
     }
 
     @Transactional(readOnly = true)
@@ -95,14 +132,73 @@ public class TutorialService {
 
     @Transactional
     public TutorialDTO getTutorialBySlug(String slug) {
+        return getTutorialBySlug(slug, true);
+    }
+
+    @Transactional
+    public TutorialDTO getTutorialBySlug(String slug, boolean countView) {
         Tutorial tutorial = tutorialRepository.findBySlug(slug)
                 .orElseThrow(() -> new RuntimeException("Tutorial not found with slug: " + slug));
         
-        // Increment view count
-        tutorial.incrementViewCount();
-        tutorialRepository.save(tutorial);
-        
-        return convertToDTO(tutorial);
+        TutorialDTO dto = convertToDTO(tutorial);
+        if (!countView) {
+            return dto;
+        }
+
+        // Increment view count without dirtying the entity, so updatedAt (and the ETag) stay put
+        tutorialRepository.incrementViewCount(tutorial.getId());
+        dto.setViewCount(dto.getViewCount() != null ? dto.getViewCount() + 1 : 1L);
+        trendingService.recordView(tutorial.getId());
+
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getTutorialVersion(Long id) {
+        List<Object[]> rows = tutorialRepository.findDtoVersionRowsById(id);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Tutorial not found with id: " + id);
+        }
+        return dtoVersion(id, rows.get(0));
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getTutorialVersionBySlug(String slug) {
+        List<Object[]> rows = tutorialRepository.findDtoVersionRowsBySlug(slug);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Tutorial not found with slug: " + slug);
+        }
+        return dtoVersion(slug, rows.get(0));
+    }
+
+    /**
+     * Counts a view of a tutorial whose page was revalidated (304) instead of loaded.
+     */
+    @Transactional
+    public void countView(String slug) {
+        tutorialRepository.findIdBySlug(slug).ifPresent(this::countView);
+    }
+
+    @Transactional
+    public void countView(Long id) {
+        tutorialRepository.incrementViewCount(id);
+        trendingService.recordView(id);
+    }
+
+    /**
+     * Everything the detail page shows around the body, without loading content or snippets.
+     */
+    @Transactional(readOnly = true)
+    public TutorialSummaryDTO getTutorialSummaryBySlug(String slug) {
+        return tutorialRepository.findSummaryBySlug(slug)
+                .orElseThrow(() -> new RuntimeException("Tutorial not found with slug: " + slug));
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getRenderedTutorialVersion(Long id) {
+        LocalDateTime updatedAt = tutorialRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new RuntimeException("Tutorial not found with id: " + id));
+        return version("tutorial-rendered", id, updatedAt);
     }
 
     @Transactional
@@ -119,14 +215,14 @@ public class TutorialService {
         tutorial.setCategory(category);
 
         // Set author (current user)
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User author = userRepository.findByUsername(username);
+        User author = currentUserContext.getUserOrNull();
         if (author == null) {
             throw new RuntimeException("Author not found");
         }
         tutorial.setAuthor(author);
 
         Tutorial saved = tutorialRepository.save(tutorial);
+        tutorialChanged(saved);
         log.info("Created tutorial: {}", saved.getTitle());
         return convertToDTO(saved);
     }
@@ -153,6 +249,7 @@ public class TutorialService {
         }
 
         Tutorial updated = tutorialRepository.save(tutorial);
+        tutorialChanged(updated);
         log.info("Updated tutorial: {}", updated.getTitle());
         return convertToDTO(updated);
     }
@@ -165,6 +262,7 @@ public class TutorialService {
         tutorial.setPublished(true);
         tutorial.setPublishedAt(LocalDateTime.now());
         tutorialRepository.save(tutorial);
+        tutorialChanged(tutorial);
         log.info("Published tutorial: {}", tutorial.getTitle());
     }
 
@@ -175,6 +273,7 @@ public class TutorialService {
         
         tutorial.setPublished(false);
         tutorialRepository.save(tutorial);
+        tutorialChanged(tutorial);
         log.info("Unpublished tutorial: {}", tutorial.getTitle());
     }
 
@@ -184,9 +283,58 @@ public class TutorialService {
                 .orElseThrow(() -> new RuntimeException("Tutorial not found with id: " + id));
         
         tutorialRepository.delete(tutorial);
+        trendingService.forget(id);
+        TransactionUtils.afterCommit(() -> contentRenderer.evict(id));
+        tutorialChanged(tutorial);
         log.info("Deleted tutorial: {}", tutorial.getTitle());
     }
 
+    public List<TutorialSummaryDTO> getRelatedTutorials(Long tutorialId) {
+        return relatedTutorialService.getRelated(tutorialId);
+    }
+
+    // The view counter is deliberately not part of any version: it changes on every request, so a
+    // revalidated TutorialDTO may show a view count as old as the client's copy
+    private static ResourceVersion dtoVersion(Object key, Object[] row) {
+        LocalDateTime updatedAt = (LocalDateTime) row[0];
+        // Ratings and names change without a timestamp, so the ETag is the only validator here
+        int derived = Objects.hash(row[1], row[2], row[3], row[4]);
+        return new ResourceVersion(ConditionalRequests.etag("tutorial", key,
+                ConditionalRequests.epochMillis(updatedAt), Integer.toHexString(derived)), null);
+    }
+
+    private static ResourceVersion version(String type, Object key, LocalDateTime updatedAt) {
+        return new ResourceVersion(ConditionalRequests.etag(type, key, ConditionalRequests.epochMillis(updatedAt)), updatedAt);
+    }
+
+    // Keeps derived views (category counts, related index, static export, sitemap/feeds, top rated) in step with tutorial writes
+    private void tutorialChanged(Tutorial tutorial) {
+        categoryTreeService.invalidate();
+        relatedTutorialService.markChanged(tutorial.getId());
+        siteExportService.markTutorialChanged(tutorial.getSlug());
+        seoFeedService.invalidate();
+        topRatedService.markChanged(RatingTarget.TUTORIAL, tutorial.getId());
+    }
+
+    private CursorPageResponse<TutorialSummaryDTO> scrollSummaries(boolean publishedOnly, Long categoryId, String cursor,
+                                                                   int size, String sortBy, String sortDir,
+                                                                   boolean includeTotal) {
+        int pageSize = KeysetPagination.pageSize(size);
+        String sortField = KeysetPagination.sortField(sortBy, CURSOR_SORT_FIELDS);
+        List<TutorialSummaryDTO> rows = tutorialRepository.findSummariesAfter(publishedOnly, categoryId, sortField,
+                KeysetPagination.direction(sortDir), KeysetPagination.decodeCursor(cursor), pageSize + 1);
+
+        Long total = null;
+        if (includeTotal) {
+            if (categoryId != null) {
+                total = tutorialRepository.countPublishedTutorialsByCategory(categoryId);
+            } else {
+                total = publishedOnly ? tutorialRepository.countByIsPublishedTrue() : tutorialRepository.count();
+            }
+        }
+        return KeysetPagination.toCursorPage(rows, pageSize, sortField, Function.identity(), total);
+    }
+
     private TutorialDTO convertToDTO(Tutorial tutorial) {
         TutorialDTO dto = new TutorialDTO();
         dto.setId(tutorial.getId());
@@ -0,0 +1,182 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.repository.TutorialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps exponentially decayed activity scores per tutorial and periodically
+ * snapshots the top-N, so Trending and Popular lists are plain in-memory reads.
+ * <p>
+ * Scores use forward decay: an event at time t adds weight * e^(lambda * (t - landmark)).
+ * Relative order never changes as time passes, so nothing has to be touched between
+ * events; the landmark is only moved forward before the exponent gets large.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TutorialTrendingService {
+
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double COMPLETION_WEIGHT = 5.0;
+    // 1-2 stars pull a tutorial down, 3-5 push it up
+    private static final int RATING_PIVOT = 2;
+    private static final double MAX_EXPONENT = 50.0;
+    // Entries whose current decayed score is below this are dropped on refresh
+    private static final double MIN_LIVE_SCORE = 0.01;
+
+    private final TutorialRepository tutorialRepository;
+
+    @Value("${tutorial.trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${tutorial.trending.top-size:50}")
+    private int topSize;
+
+    private final Map<Long, DoubleAdder> scores = new ConcurrentHashMap<>();
+    // Events take the read lock; only rescaling the landmark needs exclusive access
+    private final ReadWriteLock landmarkLock = new ReentrantReadWriteLock();
+    private volatile long landmarkMillis = System.currentTimeMillis();
+
+    private volatile List<TutorialSummaryDTO> trending = List.of();
+    private volatile List<TutorialSummaryDTO> popular = List.of();
+    private volatile long publishedCount;
+
+    public void recordView(Long tutorialId) {
+        record(tutorialId, VIEW_WEIGHT);
+    }
+
+    public void recordCompletion(Long tutorialId) {
+        record(tutorialId, COMPLETION_WEIGHT);
+    }
+
+    public void recordRating(Long tutorialId, int stars) {
+        record(tutorialId, stars - RATING_PIVOT);
+    }
+
+    public void forget(Long tutorialId) {
+        scores.remove(tutorialId);
+    }
+
+    /**
+     * Current trending list; falls back to the popular snapshot until there is recent activity.
+     */
+    public List<TutorialSummaryDTO> getTrending(int limit) {
+        List<TutorialSummaryDTO> snapshot = trending.isEmpty() ? popular : trending;
+        // limit comes straight from the request; a negative one must not reach subList
+        return snapshot.subList(0, Math.max(0, Math.min(limit, snapshot.size())));
+    }
+
+    /**
+     * Page of the lifetime-popular snapshot, or null when the page lies outside it.
+     */
+    public Page<TutorialSummaryDTO> getPopularPage(int page, int size) {
+        List<TutorialSummaryDTO> snapshot = popular;
+        int from = page * size;
+        int to = from + size;
+        if (snapshot.isEmpty() || (to > snapshot.size() && snapshot.size() < publishedCount)) {
+            return null;
+        }
+        List<TutorialSummaryDTO> content = from >= snapshot.size()
+                ? List.of()
+                : snapshot.subList(from, Math.min(to, snapshot.size()));
+        return new PageImpl<>(content, PageRequest.of(page, size), publishedCount);
+    }
+
+    @Scheduled(fixedDelayString = "${tutorial.trending.refresh-ms:60000}", initialDelay = 5000)
+    public void refreshSnapshots() {
+        rescaleIfNeeded();
+
+        Page<TutorialSummaryDTO> popularPage = tutorialRepository.findPopularSummaries(PageRequest.of(0, topSize));
+        popular = List.copyOf(popularPage.getContent());
+        publishedCount = popularPage.getTotalElements();
+
+        List<Long> topIds = topIds();
+        if (topIds.isEmpty()) {
+            trending = List.of();
+            return;
+        }
+        Map<Long, TutorialSummaryDTO> byId = tutorialRepository.findPublishedSummariesByIds(topIds).stream()
+                .collect(Collectors.toMap(TutorialSummaryDTO::getId, Function.identity()));
+        trending = topIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        log.debug("Trending snapshot refreshed: {} tutorials, {} scored", trending.size(), scores.size());
+    }
+
+    private void record(Long tutorialId, double weight) {
+        if (tutorialId == null || weight == 0) {
+            return;
+        }
+        landmarkLock.readLock().lock();
+        try {
+            double boost = Math.exp(lambda() * (System.currentTimeMillis() - landmarkMillis));
+            scores.computeIfAbsent(tutorialId, id -> new DoubleAdder()).add(weight * boost);
+        } finally {
+            landmarkLock.readLock().unlock();
+        }
+    }
+
+    // Bounded min-heap over all scores: O(M log N) per refresh instead of a full sort
+    private List<Long> topIds() {
+        double floor = MIN_LIVE_SCORE * Math.exp(lambda() * (System.currentTimeMillis() - landmarkMillis));
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(topSize + 1, Map.Entry.comparingByValue());
+
+        for (Iterator<Map.Entry<Long, DoubleAdder>> it = scores.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, DoubleAdder> entry = it.next();
+            double score = entry.getValue().sum();
+            if (score < floor) {
+                it.remove();
+                continue;
+            }
+            if (heap.size() < topSize) {
+                heap.offer(Map.entry(entry.getKey(), score));
+            } else if (score > heap.peek().getValue()) {
+                heap.poll();
+                heap.offer(Map.entry(entry.getKey(), score));
+            }
+        }
+
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(heap);
+        top.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+        return top.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private void rescaleIfNeeded() {
+        long now = System.currentTimeMillis();
+        if (lambda() * (now - landmarkMillis) < MAX_EXPONENT) {
+            return;
+        }
+        landmarkLock.writeLock().lock();
+        try {
+            double factor = Math.exp(-lambda() * (now - landmarkMillis));
+            for (DoubleAdder adder : scores.values()) {
+                double rescaled = adder.sumThenReset() * factor;
+                adder.add(rescaled);
+            }
+            landmarkMillis = now;
+        } finally {
+            landmarkLock.writeLock().unlock();
+        }
+    }
+
+    private double lambda() {
+        return Math.log(2) / (halfLifeHours * 3_600_000d);
+    }
+}
@@ -1,21 +1,30 @@
 package com.vijay.User_Master.service;
 
+import com.vijay.User_Master.Helper.CommonUtils;
+import com.vijay.User_Master.dto.tutorial.LessonProgressDTO;
+import com.vijay.User_Master.dto.tutorial.ProgressHeartbeatRequest;
+import com.vijay.User_Master.dto.tutorial.TutorialMarkersDTO;
 import com.vijay.User_Master.dto.tutorial.UserProgressDTO;
+import com.vijay.User_Master.entity.LessonProgress;
+import com.vijay.User_Master.entity.RatingTarget;
 import com.vijay.User_Master.entity.Tutorial;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.entity.UserProgress;
+import com.vijay.User_Master.repository.LessonProgressRepository;
 import com.vijay.User_Master.repository.TutorialRepository;
 import com.vijay.User_Master.repository.UserProgressRepository;
-import com.vijay.User_Master.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,8 +34,12 @@ public class UserProgressService {
 
     private final UserProgressRepository progressRepository;
     private final TutorialRepository tutorialRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
     private final ModelMapper modelMapper;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final ProgressHeartbeatService heartbeatService;
+    private final UserTutorialStateCache tutorialStateCache;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional(readOnly = true)
     public List<UserProgressDTO> getUserProgress(Long userId) {
@@ -35,15 +48,11 @@ public class UserProgressService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
     public List<UserProgressDTO> getCurrentUserProgress() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username);
-        if (user == null) {
-            throw new RuntimeException("User not found");
-        }
-        
-        return getUserProgress(user.getId());
+        // Flushed before the read transaction opens, so its snapshot includes the flushed rows
+        heartbeatService.flushUser(username);
+        return readOnly(() -> getUserProgress(currentUserContext.getUser().getId()));
     }
 
     @Transactional(readOnly = true)
@@ -57,10 +66,7 @@ public class UserProgressService {
     @Transactional
     public UserProgressDTO startTutorial(Long tutorialId) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username);
-        if (user == null) {
-            throw new RuntimeException("User not found");
-        }
+        User user = currentUserContext.getUser();
 
         Tutorial tutorial = tutorialRepository.findById(tutorialId)
                 .orElseThrow(() -> new RuntimeException("Tutorial not found"));
@@ -78,38 +84,67 @@ public class UserProgressService {
                     .build();
             
             progress = progressRepository.save(progress);
+            tutorialStateCache.tutorialStarted(username, tutorialId);
             log.info("Started tutorial {} for user {}", tutorialId, username);
         }
 
         return convertToDTO(progress);
     }
 
-    @Transactional
+    /**
+     * Explicit progress update. Goes through the heartbeat accumulator (upsert, completion hooks
+     * fire once) and is flushed straight away so the returned DTO reflects it.
+     * <p>
+     * Not transactional: the flush commits in its own transaction, which must not run while this
+     * request holds another connection open around it.
+     */
     public UserProgressDTO updateProgress(Long tutorialId, Integer percentage) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username);
-        if (user == null) {
-            throw new RuntimeException("User not found");
-        }
+        heartbeatService.record(RatingTarget.TUTORIAL, username, tutorialId, null, percentage, false);
+        heartbeatService.flush(RatingTarget.TUTORIAL, username, tutorialId);
+
+        return readOnly(() -> {
+            User user = currentUserContext.getUser();
+            UserProgress progress = progressRepository.findByUserIdAndTutorialId(user.getId(), tutorialId)
+                    .orElseThrow(() -> new RuntimeException("Tutorial not found"));
+            return convertToDTO(progress);
+        });
+    }
 
-        UserProgress progress = progressRepository.findByUserIdAndTutorialId(user.getId(), tutorialId)
-                .orElseThrow(() -> new RuntimeException("Progress not found. Start the tutorial first."));
+    public UserProgressDTO completeTutorial(Long tutorialId) {
+        return updateProgress(tutorialId, 100);
+    }
 
-        progress.setProgressPercentage(percentage);
-        progress.setLastAccessedAt(LocalDateTime.now());
+    /**
+     * Periodic heartbeat from the tutorial page; absorbed in memory and flushed in batches.
+     */
+    public ProgressHeartbeatService.Snapshot tutorialHeartbeat(Long tutorialId, ProgressHeartbeatRequest request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return heartbeatService.record(RatingTarget.TUTORIAL, username, tutorialId,
+                request.getPosition(), request.getPercentage(), true);
+    }
 
-        if (percentage >= 100 && !progress.isCompleted()) {
-            progress.markAsCompleted();
-            log.info("User {} completed tutorial {}", username, tutorialId);
-        }
+    public ProgressHeartbeatService.Snapshot lessonHeartbeat(Long lessonId, ProgressHeartbeatRequest request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return heartbeatService.record(RatingTarget.LESSON, username, lessonId,
+                request.getPosition(), request.getPercentage(), true);
+    }
 
-        progress = progressRepository.save(progress);
-        return convertToDTO(progress);
+    /**
+     * Bookmarked / started / completed markers for a page of tutorials, from the per-user bitmap cache.
+     */
+    public TutorialMarkersDTO getCurrentUserMarkers(List<Long> tutorialIds) {
+        return tutorialStateCache.getMarkers(CommonUtils.getLoggedInUsernameOrNull(), tutorialIds);
     }
 
-    @Transactional
-    public UserProgressDTO completeTutorial(Long tutorialId) {
-        return updateProgress(tutorialId, 100);
+    public LessonProgressDTO getCurrentUserLessonProgress(Long lessonId) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        heartbeatService.flush(RatingTarget.LESSON, username, lessonId);
+
+        return readOnly(() -> lessonProgressRepository
+                .findByUserIdAndLessonId(currentUserContext.getUser().getId(), lessonId)
+                .map(this::convertToDTO)
+                .orElse(null));
     }
 
     @Transactional(readOnly = true)
@@ -129,6 +164,27 @@ public class UserProgressService {
         return average != null ? average : 0.0;
     }
 
+    // For reads after a heartbeat flush, which commits in a REQUIRES_NEW transaction of its own
+    private <T> T readOnly(Supplier<T> work) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return tx.execute(status -> work.get());
+    }
+
+    private LessonProgressDTO convertToDTO(LessonProgress progress) {
+        return LessonProgressDTO.builder()
+                .lessonId(progress.getLesson().getId())
+                .lessonTitle(progress.getLesson().getTitle())
+                .isCompleted(progress.isCompleted())
+                .progressPercentage(progress.getProgressPercentage())
+                .lastPosition(progress.getLastPosition())
+                .timeSpentMinutes(progress.getTimeSpentMinutes())
+                .startedAt(progress.getStartedAt())
+                .completedAt(progress.getCompletedAt())
+                .lastAccessedAt(progress.getLastAccessedAt())
+                .build();
+    }
+
     private UserProgressDTO convertToDTO(UserProgress progress) {
         UserProgressDTO dto = modelMapper.map(progress, UserProgressDTO.class);
         
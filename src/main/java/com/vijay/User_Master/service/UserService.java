@@ -2,6 +2,7 @@ package com.vijay.User_Master.service;
 
 
 
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.PageableResponse;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
@@ -26,6 +27,10 @@ public interface UserService extends iCrudService<UserRequest, UserResponse,Long
             int pageNumber, int pageSize, String sortBy, String sortDir,
             Boolean isDeleted, Boolean isActive);
 
+    CursorPageResponse<UserResponse> getUsersByCursor(
+            String cursor, int pageSize, String sortBy, String sortDir,
+            Boolean isDeleted, Boolean isActive, boolean includeTotal);
+
     Page<UserResponse> getUsersWithFilter(Boolean isDeleted, Boolean isActive, String keyword, Pageable pageable);
 
     void softDeleteUser(Long id);
@@ -0,0 +1,150 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.Helper.IdBitmap;
+import com.vijay.User_Master.Helper.TransactionUtils;
+import com.vijay.User_Master.dto.tutorial.TutorialMarkersDTO;
+import com.vijay.User_Master.repository.BookmarkRepository;
+import com.vijay.User_Master.repository.UserProgressRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-user bitmaps of bookmarked, started and completed tutorial ids, so list pages can mark a whole
+ * page of tutorials without a query per row.
+ * <p>
+ * A user's bitmaps are loaded on first use (two queries) and then kept current by the bookmark and
+ * progress services after their transactions commit. Updates for users who are not loaded are
+ * dropped; the next load reads them from the database. Loading and updating go through the map's
+ * per-key compute, so an update can never be overwritten by a load that started before it.
+ * Entries are keyed by the login name of the authenticated principal. Users idle for longer than
+ * the TTL are evicted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserTutorialStateCache {
+
+    private final BookmarkRepository bookmarkRepository;
+    private final UserProgressRepository progressRepository;
+
+    @Value("${tutorial.user-state.ttl-ms:1800000}")
+    private long ttlMillis;
+
+    @Value("${tutorial.user-state.max-users:50000}")
+    private int maxUsers;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record State(IdBitmap bookmarked, IdBitmap started, IdBitmap completed) {
+    }
+
+    private static final class Entry {
+        private final State state;
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+
+        Entry(State state) {
+            this.state = state;
+        }
+    }
+
+    /**
+     * Markers for a page of tutorials; empty for anonymous callers.
+     */
+    public TutorialMarkersDTO getMarkers(String username, Collection<Long> tutorialIds) {
+        if (username == null || tutorialIds.isEmpty()) {
+            return TutorialMarkersDTO.empty();
+        }
+        State state = state(username);
+        Set<Long> bookmarked = new HashSet<>();
+        Set<Long> started = new HashSet<>();
+        Set<Long> completed = new HashSet<>();
+        for (Long id : tutorialIds) {
+            if (state.bookmarked().contains(id)) {
+                bookmarked.add(id);
+            }
+            if (state.started().contains(id)) {
+                started.add(id);
+            }
+            if (state.completed().contains(id)) {
+                completed.add(id);
+            }
+        }
+        return new TutorialMarkersDTO(bookmarked, started, completed);
+    }
+
+    public boolean isBookmarked(String username, Long tutorialId) {
+        return username != null && state(username).bookmarked().contains(tutorialId);
+    }
+
+    public boolean isStarted(String username, Long tutorialId) {
+        return username != null && state(username).started().contains(tutorialId);
+    }
+
+    public void bookmarkAdded(String username, Long tutorialId) {
+        afterCommit(username, s -> new State(s.bookmarked().with(tutorialId), s.started(), s.completed()));
+    }
+
+    public void bookmarkRemoved(String username, Long tutorialId) {
+        afterCommit(username, s -> new State(s.bookmarked().without(tutorialId), s.started(), s.completed()));
+    }
+
+    public void tutorialStarted(String username, Long tutorialId) {
+        afterCommit(username, s -> new State(s.bookmarked(), s.started().with(tutorialId), s.completed()));
+    }
+
+    public void tutorialCompleted(String username, Long tutorialId) {
+        afterCommit(username, s -> new State(s.bookmarked(), s.started().with(tutorialId), s.completed().with(tutorialId)));
+    }
+
+    @Scheduled(fixedDelayString = "${tutorial.user-state.sweep-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        entries.entrySet().removeIf(e -> e.getValue().lastAccessMillis < cutoff);
+        int excess = entries.size() - maxUsers;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastAccessMillis))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private State state(String username) {
+        Entry entry = entries.computeIfAbsent(username, this::load);
+        entry.lastAccessMillis = System.currentTimeMillis();
+        return entry.state;
+    }
+
+    private Entry load(String username) {
+        List<Long> started = new ArrayList<>();
+        List<Long> completed = new ArrayList<>();
+        for (Object[] row : progressRepository.findTutorialStatesByLogin(username)) {
+            started.add((Long) row[0]);
+            if (Boolean.TRUE.equals(row[1])) {
+                completed.add((Long) row[0]);
+            }
+        }
+        IdBitmap bookmarked = IdBitmap.of(bookmarkRepository.findTutorialIdsByLogin(username));
+        return new Entry(new State(bookmarked, IdBitmap.of(started), IdBitmap.of(completed)));
+    }
+
+    private void afterCommit(String username, UnaryOperator<State> update) {
+        if (username == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> entries.computeIfPresent(username, (key, entry) -> {
+            Entry updated = new Entry(update.apply(entry.state));
+            updated.lastAccessMillis = entry.lastAccessMillis;
+            return updated;
+        }));
+    }
+}
@@ -4,8 +4,10 @@ import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.EmailUtils;
 import com.vijay.User_Master.config.security.CustomUserDetails;
 import com.vijay.User_Master.config.security.JwtTokenProvider;
+import com.vijay.User_Master.config.security.UserDetailsCache;
 import com.vijay.User_Master.config.security.model.LoginJWTResponse;
 import com.vijay.User_Master.config.security.model.LoginRequest;
+import com.vijay.User_Master.dto.AccountStatusResponse;
 import com.vijay.User_Master.dto.RefreshTokenDto;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
@@ -22,7 +24,9 @@ import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.WorkerRepository;
 import com.vijay.User_Master.service.AuthService;
 import com.vijay.User_Master.service.RefreshTokenService;
+import com.vijay.User_Master.service.TokenRevocationService;
 import com.vijay.User_Master.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -31,10 +35,11 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -54,12 +59,14 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final UserService userService;
     private final ModelMapper mapper;
-    private UserDetailsService userDetailsService;
     private JwtTokenProvider jwtTokenProvider;
     private AuthenticationManager authenticationManager;
+    private UserDetailsService userDetailsService;
     private EmailUtils emailUtils;
     private EmailService emailService;
     private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
 
     /*
      *     **************  when user register that time need to send temp password
@@ -70,6 +77,7 @@ public class AuthServiceImpl implements AuthService {
      *
      * */
     @Override
+    @Transactional
     public boolean unlockAccount(UnlockForm form, String usernameOrEmail) {
         User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
                 .orElseThrow(() -> {
@@ -96,6 +104,7 @@ public class AuthServiceImpl implements AuthService {
         user.setAccountStatus(accountStatus);
 
         userRepository.save(user);
+        userDetailsCache.invalidateUser(user.getId());
         // Send a success email to the user
         String subject = "Congratulations! Your Account is Unlocked";
         String body = "Your account has been successfully unlocked. You can now log in with your new password.<br>Thank you.";
@@ -121,6 +130,9 @@ public class AuthServiceImpl implements AuthService {
         String encodedNewPassword = passwordEncoder.encode(form.getNewPassword());
         user.setPassword(encodedNewPassword);
         userRepository.save(user);
+        userDetailsCache.invalidateUser(user.getId());
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(user.getId()));
+        refreshTokenService.invalidateRefreshTokens(user.getId(), null);
 
         log.info("Password reset successfully for user ID: {}", user.getId());
         return true;
@@ -130,16 +142,15 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public boolean changePassword(ChangePasswordForm form) {
         CustomUserDetails userDetails = CommonUtils.getLoggedInUser();
-        User user = userRepository.findByEmail(userDetails.getEmail());
-        // Log the incoming reset password request
-        System.out.println("Resetting password for email: " + user.getEmail());
-        // Check if the user exists
+        // Principals rebuilt from token claims carry no email; the id identifies the account
+        User user = userDetails.isWorker() ? null : userRepository.findById(userDetails.getId()).orElse(null);
         if (user == null) {
-            System.out.println("User not found with email: " + user.getEmail());
+            log.warn("Password change requested for unknown user: {}", userDetails.getUsername());
             return false;
         }
+        log.info("Changing password for user ID: {}", user.getId());
         if (form.getOldPassword() == null || form.getOldPassword().isEmpty()) {
-            System.out.println("Old password is null or empty!");
+            log.warn("Old password is empty for user ID: {}", user.getId());
         }
         if (!passwordEncoder.matches(form.getOldPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Old Password is incorrect ");
@@ -148,6 +159,9 @@ public class AuthServiceImpl implements AuthService {
         // Check if the old password matches the user's current password
         user.setPassword(encodePasswordNewPassword);
         userRepository.save(user);
+        userDetailsCache.invalidateUser(user.getId());
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(user.getId()));
+        refreshTokenService.invalidateRefreshTokens(user.getId(), null);
         return true;
     }
     @Override
@@ -164,118 +178,156 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public LoginJWTResponse login(LoginRequest req) {
+        // The provider loads the account once (identity query or principal cache) and checks the password;
+        // everything below works from that principal instead of looking the account up again
         Authentication authentication = authenticationManager
                 .authenticate(new UsernamePasswordAuthenticationToken(req.getUsernameOrEmail(), req.getPassword()));
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(req.getUsernameOrEmail());
-
-        // Check if the input is an email or username
-        User user = null;
-        Worker worker = null;
-        if (isEmail(req.getUsernameOrEmail())) {
-            user = userRepository.findByEmail(req.getUsernameOrEmail());
-            worker = workerRepository.findByEmail(req.getUsernameOrEmail()).orElse(null);
-        } else {
-            user = userRepository.findByUsername(req.getUsernameOrEmail());
-            worker = workerRepository.findByEmail(req.getUsernameOrEmail()).orElse(null);
-        }
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        String accountType = principal.isWorker() ? "worker" : "user";
 
-        if (worker != null && (worker.getAccountStatus() == null || !worker.getAccountStatus().getIsActive())) {
-            log.warn("Account status is null or inactive for worker ID: {}", worker.getId());
-            throw new BadApiRequestException("Account is not active. Please activate your account.");
-        }
-        if (user != null && (user.getAccountStatus() == null || !user.getAccountStatus().getIsActive())) {
-            log.warn("Account status is null or inactive for user ID: {}", user.getId());
+        if (principal.getAccountStatus() == null || !principal.getAccountStatus().getIsActive()) {
+            log.warn("Account status is null or inactive for {} ID: {}", accountType, principal.getId());
             throw new BadApiRequestException("Account is not active. Please activate your account.");
         }
 
-        // Create new refresh token
-        RefreshTokenDto refreshTokenCreated = null;
-
-        if (user != null) {
-            log.info("Creating refresh token for user: {}", user.getUsername());
-            refreshTokenCreated = refreshTokenService.createRefreshToken(
-                    user.getUsername(),
-                    user.getEmail(),
-                    user.getId(),   // <-- Pass userId
-                    null            // <-- WorkerId is null
-            );
-        } else if (worker != null) {
-            log.info("Creating refresh token for worker: {}", worker.getUsername());
-            refreshTokenCreated = refreshTokenService.createRefreshToken(
-                    worker.getUsername(),
-                    worker.getEmail(),
-                    null,           // <-- UserId is null
-                    worker.getId()  // <-- Pass workerId
-            );
-        }
+        log.info("Creating refresh token for {}: {}", accountType, principal.getUsername());
+        RefreshTokenDto refreshTokenCreated = refreshTokenService.createRefreshToken(
+                principal.getUsername(),
+                principal.getEmail(),
+                principal.isWorker() ? null : principal.getId(),
+                principal.isWorker() ? principal.getId() : null,
+                JwtTokenProvider.roleNames(principal)
+        );
 
         if (refreshTokenCreated == null) {
             log.error("Error creating refresh token.");
             throw new RuntimeException("Error creating refresh token.");
         }
 
-
         String token = jwtTokenProvider.generateToken(authentication);
 
-        UserResponse response = mapper.map(userDetails, UserResponse.class);
-
         LoginJWTResponse jwtResponse = LoginJWTResponse.builder()
                 .jwtToken(token)
-                .user(response)
+                .user(toUserResponse(principal))
                 .refreshTokenDto(refreshTokenCreated)
                 .build();
         return jwtResponse;
     }
 
+    // Same fields the ModelMapper copy of the principal produced, without the reflective mapping
+    private UserResponse toUserResponse(CustomUserDetails principal) {
+        return UserResponse.builder()
+                .id(principal.getId())
+                .name(principal.getName())
+                .username(principal.getUsername())
+                .email(principal.getEmail())
+                .phoNo(principal.getPhoNo())
+                .imageName(principal.getImageName())
+                .isDeleted(principal.isDeleted())
+                .deletedOn(principal.getDeletedOn())
+                .roles(principal.getRoles())
+                .accountStatus(toStatusResponse(principal.getAccountStatus()))
+                .build();
+    }
 
+    @Override
+    public UserResponse getCurrentUser() {
+        return toUserResponse(loadAccount(CommonUtils.getLoggedInUser()));
+    }
 
-    private boolean isEmail(String usernameOrEmail) {
-        // Simple check to see if the string is an email
-        return usernameOrEmail.contains("@");
+    // Principals rebuilt from token claims carry only id, username and roles; the full account comes
+    // from the principal cache, or by id when the username in the token is no longer current
+    private CustomUserDetails loadAccount(CustomUserDetails principal) {
+        if (principal.getEmail() != null) {
+            return principal;
+        }
+        try {
+            if (userDetailsService.loadUserByUsername(principal.getUsername()) instanceof CustomUserDetails account
+                    && account.isWorker() == principal.isWorker() && account.getId().equals(principal.getId())) {
+                return account;
+            }
+        } catch (UsernameNotFoundException e) {
+            log.debug("No account under {}, loading by id", principal.getUsername());
+        }
+        if (principal.isWorker()) {
+            return workerRepository.findById(principal.getId()).map(CustomUserDetails::build)
+                    .orElseThrow(() -> new ResourceNotFoundException("WORKER", "ID", principal.getId()));
+        }
+        return userRepository.findById(principal.getId()).map(CustomUserDetails::build)
+                .orElseThrow(() -> new ResourceNotFoundException("USER", "ID", principal.getId()));
+    }
+
+    private AccountStatusResponse toStatusResponse(AccountStatus status) {
+        if (status == null) {
+            return null;
+        }
+        AccountStatusResponse response = new AccountStatusResponse();
+        response.setIsActive(status.getIsActive());
+        return response;
     }
 
+    @Override
+    public void logout(String accessToken) {
+        Claims claims = jwtTokenProvider.parseClaims(accessToken);
+        // The refresh token goes too, or the client could mint a new access token right away
+        CustomUserDetails caller = CommonUtils.getLoggedInUser();
+        refreshTokenService.invalidateRefreshTokens(caller.isWorker() ? null : caller.getId(),
+                caller.isWorker() ? caller.getId() : null);
+        if (claims.getId() == null) {
+            // Issued before tokens carried an id; it lapses at its expiry
+            log.warn("Logout with a token that has no id for {}", claims.getSubject());
+            return;
+        }
+        tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration().getTime());
+        log.info("Access and refresh tokens revoked on logout for {}", claims.getSubject());
+    }
 
     @Override
+    @Transactional
     public CompletableFuture<Object> registerForAdminUser(UserRequest request, String url) {
         log.info("Attempting to create a new admin user with username: {}", request.getUsername());
-        return CompletableFuture.supplyAsync(() -> {
-            if (existsByUsernameOrEmail(request.getUsername()) || existsByUsernameOrEmail(request.getEmail())) {
-                log.error("Username '{}' or email '{}' already exists", request.getUsername(), request.getEmail());
-                throw new UserAlreadyExistsException("Username or email is already taken");
-            }
-            User user = mapper.map(request, User.class);
-            Role role = roleRepository.findByName("ROLE_NORMAL").orElseThrow(() -> {
-                log.error("Role 'User' not found");
-                return new BadApiRequestException("Role not found with name 'ROLE_ADMIN'");
-            });
-            user.setRoles(Set.of(role));
-            //String tempPwd= PwdUtils.generateRandomPwd();
-            //user.setPassword(tempPwd);
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-            AccountStatus accountStatus = AccountStatus.builder()
-                    .isActive(false)
-                    .passwordResetToken(null)
-                    .verificationCode(UUID.randomUUID().toString())
-                    .build();
-            user.setAccountStatus(accountStatus);
-
-            User savedUser = userRepository.save(user);
-
-            // Send confirmation email to the new admin user
-            if (!ObjectUtils.isEmpty(savedUser)) {
-                // send email
-                try {
-                    emailSendForRegisterUser(savedUser, url);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-                return true;
-            }
-            log.info("Admin user with username '{}' created successfully", user.getUsername());
-            return mapper.map(user, UserResponse.class);
+        // Runs on the request thread: the user row and its confirmation email commit together,
+        // and the email itself is sent by the outbox dispatcher
+        return CompletableFuture.completedFuture(createAdminUser(request, url));
+    }
+
+    private Object createAdminUser(UserRequest request, String url) {
+        if (existsByUsernameOrEmail(request.getUsername()) || existsByUsernameOrEmail(request.getEmail())) {
+            log.error("Username '{}' or email '{}' already exists", request.getUsername(), request.getEmail());
+            throw new UserAlreadyExistsException("Username or email is already taken");
+        }
+        User user = mapper.map(request, User.class);
+        Role role = roleRepository.findByName("ROLE_NORMAL").orElseThrow(() -> {
+            log.error("Role 'User' not found");
+            return new BadApiRequestException("Role not found with name 'ROLE_ADMIN'");
         });
+        user.setRoles(Set.of(role));
+        //String tempPwd= PwdUtils.generateRandomPwd();
+        //user.setPassword(tempPwd);
+        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        AccountStatus accountStatus = AccountStatus.builder()
+                .isActive(false)
+                .passwordResetToken(null)
+                .verificationCode(UUID.randomUUID().toString())
+                .build();
+        user.setAccountStatus(accountStatus);
+
+        User savedUser = userRepository.save(user);
+
+        // Send confirmation email to the new admin user
+        if (!ObjectUtils.isEmpty(savedUser)) {
+            // send email
+            try {
+                emailSendForRegisterUser(savedUser, url);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return true;
+        }
+        log.info("Admin user with username '{}' created successfully", user.getUsername());
+        return mapper.map(user, UserResponse.class);
     }
 
     private void emailSendForRegisterUser(User savedUser, String url) throws Exception {
@@ -347,6 +399,7 @@ public class AuthServiceImpl implements AuthService {
      * */
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void sendEmailPasswordReset(String email, HttpServletRequest request) throws Exception {
         // Fetch user from the database using email
         User user = userRepository.findByEmail(email);
@@ -421,6 +474,9 @@ public class AuthServiceImpl implements AuthService {
         user.setPassword(encodedPassword);
         user.getAccountStatus().setPasswordResetToken(null);
         userRepository.save(user);
+        userDetailsCache.invalidateUser(uid);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(uid));
+        refreshTokenService.invalidateRefreshTokens(uid, null);
         log.info("Password reset successfully for user ID: {}", uid);
     }
 
@@ -1,8 +1,13 @@
 package com.vijay.User_Master.service.impl;
 
+import com.vijay.User_Master.Helper.ConditionalRequests;
+import com.vijay.User_Master.Helper.KeysetPagination;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.ResourceVersion;
 import com.vijay.User_Master.dto.tutorial.CourseDTO;
 import com.vijay.User_Master.dto.tutorial.VideoLessonDTO;
 import com.vijay.User_Master.entity.Course;
+import com.vijay.User_Master.entity.RatingTarget;
 import com.vijay.User_Master.entity.TutorialCategory;
 import com.vijay.User_Master.entity.User;
 import com.vijay.User_Master.entity.VideoLesson;
@@ -11,12 +16,17 @@ import com.vijay.User_Master.repository.TutorialCategoryRepository;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.VideoLessonRepository;
 import com.vijay.User_Master.service.CourseService;
+import com.vijay.User_Master.service.SeoFeedService;
+import com.vijay.User_Master.service.StaticSiteExportService;
+import com.vijay.User_Master.service.TopRatedService;
 import com.vijay.User_Master.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,8 +35,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,8 +53,13 @@ public class CourseServiceImpl implements CourseService {
     private final TutorialCategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final StaticSiteExportService siteExportService;
+    private final SeoFeedService seoFeedService;
+    private final TopRatedService topRatedService;
 
     private static final String UPLOAD_DIR = "uploads/videos/";
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("id", "title", "slug", "difficulty",
+            "createdAt", "updatedAt");
 
     @Override
     @Transactional
@@ -74,6 +94,8 @@ public class CourseServiceImpl implements CourseService {
         TutorialCategory category = categoryRepository.findById(courseDTO.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found"));
 
+        // A slug change must also drop the old exported page
+        siteExportService.markCourseChanged(course.getSlug());
         course.setTitle(courseDTO.getTitle());
         course.setSlug(courseDTO.getSlug());
         course.setDescription(courseDTO.getDescription());
@@ -82,6 +104,7 @@ public class CourseServiceImpl implements CourseService {
         course.setCategory(category);
 
         Course updatedCourse = courseRepository.save(course);
+        courseChanged(updatedCourse.getSlug());
         return mapToDTO(updatedCourse);
     }
 
@@ -99,6 +122,24 @@ public class CourseServiceImpl implements CourseService {
         return mapToDTO(course);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getCourseVersionBySlug(String slug) {
+        Object[] row = courseRepository.findVersionBySlug(slug).stream().findFirst()
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+        LocalDateTime courseUpdatedAt = (LocalDateTime) row[0];
+        LocalDateTime lessonUpdatedAt = (LocalDateTime) row[1];
+        long lessonCount = (Long) row[2];
+
+        // Lessons are part of the course payload, so their edits and removals change the version too
+        LocalDateTime lastModified = courseUpdatedAt;
+        if (lessonUpdatedAt != null && (lastModified == null || lessonUpdatedAt.isAfter(lastModified))) {
+            lastModified = lessonUpdatedAt;
+        }
+        long millis = lastModified != null ? ConditionalRequests.epochMillis(lastModified) : 0L;
+        return new ResourceVersion(ConditionalRequests.etag("course", slug, millis, lessonCount), lastModified);
+    }
+
     @Override
     public Page<CourseDTO> getAllCourses(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
@@ -113,6 +154,20 @@ public class CourseServiceImpl implements CourseService {
         return courseRepository.findByIsPublishedTrue(pageable).map(this::mapToDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CourseDTO> getPublishedCoursesByCursor(String cursor, int size, String sortBy,
+                                                                     String sortDir, boolean includeTotal) {
+        return scrollCourses(isPublished(), cursor, size, sortBy, sortDir, includeTotal);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CourseDTO> getAllCoursesByCursor(String cursor, int size, String sortBy,
+                                                               String sortDir, boolean includeTotal) {
+        return scrollCourses(Specification.where(null), cursor, size, sortBy, sortDir, includeTotal);
+    }
+
     @Override
     public Page<CourseDTO> getCoursesByCategory(Long categoryId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
@@ -122,6 +177,7 @@ public class CourseServiceImpl implements CourseService {
     @Override
     @Transactional
     public void deleteCourse(Long id) {
+        courseRepository.findById(id).ifPresent(course -> courseChanged(course.getSlug()));
         courseRepository.deleteById(id);
     }
 
@@ -132,6 +188,7 @@ public class CourseServiceImpl implements CourseService {
                 .orElseThrow(() -> new RuntimeException("Course not found"));
         course.setPublished(true);
         courseRepository.save(course);
+        courseChanged(course.getSlug());
     }
 
     @Override
@@ -141,6 +198,7 @@ public class CourseServiceImpl implements CourseService {
                 .orElseThrow(() -> new RuntimeException("Course not found"));
         course.setPublished(false);
         courseRepository.save(course);
+        courseChanged(course.getSlug());
     }
 
     @Override
@@ -233,9 +291,51 @@ public class CourseServiceImpl implements CourseService {
     @Transactional
     public void deleteLesson(Long id) {
         lessonRepository.deleteById(id);
+        topRatedService.markChanged(RatingTarget.LESSON, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<VideoLessonDTO> getTopRatedLessons(int page, int size, Long categoryId, String difficulty) {
+        Page<Long> ids = topRatedService.getTopRatedLessonIds(page, size, categoryId, difficulty);
+        Map<Long, VideoLesson> byId = lessonRepository.findAllWithCourseByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(VideoLesson::getId, Function.identity()));
+        List<VideoLessonDTO> content = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToLessonDTO)
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
     }
 
     // Helper methods
+    private CursorPageResponse<CourseDTO> scrollCourses(Specification<Course> filter, String cursor, int size,
+                                                       String sortBy, String sortDir, boolean includeTotal) {
+        int pageSize = KeysetPagination.pageSize(size);
+        String sortField = KeysetPagination.sortField(sortBy, CURSOR_SORT_FIELDS);
+        Sort.Direction direction = KeysetPagination.direction(sortDir);
+        Specification<Course> spec = filter.and(
+                KeysetPagination.seek(sortField, direction, KeysetPagination.decodeCursor(cursor)));
+
+        List<Course> rows = courseRepository.findBy(spec, query -> query
+                .sortBy(KeysetPagination.keysetSort(sortField, direction))
+                .limit(pageSize + 1)
+                .all());
+        Long total = includeTotal ? courseRepository.count(filter) : null;
+        return KeysetPagination.toCursorPage(rows, pageSize, sortField, this::mapToDTO, total);
+    }
+
+    private static Specification<Course> isPublished() {
+        return (root, query, cb) -> cb.isTrue(root.get("isPublished"));
+    }
+
+    // Keeps the static export, sitemap and lesson rankings in step with course writes
+    private void courseChanged(String slug) {
+        siteExportService.markCourseChanged(slug);
+        seoFeedService.invalidate();
+        topRatedService.requestRebuild();
+    }
+
     private CourseDTO mapToDTO(Course course) {
         return CourseDTO.builder()
                 .id(course.getId())
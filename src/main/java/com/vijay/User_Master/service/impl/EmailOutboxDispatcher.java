@@ -0,0 +1,224 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.entity.EmailOutbox;
+import com.vijay.User_Master.repository.EmailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends queued emails from the outbox on one dedicated thread.
+ * <p>
+ * Each pass claims up to {@code batch-size} due rows and hands them to SMTP in a single
+ * {@code send(MimeMessage...)} call, so the batch shares one connection. A failed message is retried
+ * with exponential backoff and given up on after {@code max-attempts}. Passes start right after an
+ * email is queued and on a fixed poll, which also picks up retries and rows queued on other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String mailFrom;
+
+    @Value("${app.mail-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail-outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail-outbox.base-backoff-ms:30000}")
+    private long baseBackoffMillis;
+
+    @Value("${app.mail-outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMillis;
+
+    // How long a claimed row stays invisible to other dispatchers while it is being sent
+    @Value("${app.mail-outbox.lease-ms:300000}")
+    private long leaseMillis;
+
+    @Value("${app.mail-outbox.retention-ms:604800000}")
+    private long retentionMillis;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mail-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean passQueued = new AtomicBoolean();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public record Stats(long sent, long retried, long failed, long batches, long pending, long dead) {
+    }
+
+    /**
+     * Starts a pass on the dispatcher thread unless one is already waiting to run.
+     */
+    public void wake() {
+        if (passQueued.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail-outbox.poll-ms:10000}")
+    public void poll() {
+        wake();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail-outbox.cleanup-ms:3600000}")
+    public void deleteSent() {
+        int deleted = outboxRepository.deleteByStatusAndSentAtBefore(EmailOutbox.Status.SENT,
+                Instant.now().minusMillis(retentionMillis));
+        if (deleted > 0) {
+            log.info("Deleted {} sent emails from the outbox", deleted);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(sent.sum(), retried.sum(), failed.sum(), batches.sum(),
+                outboxRepository.countByStatus(EmailOutbox.Status.PENDING),
+                outboxRepository.countByStatus(EmailOutbox.Status.FAILED));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void drain() {
+        // Cleared first, so an email queued during this pass starts another one
+        passQueued.set(false);
+        try {
+            while (dispatchBatch() == batchSize) {
+                // A full batch may mean more are due
+            }
+        } catch (Exception e) {
+            log.error("Email outbox pass failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int dispatchBatch() {
+        Instant now = Instant.now();
+        List<EmailOutbox> due = outboxRepository.findDue(EmailOutbox.Status.PENDING, now,
+                PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Instant leaseUntil = now.plusMillis(leaseMillis);
+        // MimeMessage keeps identity equality, so a linked map is keyed per message and keeps queue order
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        List<EmailOutbox> done = new ArrayList<>();
+        for (EmailOutbox email : due) {
+            if (outboxRepository.claim(email.getId(), EmailOutbox.Status.PENDING,
+                    email.getNextAttemptAt(), leaseUntil) == 0) {
+                continue;
+            }
+            try {
+                messages.put(toMessage(email), email);
+            } catch (Exception e) {
+                recordFailure(email, e, now);
+                done.add(email);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        if (!messages.isEmpty()) {
+            batches.increment();
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                if (failures.isEmpty()) {
+                    failures = allFailed(messages, e);
+                }
+            } catch (MailException e) {
+                // Connection or authentication failure: nothing in the batch went out
+                failures = allFailed(messages, e);
+            }
+        }
+
+        Instant finished = Instant.now();
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            EmailOutbox email = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                email.setStatus(EmailOutbox.Status.SENT);
+                email.setSentAt(finished);
+                email.setLastError(null);
+                sent.increment();
+            } else {
+                recordFailure(email, failure, finished);
+            }
+            done.add(email);
+        }
+        outboxRepository.saveAll(done);
+        return due.size();
+    }
+
+    private MimeMessage toMessage(EmailOutbox email) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message);
+        if (email.getTitle() != null) {
+            helper.setFrom(mailFrom, email.getTitle());
+        } else {
+            helper.setFrom(mailFrom);
+        }
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
+        return message;
+    }
+
+    private void recordFailure(EmailOutbox email, Exception failure, Instant now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String error = String.valueOf(failure.getMessage());
+        email.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.FAILED);
+            failed.increment();
+            log.error("Giving up on email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(),
+                    attempts, error);
+            return;
+        }
+        long backoff = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempts - 1, 20));
+        email.setNextAttemptAt(now.plusMillis(backoff));
+        retried.increment();
+        log.warn("Email {} to {} failed (attempt {}), retrying in {} ms: {}", email.getId(), email.getRecipient(),
+                attempts, backoff, error);
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutbox> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+}
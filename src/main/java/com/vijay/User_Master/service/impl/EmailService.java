@@ -1,31 +1,42 @@
 package com.vijay.User_Master.service.impl;
 
+import com.vijay.User_Master.Helper.TransactionUtils;
 import com.vijay.User_Master.dto.form.EmailForm;
-import jakarta.mail.internet.MimeMessage;
+import com.vijay.User_Master.entity.EmailOutbox;
+import com.vijay.User_Master.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
+/**
+ * Queues emails in the outbox instead of talking to SMTP. The row joins the caller's transaction, so
+ * the email exists only if the change it announces was committed; {@link EmailOutboxDispatcher} sends
+ * it once the transaction commits.
+ */
 @Component
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String mailFrom;
-    public void sendEmail(EmailForm emailReq) throws Exception {
+    private EmailOutboxRepository outboxRepository;
 
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message);
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
 
-        helper.setFrom(mailFrom, emailReq.getTitle());
-        helper.setTo(emailReq.getTo());
-        helper.setSubject(emailReq.getSubject());
-        helper.setText(emailReq.getMessage(),true);
-        mailSender.send(message);
+    @Transactional(rollbackFor = Exception.class)
+    public void sendEmail(EmailForm emailReq) throws Exception {
+        Instant now = Instant.now();
+        outboxRepository.save(EmailOutbox.builder()
+                .recipient(emailReq.getTo())
+                .subject(emailReq.getSubject())
+                .title(emailReq.getTitle())
+                .body(emailReq.getMessage())
+                .status(EmailOutbox.Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        TransactionUtils.afterCommit(dispatcher::wake);
     }
 
 }
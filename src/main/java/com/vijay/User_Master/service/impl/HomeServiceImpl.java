@@ -1,5 +1,6 @@
 package com.vijay.User_Master.service.impl;
 
+import com.vijay.User_Master.config.security.UserDetailsCache;
 import com.vijay.User_Master.dto.form.EmailForm;
 import com.vijay.User_Master.entity.AccountStatus;
 import com.vijay.User_Master.entity.User;
@@ -10,6 +11,7 @@ import com.vijay.User_Master.service.HomeService;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
@@ -19,8 +21,10 @@ public class HomeServiceImpl implements HomeService {
 
     private UserRepository userRepo;
     private EmailService emailService;
+    private UserDetailsCache userDetailsCache;
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Boolean verifyAccount(Long uid, String verificationCode) throws Exception {
         log.info("Verifying account for user ID: {}", uid);
         User user = userRepo.findById(uid)
@@ -37,6 +41,8 @@ public class HomeServiceImpl implements HomeService {
             status.setIsActive(true);
             status.setVerificationCode(null);
             User verifiedUser = userRepo.save(user);
+            // Login reads the status from the cached principal
+            userDetailsCache.invalidateUser(uid);
             sendMailSuccessMessageToUser(verifiedUser);
             log.info("Account verification successful for user ID: {}", uid);
             return true;
@@ -0,0 +1,382 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.entity.RefreshToken;
+import com.vijay.User_Master.exceptions.exception.InvalidTokenException;
+import com.vijay.User_Master.exceptions.exception.TokenExpiredException;
+import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
+import com.vijay.User_Master.repository.RefreshTokenRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.service.RefreshTokenStore;
+import com.vijay.User_Master.service.TokenRevocationService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh tokens held in memory and written through to the refresh_token table.
+ * <p>
+ * Issuing, rotating and verifying touch only the maps; the matching insert or delete is queued on a
+ * single writer thread, so writes land in the order they were made. A token missing from memory
+ * (after a restart, or issued by another instance) is read through from the table once. Rotated-out
+ * tokens are remembered until they would have expired, so presenting one again is recognised as
+ * reuse: the family is dropped and the account's access tokens are revoked. A time-ordered index
+ * lets the sweeper drop expired entries without scanning the maps.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final WorkerRepository workerRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.refresh-token.ttl-ms:604800000}")
+    private long ttlMillis;
+
+    // Live tokens by hash, and the live hash of each account (one per account)
+    private final Map<String, StoredToken> live = new ConcurrentHashMap<>();
+    private final Map<String, String> liveByOwner = new ConcurrentHashMap<>();
+    // Rotated-out tokens by hash, kept until their original expiry for reuse detection
+    private final Map<String, StoredToken> retired = new ConcurrentHashMap<>();
+    // Expiry index over both maps, soonest first
+    private final NavigableSet<Expiry> expiries = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Expiry::atMillis).thenComparing(Expiry::tokenHash));
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Expiry(long atMillis, String tokenHash) {
+    }
+
+    @Override
+    public IssuedToken issue(String username, String email, Long userId, Long workerId, List<String> roles) {
+        String token = newToken();
+        Instant now = Instant.now();
+        StoredToken stored = new StoredToken(RefreshTokenStore.hash(token), UUID.randomUUID().toString(),
+                username, email, userId, workerId, roles, now, now.plusMillis(ttlMillis));
+        // A new login replaces the account's live token, as the one-row-per-account table always has
+        liveByOwner.compute(owner(stored), (owner, replaced) -> {
+            if (replaced != null) {
+                live.remove(replaced);
+            }
+            putLive(stored);
+            return stored.tokenHash();
+        });
+        write(() -> saveRow(stored, null));
+        return new IssuedToken(token, stored);
+    }
+
+    @Override
+    public IssuedToken rotate(String token) {
+        String hash = RefreshTokenStore.hash(token);
+        StoredToken current = lookup(hash, token);
+        checkExpiry(current);
+
+        String nextToken = newToken();
+        StoredToken next = new StoredToken(RefreshTokenStore.hash(nextToken), current.family(),
+                current.username(), current.email(), current.userId(), current.workerId(),
+                current.roles(), current.accountAsOf(), Instant.now().plusMillis(ttlMillis));
+        boolean[] rotated = new boolean[1];
+        liveByOwner.compute(owner(current), (owner, liveHash) -> {
+            if (!hash.equals(liveHash)) {
+                return liveHash;
+            }
+            live.remove(hash);
+            retired.put(hash, current);
+            putLive(next);
+            rotated[0] = true;
+            return next.tokenHash();
+        });
+        if (!rotated[0]) {
+            // Another request rotated the same token first, or a new login replaced it
+            if (retired.containsKey(hash)) {
+                throw reuse(current, false);
+            }
+            throw new TokenNotFoundException("Refresh token not found");
+        }
+        write(() -> saveRow(next, hash));
+        return new IssuedToken(nextToken, next);
+    }
+
+    @Override
+    public StoredToken verify(String token) {
+        StoredToken stored = lookup(RefreshTokenStore.hash(token), token);
+        checkExpiry(stored);
+        return stored;
+    }
+
+    @Override
+    public StoredToken updateAccount(StoredToken stored, String username, String email, List<String> roles) {
+        StoredToken updated = new StoredToken(stored.tokenHash(), stored.family(), username, email,
+                stored.userId(), stored.workerId(), roles, Instant.now(), stored.expiresAt());
+        // Memory only: the row keeps its username, and a token read back from it has no roles anyway
+        liveByOwner.computeIfPresent(owner(stored), (owner, liveHash) -> {
+            if (liveHash.equals(stored.tokenHash())) {
+                live.put(liveHash, updated);
+            }
+            return liveHash;
+        });
+        return updated;
+    }
+
+    @Override
+    public boolean revoke(String token) {
+        String hash = RefreshTokenStore.hash(token);
+        StoredToken stored;
+        try {
+            stored = lookup(hash, token);
+        } catch (TokenNotFoundException | InvalidTokenException e) {
+            return false;
+        }
+        dropLive(stored);
+        return true;
+    }
+
+    @Override
+    public void revokeAccount(Long userId, Long workerId) {
+        String owner = userId != null
+                ? TokenRevocationService.userSubject(userId)
+                : TokenRevocationService.workerSubject(workerId);
+        liveByOwner.computeIfPresent(owner, (key, liveHash) -> {
+            live.remove(liveHash);
+            return null;
+        });
+        // Always, since the row may belong to a token this instance never saw
+        write(() -> deleteRows(userId, workerId));
+    }
+
+    /**
+     * Drops expired entries from memory, soonest expiry first, stopping at the first live one.
+     */
+    @Scheduled(fixedDelayString = "${app.refresh-token.sweep-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        Expiry expiry;
+        while ((expiry = expiries.pollFirst()) != null) {
+            if (expiry.atMillis() > now) {
+                expiries.add(expiry);
+                break;
+            }
+            retired.remove(expiry.tokenHash());
+            StoredToken stored = live.get(expiry.tokenHash());
+            if (stored != null) {
+                liveByOwner.computeIfPresent(owner(stored), (owner, liveHash) -> {
+                    if (!liveHash.equals(stored.tokenHash())) {
+                        return liveHash;
+                    }
+                    live.remove(liveHash);
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Deletes expired rows, including those of tokens that were never presented again.
+     */
+    @Scheduled(fixedDelayString = "${app.refresh-token.table-sweep-ms:3600000}")
+    public void sweepTable() {
+        write(() -> {
+            int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+            if (deleted > 0) {
+                log.info("Deleted {} expired refresh tokens", deleted);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let queued writes land before the datasource closes
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Refresh token writes still pending at shutdown");
+        }
+    }
+
+    private StoredToken lookup(String hash, String token) {
+        StoredToken stored = live.get(hash);
+        if (stored != null) {
+            return stored;
+        }
+        StoredToken rotatedOut = retired.get(hash);
+        if (rotatedOut != null) {
+            throw reuse(rotatedOut, false);
+        }
+        return readThrough(hash, token);
+    }
+
+    private StoredToken readThrough(String hash, String token) {
+        // Rows written before hashing hold the raw token
+        Optional<RefreshToken> row = refreshTokenRepository.findByToken(hash)
+                .or(() -> refreshTokenRepository.findByToken(token));
+        if (row.isEmpty()) {
+            Optional<RefreshToken> successor = refreshTokenRepository.findByPreviousToken(hash);
+            if (successor.isPresent()) {
+                throw reuse(toStored(successor.get(), successor.get().getToken()), true);
+            }
+            throw new TokenNotFoundException("Refresh token not found");
+        }
+        RefreshToken entity = row.get();
+        if (!(entity.getUser() != null ^ entity.getWorker() != null)) {
+            throw new InvalidTokenException("Invalid token type configuration");
+        }
+        StoredToken stored = toStored(entity, hash);
+        liveByOwner.compute(owner(stored), (owner, liveHash) -> {
+            StoredToken inMemory = liveHash != null ? live.get(liveHash) : null;
+            // Keep whichever was issued last; the memory copy may not have been written yet
+            if (inMemory != null && !inMemory.expiresAt().isBefore(stored.expiresAt())) {
+                return liveHash;
+            }
+            if (liveHash != null) {
+                live.remove(liveHash);
+            }
+            putLive(stored);
+            return hash;
+        });
+        return stored;
+    }
+
+    /**
+     * Revokes the family of a reused token. {@code familyInTable} is set when the table showed the
+     * family still live, which counts even if this instance holds nothing for the account.
+     */
+    private InvalidTokenException reuse(StoredToken presented, boolean familyInTable) {
+        String owner = owner(presented);
+        boolean[] revoked = new boolean[1];
+        // Only the family the reused token belongs to; a later login started a family of its own
+        liveByOwner.compute(owner, (key, liveHash) -> {
+            StoredToken current = liveHash != null ? live.get(liveHash) : null;
+            if (current == null) {
+                revoked[0] = familyInTable;
+                return null;
+            }
+            if (!current.family().equals(presented.family())) {
+                return liveHash;
+            }
+            live.remove(liveHash);
+            revoked[0] = true;
+            return null;
+        });
+        if (revoked[0]) {
+            write(() -> deleteRows(presented.userId(), presented.workerId()));
+            tokenRevocationService.revoke(owner);
+            log.warn("Refresh token reuse detected for {}; token family revoked", owner);
+        }
+        return new InvalidTokenException("Refresh token has already been used");
+    }
+
+    private void checkExpiry(StoredToken stored) {
+        if (stored.expiresAt().isBefore(Instant.now())) {
+            dropLive(stored);
+            throw new TokenExpiredException("Refresh token expired");
+        }
+    }
+
+    private void dropLive(StoredToken stored) {
+        boolean[] dropped = new boolean[1];
+        liveByOwner.computeIfPresent(owner(stored), (owner, liveHash) -> {
+            if (!liveHash.equals(stored.tokenHash())) {
+                return liveHash;
+            }
+            live.remove(liveHash);
+            dropped[0] = true;
+            return null;
+        });
+        if (dropped[0]) {
+            write(() -> deleteRows(stored.userId(), stored.workerId()));
+        }
+    }
+
+    private void putLive(StoredToken stored) {
+        live.put(stored.tokenHash(), stored);
+        expiries.add(new Expiry(stored.expiresAt().toEpochMilli(), stored.tokenHash()));
+    }
+
+    private void saveRow(StoredToken stored, String previousHash) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            deleteRows(stored.userId(), stored.workerId());
+            refreshTokenRepository.save(RefreshToken.builder()
+                    .token(stored.tokenHash())
+                    .family(stored.family())
+                    .previousToken(previousHash)
+                    .expiryDate(stored.expiresAt())
+                    .username(stored.username())
+                    .email(stored.email())
+                    .user(stored.userId() != null ? userRepository.getReferenceById(stored.userId()) : null)
+                    .worker(stored.workerId() != null ? workerRepository.getReferenceById(stored.workerId()) : null)
+                    .build());
+        });
+    }
+
+    private void deleteRows(Long userId, Long workerId) {
+        if (userId != null) {
+            refreshTokenRepository.deleteByUserId(userId);
+        } else if (workerId != null) {
+            refreshTokenRepository.deleteByWorkerId(workerId);
+        }
+    }
+
+    private void write(Runnable action) {
+        writer.execute(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("Refresh token write failed", e);
+            }
+        });
+    }
+
+    private static StoredToken toStored(RefreshToken entity, String tokenHash) {
+        return new StoredToken(
+                tokenHash,
+                entity.getFamily() != null ? entity.getFamily() : UUID.randomUUID().toString(),
+                entity.getUsername(),
+                entity.getEmail(),
+                entity.getUser() != null ? entity.getUser().getId() : null,
+                entity.getWorker() != null ? entity.getWorker().getId() : null,
+                null,
+                null,
+                entity.getExpiryDate());
+    }
+
+    private static String owner(StoredToken stored) {
+        return stored.userId() != null
+                ? TokenRevocationService.userSubject(stored.userId())
+                : TokenRevocationService.workerSubject(stored.workerId());
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -1,175 +1,141 @@
 package com.vijay.User_Master.service.impl;
 
-import com.vijay.User_Master.config.security.CustomUserDetailsService;
+import com.vijay.User_Master.config.security.CustomUserDetails;
 import com.vijay.User_Master.config.security.JwtTokenProvider;
 import com.vijay.User_Master.dto.*;
-import com.vijay.User_Master.entity.RefreshToken;
-import com.vijay.User_Master.exceptions.ResourceNotFoundException;
-import com.vijay.User_Master.exceptions.exception.InvalidTokenException;
-import com.vijay.User_Master.exceptions.exception.TokenExpiredException;
 import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
-import com.vijay.User_Master.repository.RefreshTokenRepository;
+import com.vijay.User_Master.exceptions.exception.TokenRefreshException;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.WorkerRepository;
 import com.vijay.User_Master.service.RefreshTokenService;
+import com.vijay.User_Master.service.RefreshTokenStore;
+import com.vijay.User_Master.service.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.util.Set;
-import java.util.UUID;
+import java.util.List;
+
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final UserRepository userRepository;
     private final WorkerRepository workerRepository;
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
-    private final ModelMapper modelMapper;
-
-    private static final long REFRESH_TOKEN_EXPIRATION_DAYS = 7;
+    private final TokenRevocationService tokenRevocationService;
 
 
     @Override
     public JwtResponse refreshAccessToken(RefreshTokenRequest request) {
-        RefreshTokenDto verifiedToken = verifyRefreshToken(
-                RefreshTokenDto.builder().refreshToken(request.getRefreshToken()).build());
-
-        TokenUserDetails userDetails = resolveTokenUserDetails(verifiedToken);
-
-        String newAccessToken = generateAccessToken(userDetails);
-        RefreshTokenDto newRefreshToken = createRefreshToken(
-                userDetails.getUsername(),
-                userDetails.getEmail(),
-                userDetails.getUserId(),
-                userDetails.getWorkerId()
-        );
+        if (request == null || request.getRefreshToken() == null) {
+            throw new TokenNotFoundException("Refresh token is null");
+        }
+        RefreshTokenStore.IssuedToken rotated = refreshTokenStore.rotate(request.getRefreshToken());
+        RefreshTokenStore.StoredToken stored = rotated.stored();
+
+        // The access token is minted from the account kept with the refresh token. It is loaded by id
+        // only when the table had no roles for it, or when a revocation since (username, password or
+        // role change, deactivation, deletion) means the kept details may be stale.
+        CustomUserDetails principal = principalOf(stored);
+        if (principal == null
+                || tokenRevocationService.isRevoked(null, principal, stored.accountAsOf().toEpochMilli())) {
+            CustomUserDetails account = loadAccount(stored);
+            stored = refreshTokenStore.updateAccount(stored, account.getUsername(), account.getEmail(),
+                    JwtTokenProvider.roleNames(account));
+            principal = principalOf(stored);
+        }
+        String newAccessToken = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
 
-        return buildJwtResponse(newAccessToken, newRefreshToken, userDetails);
+        return JwtResponse.builder()
+                .jwtToken(newAccessToken)
+                .refreshTokenDto(toDto(rotated.token(), stored))
+                .principal(toPrincipalResponse(principal, stored.email()))
+                .build();
     }
 
     @Override
-    public RefreshTokenDto createRefreshToken(String username, String email, Long userId, Long workerId) {
+    public RefreshTokenDto createRefreshToken(String username, String email, Long userId, Long workerId,
+                                              List<String> roles) {
         log.info("Creating refresh token for: {}", username);
-
-        if (userId != null) {
-            refreshTokenRepository.deleteByUserId(userId);
-        } else if (workerId != null) {
-            refreshTokenRepository.deleteByWorkerId(workerId);
-        }
-
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusSeconds(REFRESH_TOKEN_EXPIRATION_DAYS * 24 * 60 * 60))
-                .username(username)
-                .email(email)
-                .user(userId != null ? userRepository.getReferenceById(userId) : null)
-                .worker(workerId != null ? workerRepository.getReferenceById(workerId) : null)
-                .build();
-
-        return modelMapper.map(refreshTokenRepository.save(refreshToken), RefreshTokenDto.class);
-
+        RefreshTokenStore.IssuedToken issued = refreshTokenStore.issue(username, email, userId, workerId, roles);
+        return toDto(issued.token(), issued.stored());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public RefreshTokenDto verifyRefreshToken(RefreshTokenDto refreshTokenDto) {
         if (refreshTokenDto == null || refreshTokenDto.getRefreshToken() == null) {
             throw new TokenNotFoundException("Refresh token is null");
         }
+        RefreshTokenStore.StoredToken stored = refreshTokenStore.verify(refreshTokenDto.getRefreshToken());
+        return toDto(refreshTokenDto.getRefreshToken(), stored);
+    }
 
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenDto.getRefreshToken())
-                .orElseThrow(() -> new TokenNotFoundException("Refresh token not found"));
-
-        if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(refreshToken);
-            throw new TokenExpiredException("Refresh token expired");
-        }
-
-        if (!(refreshToken.getUser() != null ^ refreshToken.getWorker() != null)) {
-            throw new InvalidTokenException("Invalid token type configuration");
+    @Override
+    public void invalidateRefreshToken(String token) {
+        if (token == null || !refreshTokenStore.revoke(token)) {
+            throw new TokenNotFoundException("Token not found");
         }
-
-        return modelMapper.map(refreshToken, RefreshTokenDto.class);
     }
 
     @Override
-    @Transactional
-    public void invalidateRefreshToken(String token) {
-        refreshTokenRepository.findByToken(token)
-                .ifPresentOrElse(
-                        refreshTokenRepository::delete,
-                        () -> {
-                            throw new TokenNotFoundException("Token not found");
-                        }
-                );
+    public void invalidateRefreshTokens(Long userId, Long workerId) {
+        refreshTokenStore.revokeAccount(userId, workerId);
     }
 
-    private TokenUserDetails resolveTokenUserDetails(RefreshTokenDto verifiedToken) {
-        if (verifiedToken.getUserId() != null) {
-            return userRepository.findById(verifiedToken.getUserId())
-                    .map(user -> new TokenUserDetails(
-                            user.getUsername(),
-                            user.getEmail(),
-                            user.getId(),
-                            null,
-                            user.getRoles()
-                    ))
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", verifiedToken.getUserId()));
-        } else {
-            return workerRepository.findById(verifiedToken.getWorkerId())
-                    .map(worker -> new TokenUserDetails(
-                            worker.getUsername(),
-                            worker.getEmail(),
-                            null,
-                            worker.getId(),
-                            worker.getRoles()
-                    ))
-                    .orElseThrow(() -> new ResourceNotFoundException("Worker", "id", verifiedToken.getWorkerId()));
-        }
+    private static RefreshTokenDto toDto(String token, RefreshTokenStore.StoredToken stored) {
+        return RefreshTokenDto.builder()
+                .refreshToken(token)
+                .expiryDate(stored.expiresAt())
+                .username(stored.username())
+                .email(stored.email())
+                .userId(stored.userId())
+                .workerId(stored.workerId())
+                .build();
     }
 
-    private String generateAccessToken(TokenUserDetails userDetails) {
-        UserDetails springUserDetails = customUserDetailsService.loadUserByUsername(userDetails.getUsername());
-        return jwtTokenProvider.generateToken(
-                new UsernamePasswordAuthenticationToken(
-                        springUserDetails,
-                        null,
-                        springUserDetails.getAuthorities()
-                )
-        );
+    private static CustomUserDetails principalOf(RefreshTokenStore.StoredToken stored) {
+        if (stored.roles() == null) {
+            return null;
+        }
+        boolean worker = stored.userId() == null;
+        return CustomUserDetails.fromClaims(worker ? stored.workerId() : stored.userId(), stored.username(),
+                worker, stored.roles());
     }
 
-    private JwtResponse buildJwtResponse(String accessToken, RefreshTokenDto refreshToken, TokenUserDetails userDetails) {
-        return JwtResponse.builder()
-                .jwtToken(accessToken)
-                .refreshTokenDto(refreshToken)
-                .principal(buildPrincipalResponse(userDetails))
-                .build();
+    // A deactivated, deleted or removed account loses its refresh token instead of getting a new access token
+    private CustomUserDetails loadAccount(RefreshTokenStore.StoredToken stored) {
+        CustomUserDetails account = stored.userId() != null
+                ? userRepository.findById(stored.userId()).map(CustomUserDetails::build).orElse(null)
+                : workerRepository.findById(stored.workerId()).map(CustomUserDetails::build).orElse(null);
+        if (account == null || account.isDeleted() || account.getAccountStatus() == null
+                || !Boolean.TRUE.equals(account.getAccountStatus().getIsActive())) {
+            refreshTokenStore.revokeAccount(stored.userId(), stored.workerId());
+            throw new TokenRefreshException("Account is no longer active");
+        }
+        return account;
     }
 
-    private Object buildPrincipalResponse(TokenUserDetails userDetails) {
-        if (userDetails.getUserId() != null) {
-            return modelMapper.map(
-                    userRepository.findById(userDetails.getUserId())
-                            .orElseThrow(() -> new ResourceNotFoundException("User", "id", userDetails.getUserId())),
-                    UserResponse.class
-            );
-        } else {
-            return modelMapper.map(
-                    workerRepository.findById(userDetails.getWorkerId())
-                            .orElseThrow(() -> new ResourceNotFoundException("Worker", "id", userDetails.getWorkerId())),
-                    WorkerResponse.class
-            );
+    // Only what the refresh entry knows; the full account is at /api/auth/current-user
+    private static Object toPrincipalResponse(CustomUserDetails principal, String email) {
+        if (principal.isWorker()) {
+            return WorkerResponse.builder()
+                    .id(principal.getId())
+                    .username(principal.getUsername())
+                    .email(email)
+                    .roles(principal.getRoles())
+                    .build();
         }
+        return UserResponse.builder()
+                .id(principal.getId())
+                .username(principal.getUsername())
+                .email(email)
+                .roles(principal.getRoles())
+                .build();
     }
 }
@@ -1,5 +1,6 @@
 package com.vijay.User_Master.service.impl;
 
+import com.vijay.User_Master.config.security.UserDetailsCache;
 import com.vijay.User_Master.dto.RoleRequest;
 import com.vijay.User_Master.dto.RoleResponse;
 import com.vijay.User_Master.dto.RoleUpdateRequest;
@@ -11,6 +12,7 @@ import com.vijay.User_Master.exceptions.ResourceNotFoundException;
 import com.vijay.User_Master.repository.RoleRepository;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.service.RoleManagementService;
+import com.vijay.User_Master.service.TokenRevocationService;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
@@ -35,6 +37,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final ModelMapper mapper;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
 
     // ============= BASIC ROLE CRUD OPERATIONS =============
 
@@ -105,6 +109,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
                             throw new IllegalArgumentException("Role with name '" + roleRequest.getName() + "' already exists");
                         }
                     });
+            if (!roleRequest.getName().equals(role.getName())) {
+                tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+                userDetailsCache.invalidateAll();
+            }
             role.setName(roleRequest.getName());
         }
         
@@ -128,6 +136,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         // Soft delete
         role.setDeleted(true);
         role.setActive(false);
+        tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+        userDetailsCache.invalidateAll();
         roleRepository.save(role);
         
         log.info("Role with ID '{}' deleted successfully", roleId);
@@ -168,11 +178,19 @@ public class RoleManagementServiceImpl implements RoleManagementService {
                             throw new IllegalArgumentException("Role with name '" + updateRequest.getName() + "' already exists");
                         }
                     });
+            if (!updateRequest.getName().equals(role.getName())) {
+                tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+                userDetailsCache.invalidateAll();
+            }
             role.setName(updateRequest.getName());
         }
         
         if (updateRequest.getIsActive() != null) {
             role.setActive(updateRequest.getIsActive());
+            if (!updateRequest.getIsActive()) {
+                tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+                userDetailsCache.invalidateAll();
+            }
         }
         
         Role savedRole = roleRepository.save(role);
@@ -204,6 +222,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("Role", "id", roleId));
         
         role.setActive(false);
+        tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+        userDetailsCache.invalidateAll();
         roleRepository.save(role);
         
         log.info("Role with ID: {} deactivated successfully", roleId);
@@ -236,6 +256,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         user.getRoles().addAll(rolesToAssign);
         
         User savedUser = userRepository.save(user);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(savedUser.getId()));
+        userDetailsCache.invalidateUser(savedUser.getId());
         log.info("Roles assigned successfully to user with ID: {}", userRoleRequest.getUserId());
         
         return mapper.map(savedUser, UserResponse.class);
@@ -260,6 +282,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         }
         
         User savedUser = userRepository.save(user);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(savedUser.getId()));
+        userDetailsCache.invalidateUser(savedUser.getId());
         log.info("Roles removed successfully from user with ID: {}", userRoleRequest.getUserId());
         
         return mapper.map(savedUser, UserResponse.class);
@@ -287,6 +311,8 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         user.setRoles(newRoles);
         
         User savedUser = userRepository.save(user);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(savedUser.getId()));
+        userDetailsCache.invalidateUser(savedUser.getId());
         log.info("Roles replaced successfully for user with ID: {}", userRoleRequest.getUserId());
         
         return mapper.map(savedUser, UserResponse.class);
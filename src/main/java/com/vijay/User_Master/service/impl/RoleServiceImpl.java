@@ -1,5 +1,6 @@
 package com.vijay.User_Master.service.impl;
 
+import com.vijay.User_Master.config.security.UserDetailsCache;
 import com.vijay.User_Master.dto.RoleRequest;
 import com.vijay.User_Master.dto.RoleResponse;
 import com.vijay.User_Master.dto.RoleUpdateRequest;
@@ -11,6 +12,7 @@ import com.vijay.User_Master.exceptions.ResourceNotFoundException;
 import com.vijay.User_Master.repository.RoleRepository;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.service.RoleService;
+import com.vijay.User_Master.service.TokenRevocationService;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
@@ -30,6 +32,8 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final ModelMapper mapper;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
 
     // Create Role For Users
     @Override
@@ -100,6 +104,10 @@ public class RoleServiceImpl implements RoleService {
 
             // Update fields only if provided in the request
             if (request.getName() != null) {
+                if (!request.getName().equals(role.getName())) {
+                    tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+                    userDetailsCache.invalidateAll();
+                }
                 role.setName(request.getName());
             }
             // Save the updated role
@@ -128,6 +136,8 @@ public class RoleServiceImpl implements RoleService {
                     });
 
             // Delete the role
+            tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+            userDetailsCache.invalidateAll();
             roleRepository.delete(role);
 
             // Log success
@@ -159,10 +169,18 @@ public class RoleServiceImpl implements RoleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Role", "id", roleId));
         
         if (updateRequest.getName() != null) {
+            if (!updateRequest.getName().equals(role.getName())) {
+                tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+                userDetailsCache.invalidateAll();
+            }
             role.setName(updateRequest.getName());
         }
         if (updateRequest.getIsActive() != null) {
             role.setActive(updateRequest.getIsActive());
+            if (!updateRequest.getIsActive()) {
+                tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+                userDetailsCache.invalidateAll();
+            }
         }
         
         Role savedRole = roleRepository.save(role);
@@ -192,6 +210,8 @@ public class RoleServiceImpl implements RoleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Role", "id", roleId));
         
         role.setActive(false);
+        tokenRevocationService.revoke(TokenRevocationService.roleSubject(role.getName()));
+        userDetailsCache.invalidateAll();
         roleRepository.save(role);
         
         log.info("Role with ID: {} deactivated successfully", roleId);
@@ -216,6 +236,8 @@ public class RoleServiceImpl implements RoleService {
         user.getRoles().addAll(rolesToAssign);
         
         User savedUser = userRepository.save(user);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(savedUser.getId()));
+        userDetailsCache.invalidateUser(savedUser.getId());
         log.info("Roles assigned successfully to user with ID: {}", userRoleRequest.getUserId());
         
         return mapper.map(savedUser, UserResponse.class);
@@ -239,6 +261,8 @@ public class RoleServiceImpl implements RoleService {
         }
         
         User savedUser = userRepository.save(user);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(savedUser.getId()));
+        userDetailsCache.invalidateUser(savedUser.getId());
         log.info("Roles removed successfully from user with ID: {}", userRoleRequest.getUserId());
         
         return mapper.map(savedUser, UserResponse.class);
@@ -260,6 +284,8 @@ public class RoleServiceImpl implements RoleService {
         user.setRoles(newRoles);
         
         User savedUser = userRepository.save(user);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(savedUser.getId()));
+        userDetailsCache.invalidateUser(savedUser.getId());
         log.info("Roles replaced successfully for user with ID: {}", userRoleRequest.getUserId());
         
         return mapper.map(savedUser, UserResponse.class);
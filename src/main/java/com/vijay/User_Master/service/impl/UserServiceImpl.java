@@ -1,6 +1,9 @@
 package com.vijay.User_Master.service.impl;
 
 import com.vijay.User_Master.Helper.Helper;
+import com.vijay.User_Master.Helper.KeysetPagination;
+import com.vijay.User_Master.config.security.UserDetailsCache;
+import com.vijay.User_Master.dto.CursorPageResponse;
 import com.vijay.User_Master.dto.PageableResponse;
 import com.vijay.User_Master.dto.UserRequest;
 import com.vijay.User_Master.dto.UserResponse;
@@ -13,6 +16,8 @@ import com.vijay.User_Master.exceptions.UserAlreadyExistsException;
 import com.vijay.User_Master.repository.AccountStatusRepository;
 import com.vijay.User_Master.repository.RoleRepository;
 import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.service.RefreshTokenService;
+import com.vijay.User_Master.service.TokenRevocationService;
 import com.vijay.User_Master.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -45,12 +50,18 @@ import java.util.stream.Collectors;
 @Log4j2
 public class UserServiceImpl implements UserService {
 
+    // Any signed-in user can page through users, so only non-sensitive columns; the cursor carries the value
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("id", "name", "username");
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserDetailsService userDetailsService;
     private final AccountStatusRepository accountStatusRepository;
     private final ModelMapper mapper;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenService refreshTokenService;
 
 
     @Transactional
@@ -67,6 +78,11 @@ public class UserServiceImpl implements UserService {
         user.setAccountStatus(accountStatus); // assign to user
 
         userRepository.save(user); // cascade should handle persist/update
+        userDetailsCache.invalidateUser(userId);
+        if (!Boolean.TRUE.equals(isActive)) {
+            tokenRevocationService.revoke(TokenRevocationService.userSubject(userId));
+            refreshTokenService.invalidateRefreshTokens(userId, null);
+        }
     }
 
 
@@ -102,6 +118,32 @@ public class UserServiceImpl implements UserService {
 
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
+        Page<User> usersPage = userRepository.findAll(buildUserFilter(isDeleted, isActive), pageable);
+        return Helper.getPageableResponse(usersPage, UserResponse.class);
+    }
+
+    @Override
+    public CursorPageResponse<UserResponse> getUsersByCursor(
+            String cursor, int pageSize, String sortBy, String sortDir,
+            Boolean isDeleted, Boolean isActive, boolean includeTotal) {
+
+        int limit = KeysetPagination.pageSize(pageSize);
+        String sortField = KeysetPagination.sortField(sortBy, CURSOR_SORT_FIELDS);
+        Sort.Direction direction = KeysetPagination.direction(sortDir);
+        Specification<User> filter = buildUserFilter(isDeleted, isActive);
+        Specification<User> spec = filter.and(
+                KeysetPagination.seek(sortField, direction, KeysetPagination.decodeCursor(cursor)));
+
+        List<User> rows = userRepository.findBy(spec, query -> query
+                .sortBy(KeysetPagination.keysetSort(sortField, direction))
+                .limit(limit + 1)
+                .all());
+        Long total = includeTotal ? userRepository.count(filter) : null;
+        return KeysetPagination.toCursorPage(rows, limit, sortField,
+                user -> mapper.map(user, UserResponse.class), total);
+    }
+
+    private Specification<User> buildUserFilter(Boolean isDeleted, Boolean isActive) {
         Specification<User> spec = Specification.where(null);
 
         if (isDeleted != null) {
@@ -112,9 +154,7 @@ public class UserServiceImpl implements UserService {
             spec = spec.and((root, query, cb) ->
                     cb.equal(root.join("accountStatus").get("isActive"), isActive));
         }
-
-        Page<User> usersPage = userRepository.findAll(spec, pageable);
-        return Helper.getPageableResponse(usersPage, UserResponse.class);
+        return spec;
     }
 
     @Override
@@ -143,6 +183,9 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("User not found"));
         user.setDeleted(true);
         userRepository.save(user);
+        userDetailsCache.invalidateUser(id);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(id));
+        refreshTokenService.invalidateRefreshTokens(id, null);
     }
 
 
@@ -151,13 +194,21 @@ public class UserServiceImpl implements UserService {
         User user = getUserOrThrow(id);
         user.setDeleted(false);
         userRepository.save(user);
+        userDetailsCache.invalidateUser(id);
     }
 
     @Override
     public void permanentlyDelete(Long id) {
         User user = getUserOrThrow(id);
         userRepository.delete(user);
+        userDetailsCache.invalidateUser(id);
+        tokenRevocationService.revoke(TokenRevocationService.userSubject(id));
+        refreshTokenService.invalidateRefreshTokens(id, null);
+    }
+    private static Set<String> roleNames(Set<Role> roles) {
+        return roles.stream().map(Role::getName).collect(Collectors.toSet());
     }
+
     private User getUserOrThrow(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
@@ -167,6 +218,10 @@ public class UserServiceImpl implements UserService {
     public UserResponse updateUser(Long id, UserRequest request) {
         User user=userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("USER", "ID", id));
+        // Access tokens carry the username and roles, so changing either (or the password) revokes them
+        boolean revokeTokens = false;
+        // A new password also ends the account's refresh token; username and role changes only need a reload
+        boolean passwordChanged = false;
 
         // Update username
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
@@ -174,6 +229,7 @@ public class UserServiceImpl implements UserService {
                 throw new UserAlreadyExistsException("Username is already taken");
             }
             user.setUsername(request.getUsername());
+            revokeTokens = true;
             log.info("This image name from user-service: {}", request.getImageName());
         }
 
@@ -197,16 +253,26 @@ public class UserServiceImpl implements UserService {
                     .map(roleName -> roleRepository.findByName(String.valueOf(roleName))
                             .orElseThrow(() -> new RuntimeException("Role not found with name: " + roleName)))
                     .collect(Collectors.toSet());
+            revokeTokens = revokeTokens || !roleNames(roles).equals(roleNames(user.getRoles()));
             user.setRoles(roles);
         }
 
         // Update password
         if (request.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            revokeTokens = true;
+            passwordChanged = true;
         }
 
         // Save and return updated user
         userRepository.save(user);
+        userDetailsCache.invalidateUser(id);
+        if (revokeTokens) {
+            tokenRevocationService.revoke(TokenRevocationService.userSubject(id));
+        }
+        if (passwordChanged) {
+            refreshTokenService.invalidateRefreshTokens(id, null);
+        }
         return mapper.map(user, UserResponse.class);
 
     }
@@ -3,6 +3,7 @@ package com.vijay.User_Master.service.impl;
 import com.vijay.User_Master.Helper.CommonUtils;
 import com.vijay.User_Master.Helper.Helper;
 import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.config.security.UserDetailsCache;
 import com.vijay.User_Master.dto.FavouriteEntryResponse;
 import com.vijay.User_Master.dto.PageableResponse;
 import com.vijay.User_Master.dto.UserResponse;
@@ -15,6 +16,8 @@ import com.vijay.User_Master.exceptions.ResourceNotFoundException;
 import com.vijay.User_Master.repository.FavouriteEntryRepo;
 import com.vijay.User_Master.repository.UserRepository;
 import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.service.RefreshTokenService;
+import com.vijay.User_Master.service.TokenRevocationService;
 import com.vijay.User_Master.service.WorkerUserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
@@ -40,6 +43,9 @@ public class WorkerUserServiceImpl implements WorkerUserService {
     private final WorkerRepository workerRepository;
     private final ModelMapper mapper;
     private final FavouriteEntryRepo favouriteEntryRepo;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenService refreshTokenService;
 
     // find user by id ... for Worker Entity
     @Override
@@ -64,6 +70,9 @@ public class WorkerUserServiceImpl implements WorkerUserService {
         accountStatus.setIsActive(false);
         worker.setAccountStatus(accountStatus);
         workerRepository.save(worker);
+        userDetailsCache.invalidateWorker(id);
+        tokenRevocationService.revoke(TokenRevocationService.workerSubject(id));
+        refreshTokenService.invalidateRefreshTokens(null, id);
     }
 
     // You can restore Item form recycle bin
@@ -80,6 +89,7 @@ public class WorkerUserServiceImpl implements WorkerUserService {
             worker.setAccountStatus(accountStatus);
 
             workerRepository.save(worker); // Save the restored worker
+            userDetailsCache.invalidateWorker(id);
         } else {
             throw new IllegalArgumentException("Worker with ID " + id + " is already present.");
         }
@@ -92,6 +102,7 @@ public class WorkerUserServiceImpl implements WorkerUserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Worker", "ID", id));
         if (worker.isDeleted()) {
             workerRepository.delete(worker); // deleting form recycle bin
+            userDetailsCache.invalidateWorker(id);
         } else {
             throw new IllegalArgumentException("Sorry You can't hard delete Directly");
         }
@@ -268,7 +279,11 @@ public class WorkerUserServiceImpl implements WorkerUserService {
         worker.setAccountStatus(accountStatus); // assign to user
 
         workerRepository.save(worker); // cascade should handle persist/update
-
+        userDetailsCache.invalidateWorker(userId);
+        if (!Boolean.TRUE.equals(isActive)) {
+            tokenRevocationService.revoke(TokenRevocationService.workerSubject(userId));
+            refreshTokenService.invalidateRefreshTokens(null, userId);
+        }
     }
 
 
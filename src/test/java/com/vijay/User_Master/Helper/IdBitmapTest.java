@@ -0,0 +1,107 @@
+package com.vijay.User_Master.Helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdBitmapTest {
+
+    private static List<Long> range(long from, long to) {
+        return LongStream.range(from, to).boxed().toList();
+    }
+
+    @Test
+    void ofKeepsEveryIdAcrossChunks() {
+        IdBitmap bitmap = IdBitmap.of(List.of(1L, 7L, 65_535L, 65_536L, 1_000_000L));
+
+        assertThat(bitmap.cardinality()).isEqualTo(5);
+        assertThat(bitmap.contains(65_535L)).isTrue();
+        assertThat(bitmap.contains(65_536L)).isTrue();
+        assertThat(bitmap.contains(1_000_000L)).isTrue();
+        assertThat(bitmap.contains(2L)).isFalse();
+        assertThat(bitmap.contains(null)).isFalse();
+        assertThat(bitmap.contains(-1L)).isFalse();
+    }
+
+    @Test
+    void ofDropsNullNegativeAndDuplicateIds() {
+        List<Long> ids = new ArrayList<>(List.of(3L, 3L, -5L));
+        ids.add(null);
+
+        IdBitmap bitmap = IdBitmap.of(ids);
+
+        assertThat(bitmap.cardinality()).isEqualTo(1);
+        assertThat(bitmap.contains(3L)).isTrue();
+        assertThat(IdBitmap.of(List.of())).isSameAs(IdBitmap.EMPTY);
+    }
+
+    @Test
+    void withCrossesTheArrayLimitAndKeepsMembership() {
+        // Every other id, so the chunk holds exactly 4096 before the next insert turns it into a bitmap
+        IdBitmap full = IdBitmap.of(LongStream.range(0, 4096).map(i -> i * 2).boxed().toList());
+        assertThat(full.cardinality()).isEqualTo(4096);
+
+        IdBitmap grown = full.with(1L);
+
+        assertThat(grown.cardinality()).isEqualTo(4097);
+        assertThat(grown.contains(1L)).isTrue();
+        assertThat(grown.contains(0L)).isTrue();
+        assertThat(grown.contains(8190L)).isTrue();
+        assertThat(grown.contains(3L)).isFalse();
+        assertThat(full.contains(1L)).isFalse();
+    }
+
+    @Test
+    void withoutShrinksBitmapBackToArrayAtTheLimit() {
+        IdBitmap bitmap = IdBitmap.of(range(0, 4097));
+        assertThat(bitmap.cardinality()).isEqualTo(4097);
+
+        IdBitmap shrunk = bitmap.without(100L);
+
+        assertThat(shrunk.cardinality()).isEqualTo(4096);
+        assertThat(shrunk.contains(100L)).isFalse();
+        assertThat(shrunk.contains(99L)).isTrue();
+        assertThat(shrunk.contains(4096L)).isTrue();
+        // Keeps working as an array container after the conversion
+        IdBitmap again = shrunk.with(100L).without(0L);
+        assertThat(again.cardinality()).isEqualTo(4096);
+        assertThat(again.contains(100L)).isTrue();
+        assertThat(again.contains(0L)).isFalse();
+        assertThat(bitmap.contains(100L)).isTrue();
+    }
+
+    @Test
+    void withAndWithoutAreNoOpsWhenNothingChanges() {
+        IdBitmap bitmap = IdBitmap.of(List.of(5L));
+
+        assertThat(bitmap.with(5L)).isSameAs(bitmap);
+        assertThat(bitmap.with(null)).isSameAs(bitmap);
+        assertThat(bitmap.with(-1L)).isSameAs(bitmap);
+        assertThat(bitmap.without(6L)).isSameAs(bitmap);
+    }
+
+    @Test
+    void withoutTheLastIdOfAChunkRemovesTheChunk() {
+        IdBitmap bitmap = IdBitmap.of(List.of(5L, 70_000L));
+
+        IdBitmap removed = bitmap.without(70_000L);
+
+        assertThat(removed.cardinality()).isEqualTo(1);
+        assertThat(removed.contains(70_000L)).isFalse();
+        assertThat(removed.without(5L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void withAddsChunksInKeyOrder() {
+        IdBitmap bitmap = IdBitmap.EMPTY.with(200_000L).with(5L).with(70_000L);
+
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+        assertThat(bitmap.contains(5L)).isTrue();
+        assertThat(bitmap.contains(70_000L)).isTrue();
+        assertThat(bitmap.contains(200_000L)).isTrue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.vijay.User_Master.Helper;
+
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.tutorial.TutorialSummaryDTO;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPaginationTest {
+
+    private static TutorialSummaryDTO row(Long id, Long viewCount, LocalDateTime updatedAt) {
+        return TutorialSummaryDTO.builder().id(id).viewCount(viewCount).updatedAt(updatedAt).build();
+    }
+
+    @Test
+    void cursorRoundTripsTheSortValue() {
+        String cursor = KeysetPagination.encodeCursor(row(42L, 1234L, null), "viewCount");
+
+        KeysetPagination.Cursor decoded = KeysetPagination.decodeCursor(cursor);
+
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.getValue()).isEqualTo("1234");
+    }
+
+    @Test
+    void cursorRoundTripsANullSortValue() {
+        String cursor = KeysetPagination.encodeCursor(row(42L, null, null), "viewCount");
+
+        KeysetPagination.Cursor decoded = KeysetPagination.decodeCursor(cursor);
+
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.getValue()).isNull();
+    }
+
+    @Test
+    void cursorRoundTripsTimestampsAndIdSort() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000);
+
+        KeysetPagination.Cursor byTime = KeysetPagination.decodeCursor(
+                KeysetPagination.encodeCursor(row(7L, null, updatedAt), "updatedAt"));
+        KeysetPagination.Cursor byId = KeysetPagination.decodeCursor(
+                KeysetPagination.encodeCursor(row(7L, null, null), "id"));
+
+        assertThat(LocalDateTime.parse(byTime.getValue())).isEqualTo(updatedAt);
+        assertThat(byId.getId()).isEqualTo(7L);
+        assertThat(byId.getValue()).isEqualTo("7");
+    }
+
+    @Test
+    void blankCursorMeansFirstPageAndGarbageIsRejected() {
+        assertThat(KeysetPagination.decodeCursor(null)).isNull();
+        assertThat(KeysetPagination.decodeCursor("")).isNull();
+        assertThatThrownBy(() -> KeysetPagination.decodeCursor("not a cursor"))
+                .isInstanceOf(BadApiRequestException.class);
+    }
+
+    @Test
+    void toCursorPageUsesTheExtraRowOnlyToSignalANextPage() {
+        List<TutorialSummaryDTO> rows = List.of(row(3L, 30L, null), row(2L, null, null), row(1L, 10L, null));
+
+        CursorPageResponse<Long> page = KeysetPagination.toCursorPage(rows, 2, "viewCount",
+                TutorialSummaryDTO::getId, null);
+
+        assertThat(page.getContent()).containsExactly(3L, 2L);
+        assertThat(page.isHasNext()).isTrue();
+        KeysetPagination.Cursor next = KeysetPagination.decodeCursor(page.getNextCursor());
+        assertThat(next.getId()).isEqualTo(2L);
+        assertThat(next.getValue()).isNull();
+
+        CursorPageResponse<Long> last = KeysetPagination.toCursorPage(rows.subList(0, 2), 2, "viewCount",
+                TutorialSummaryDTO::getId, null);
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        assertThat(KeysetPagination.pageSize(0)).isEqualTo(1);
+        assertThat(KeysetPagination.pageSize(-5)).isEqualTo(1);
+        assertThat(KeysetPagination.pageSize(20)).isEqualTo(20);
+        assertThat(KeysetPagination.pageSize(10_000)).isEqualTo(KeysetPagination.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void sortFieldOutsideTheAllowListIsRejected() {
+        Set<String> allowed = Set.of("id", "name");
+
+        assertThat(KeysetPagination.sortField("name", allowed)).isEqualTo("name");
+        assertThatThrownBy(() -> KeysetPagination.sortField("password", allowed))
+                .isInstanceOf(BadApiRequestException.class);
+        assertThatThrownBy(() -> KeysetPagination.sortField(null, allowed))
+                .isInstanceOf(BadApiRequestException.class);
+    }
+}
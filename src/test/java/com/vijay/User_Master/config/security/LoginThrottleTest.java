@@ -0,0 +1,122 @@
+package com.vijay.User_Master.config.security;
+
+import com.vijay.User_Master.exceptions.exception.LoginThrottledException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class LoginThrottleTest {
+
+    private static final long WINDOW = 10_000;
+
+    private final AtomicLong now = new AtomicLong();
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "windowMillis", WINDOW);
+        ReflectionTestUtils.setField(throttle, "ipFreeFailures", 3);
+        ReflectionTestUtils.setField(throttle, "accountFreeFailures", 2);
+        ReflectionTestUtils.setField(throttle, "baseDelayMillis", 1_000L);
+        ReflectionTestUtils.setField(throttle, "maxDelayMillis", 8_000L);
+        ReflectionTestUtils.setField(throttle, "maxKeys", 1_000);
+        throttle.clock = now::get;
+    }
+
+    private long retryAfter(String ip, String login) {
+        LoginThrottledException e = catchThrowableOfType(() -> throttle.checkAllowed(ip, login),
+                LoginThrottledException.class);
+        assertThat(e).as("expected %s/%s to be throttled", ip, login).isNotNull();
+        return e.getRetryAfterSeconds();
+    }
+
+    private void assertAllowed(String ip, String login) {
+        assertThatCode(() -> throttle.checkAllowed(ip, login)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void delayDoublesWithEveryFailurePastTheAllowanceUpToTheCap() {
+        throttle.recordFailure(null, "alice");
+        throttle.recordFailure(null, "alice");
+        assertAllowed(null, "alice");
+
+        throttle.recordFailure(null, "alice");
+        assertThat(retryAfter(null, "alice")).isEqualTo(1);
+
+        now.set(1_000);
+        assertAllowed(null, "alice");
+        throttle.recordFailure(null, "alice");
+        assertThat(retryAfter(null, "alice")).isEqualTo(2);
+
+        now.set(3_000);
+        throttle.recordFailure(null, "alice");
+        assertThat(retryAfter(null, "alice")).isEqualTo(4);
+
+        now.set(7_000);
+        throttle.recordFailure(null, "alice");
+        assertThat(retryAfter(null, "alice")).isEqualTo(8);
+
+        // Same account after normalisation; the delay stays at max-delay-ms
+        throttle.recordFailure(null, "Alice ");
+        assertThat(retryAfter(null, "alice")).isEqualTo(8);
+    }
+
+    @Test
+    void previousWindowCountsByItsRemainingOverlap() {
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure(null, "bob");
+        }
+
+        // Half of the previous window still overlaps: 4 * 0.5 + 1 = 3 failures, one past the allowance
+        now.set(WINDOW + WINDOW / 2);
+        assertAllowed(null, "bob");
+        throttle.recordFailure(null, "bob");
+        assertThat(retryAfter(null, "bob")).isEqualTo(1);
+
+        // Two windows after the last roll both counts are stale and the next failure is free again
+        now.set(4 * WINDOW);
+        assertAllowed(null, "bob");
+        throttle.recordFailure(null, "bob");
+        assertAllowed(null, "bob");
+    }
+
+    @Test
+    void successClearsTheAccountButNotTheIp() {
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("10.0.0.1", "user" + i);
+        }
+        assertThat(retryAfter("10.0.0.1", "someone-else")).isEqualTo(1);
+
+        throttle.recordFailure(null, "carol");
+        throttle.recordFailure(null, "carol");
+        throttle.recordFailure(null, "carol");
+        throttle.recordSuccess("carol");
+
+        assertAllowed("10.0.0.2", "carol");
+        assertThat(retryAfter("10.0.0.1", "carol")).isEqualTo(1);
+    }
+
+    @Test
+    void sweepDropsIdleKeysOnly() {
+        throttle.recordFailure("10.0.0.1", null);
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure(null, "dave");
+        }
+
+        now.set(3 * WINDOW);
+        throttle.recordFailure(null, "erin");
+        throttle.sweep();
+
+        @SuppressWarnings("unchecked")
+        Map<String, ?> windows = (Map<String, ?>) ReflectionTestUtils.getField(throttle, "windows");
+        assertThat(windows).containsOnlyKeys("ACCOUNT:erin");
+    }
+}
@@ -0,0 +1,74 @@
+package com.vijay.User_Master.service;
+
+import com.vijay.User_Master.entity.RatingTarget;
+import com.vijay.User_Master.repository.LessonRatingRepository;
+import com.vijay.User_Master.repository.RatingAggregateRepository;
+import com.vijay.User_Master.repository.TutorialRatingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RatingAggregateServiceTest {
+
+    @Mock
+    private RatingAggregateRepository aggregateRepository;
+    @Mock
+    private TutorialRatingRepository tutorialRatingRepository;
+    @Mock
+    private LessonRatingRepository lessonRatingRepository;
+    @Mock
+    private TopRatedService topRatedService;
+
+    @InjectMocks
+    private RatingAggregateService service;
+
+    @Test
+    void approvingAVoteAddsIt() {
+        service.recordChange(RatingTarget.TUTORIAL, 10L, null, RatingAggregateService.counted(4, true));
+
+        verify(aggregateRepository).applyDelta("TUTORIAL", 10L, 4, 1, 0, 0, 0, 1, 0);
+        verify(aggregateRepository).syncTutorialRating(10L);
+        verify(topRatedService).markChanged(RatingTarget.TUTORIAL, 10L);
+    }
+
+    @Test
+    void reRatingMovesTheVoteBetweenBuckets() {
+        service.recordChange(RatingTarget.TUTORIAL, 10L, 4, 2);
+
+        verify(aggregateRepository).applyDelta("TUTORIAL", 10L, -2, 0, 0, 1, 0, -1, 0);
+        verify(aggregateRepository).syncTutorialRating(10L);
+    }
+
+    @Test
+    void deletingAVoteRemovesIt() {
+        service.recordChange(RatingTarget.LESSON, 20L, 2, null);
+
+        verify(aggregateRepository).applyDelta("LESSON", 20L, -2, -1, 0, -1, 0, 0, 0);
+        verify(aggregateRepository, never()).syncTutorialRating(anyLong());
+        verify(topRatedService).markChanged(RatingTarget.LESSON, 20L);
+    }
+
+    @Test
+    void unchangedOrUnapprovedVotesTouchNothing() {
+        service.recordChange(RatingTarget.TUTORIAL, 10L, 3, 3);
+        service.recordChange(RatingTarget.TUTORIAL, 10L, null, RatingAggregateService.counted(5, false));
+
+        verifyNoInteractions(aggregateRepository, topRatedService);
+    }
+
+    @Test
+    void onlyApprovedVotesAreCounted() {
+        assertThat(RatingAggregateService.counted(5, true)).isEqualTo(5);
+        assertThat(RatingAggregateService.counted(5, false)).isNull();
+        assertThat(RatingAggregateService.counted(null, true)).isNull();
+    }
+}
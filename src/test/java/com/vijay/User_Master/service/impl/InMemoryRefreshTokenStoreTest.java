@@ -0,0 +1,123 @@
+package com.vijay.User_Master.service.impl;
+
+import com.vijay.User_Master.exceptions.exception.InvalidTokenException;
+import com.vijay.User_Master.exceptions.exception.TokenNotFoundException;
+import com.vijay.User_Master.repository.RefreshTokenRepository;
+import com.vijay.User_Master.repository.UserRepository;
+import com.vijay.User_Master.repository.WorkerRepository;
+import com.vijay.User_Master.service.RefreshTokenStore;
+import com.vijay.User_Master.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryRefreshTokenStoreTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private WorkerRepository workerRepository;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRefreshTokenStore(refreshTokenRepository, userRepository, workerRepository,
+                tokenRevocationService, transactionManager);
+        ReflectionTestUtils.setField(store, "ttlMillis", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        store.shutdown();
+    }
+
+    private RefreshTokenStore.IssuedToken login() {
+        return store.issue("alice", "alice@example.com", 1L, null, List.of("ROLE_NORMAL"));
+    }
+
+    @Test
+    void issuedTokenIsStoredByHashOnly() {
+        RefreshTokenStore.IssuedToken issued = login();
+
+        assertThat(issued.stored().tokenHash()).isEqualTo(RefreshTokenStore.hash(issued.token()));
+        assertThat(issued.stored().tokenHash()).isNotEqualTo(issued.token());
+        assertThat(store.verify(issued.token())).isEqualTo(issued.stored());
+    }
+
+    @Test
+    void rotationRetiresTheOldTokenAndKeepsTheFamily() {
+        RefreshTokenStore.IssuedToken first = login();
+
+        RefreshTokenStore.IssuedToken second = store.rotate(first.token());
+
+        assertThat(second.token()).isNotEqualTo(first.token());
+        assertThat(second.stored().family()).isEqualTo(first.stored().family());
+        assertThat(second.stored().roles()).containsExactly("ROLE_NORMAL");
+        assertThat(store.verify(second.token())).isEqualTo(second.stored());
+        assertThat(store.rotate(second.token()).stored().family()).isEqualTo(first.stored().family());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamily() {
+        RefreshTokenStore.IssuedToken first = login();
+        RefreshTokenStore.IssuedToken second = store.rotate(first.token());
+
+        assertThatThrownBy(() -> store.rotate(first.token())).isInstanceOf(InvalidTokenException.class);
+
+        verify(tokenRevocationService).revoke(TokenRevocationService.userSubject(1L));
+        // The successor went with the family and the table has nothing for it either
+        assertThatThrownBy(() -> store.verify(second.token())).isInstanceOf(TokenNotFoundException.class);
+    }
+
+    @Test
+    void reuseAfterANewLoginLeavesTheNewFamilyAlone() {
+        RefreshTokenStore.IssuedToken first = login();
+        store.rotate(first.token());
+        RefreshTokenStore.IssuedToken relogin = login();
+
+        assertThatThrownBy(() -> store.rotate(first.token())).isInstanceOf(InvalidTokenException.class);
+
+        verify(tokenRevocationService, never()).revoke(anyString());
+        assertThat(store.verify(relogin.token())).isEqualTo(relogin.stored());
+    }
+
+    @Test
+    void newLoginReplacesTheLiveToken() {
+        RefreshTokenStore.IssuedToken first = login();
+        RefreshTokenStore.IssuedToken relogin = login();
+
+        assertThatThrownBy(() -> store.verify(first.token())).isInstanceOf(TokenNotFoundException.class);
+        assertThat(relogin.stored().family()).isNotEqualTo(first.stored().family());
+    }
+
+    @Test
+    void revokeAccountDropsTheLiveToken() {
+        RefreshTokenStore.IssuedToken issued = login();
+
+        store.revokeAccount(1L, null);
+
+        assertThatThrownBy(() -> store.verify(issued.token())).isInstanceOf(TokenNotFoundException.class);
+        assertThat(store.revoke(issued.token())).isFalse();
+    }
+}